@@ -0,0 +1,32 @@
+package com.example.zipaboutgui.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks twice: with one thread and with one thread per
+ * available processor, so both uncontended latency and scaling under
+ * contention are reported.
+ *
+ * <p>Usage: {@code java -jar benchmarks.jar [includeRegex]}</p>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : RentalServiceBenchmark.class.getSimpleName();
+        int[] threadCounts = {1, Runtime.getRuntime().availableProcessors()};
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .result("rental-service-" + threads + "t.json")
+                    .resultFormat(ResultFormatType.JSON)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.zipaboutgui.benchmarks;
+
+import com.example.zipaboutgui.domain.enums.EquipmentType;
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import com.example.zipaboutgui.service.EventLog;
+import com.example.zipaboutgui.service.LogLevel;
+import com.example.zipaboutgui.service.RentalService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Measures how long a restart takes with and without a snapshot.
+ *
+ * <p>The benchmark builds a journaled service with the requested number
+ * of users, vehicles and completed rentals, writes a snapshot, adds a
+ * short tail of further rentals, and then restarts it in two ways:</p>
+ * <ul>
+ *   <li><b>journal only</b> &ndash; every event since the beginning is replayed;</li>
+ *   <li><b>snapshot + tail</b> &ndash; the snapshot is mapped and only the
+ *       tail of the journal is replayed.</li>
+ * </ul>
+ *
+ * <p>Usage (a plain program rather than a JMH benchmark, since each
+ * restart is measured once per round):</p>
+ * <pre>
+ *   java -cp benchmarks/target/benchmarks.jar com.example.zipaboutgui.benchmarks.ColdStartBenchmark [users] [vehicles] [rentals] [tail]
+ * </pre>
+ */
+public class ColdStartBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int userCount = arg(args, 0, 2_000);
+        int vehicleCount = arg(args, 1, 1_000);
+        int rentalCount = arg(args, 2, 200_000);
+        int tailCount = arg(args, 3, 1_000);
+
+        Path dataDir = Files.createTempDirectory("zipabout-coldstart");
+        try {
+            System.out.println("Building state: " + userCount + " users, " + vehicleCount
+                    + " vehicles, " + rentalCount + " rentals (+" + tailCount + " after snapshot)");
+            long snapshotBytes = buildState(dataDir, userCount, vehicleCount, rentalCount, tailCount);
+            long journalBytes = journalBytes(dataDir);
+            System.out.println("Journal: " + journalBytes / 1024 + " KiB, snapshot: "
+                    + snapshotBytes / 1024 + " KiB");
+
+            long bestJournalOnly = Long.MAX_VALUE;
+            long bestSnapshot = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                bestJournalOnly = Math.min(bestJournalOnly, timeJournalOnly(dataDir));
+                bestSnapshot = Math.min(bestSnapshot, timeSnapshotAndTail(dataDir));
+            }
+
+            System.out.printf("Cold start, journal only:    %8.1f ms%n", bestJournalOnly / 1e6);
+            System.out.printf("Cold start, snapshot + tail: %8.1f ms%n", bestSnapshot / 1e6);
+        } finally {
+            deleteRecursively(dataDir);
+        }
+    }
+
+    /**
+     * Creates the history through the public API (so the journal is real),
+     * snapshots it, then appends the tail.
+     *
+     * @return snapshot size in bytes
+     */
+    private static long buildState(Path dataDir, int userCount, int vehicleCount,
+                                   int rentalCount, int tailCount) throws IOException {
+        RentalService service = RentalService.newInstance();
+        LogLevel previousLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+        long snapshotBytes;
+        try {
+            service.enablePersistence(dataDir, false);
+            for (int i = 0; i < userCount; i++) {
+                service.registerUser(new User("U" + i, "user" + i, "User " + i, "pw", Role.USER));
+            }
+            VehicleFactory factory = new VehicleFactory();
+            Equipment[] helmet = {new Equipment(EquipmentType.HELMET, "ABS plastic", "M")};
+            for (int i = 0; i < vehicleCount; i++) {
+                Vehicle vehicle = i % 2 == 0
+                        ? factory.createVehicle(VehicleKind.E_SCOOTER, "Xiaomi", "Pro 2", helmet,
+                                new Battery(400, 100, true), new Motor(300), new Controller("v2.0"))
+                        : factory.createVehicle(VehicleKind.BIKE, "Trek", "FX 1", helmet,
+                                null, null, null);
+                vehicle.assignAssetCode("BM-" + i);
+                service.registerVehicle(vehicle);
+            }
+
+            rentAndRelease(service, rentalCount);
+            // Keep the journal segments the snapshot covers, for the journal-only run
+            snapshotBytes = service.writeSnapshot(dataDir.resolve(RentalService.SNAPSHOT_FILE));
+            rentAndRelease(service, tailCount);
+        } finally {
+            EventLog.setLevel(previousLevel);
+            service.closePersistence();
+        }
+        return snapshotBytes;
+    }
+
+    private static void rentAndRelease(RentalService service, int count) {
+        List<User> users = service.getUsers();
+        List<Vehicle> vehicles = service.getVehicles();
+        for (int i = 0; i < count; i++) {
+            User user = users.get(i % users.size());
+            Vehicle vehicle = vehicles.get(i % vehicles.size());
+            if (service.bookVehicle(user, vehicle) != null) {
+                service.releaseVehicle(user, vehicle);
+            }
+        }
+    }
+
+    private static long timeJournalOnly(Path dataDir) throws IOException {
+        return timeRestart(service -> service.enableJournal(dataDir.resolve(RentalService.JOURNAL_FILE)));
+    }
+
+    private static long timeSnapshotAndTail(Path dataDir) throws IOException {
+        return timeRestart(service -> service.enablePersistence(dataDir, false));
+    }
+
+    private interface Restart {
+        void run(RentalService service) throws IOException;
+    }
+
+    private static long timeRestart(Restart restart) throws IOException {
+        RentalService service = RentalService.newInstance();
+        LogLevel previousLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+        long start = System.nanoTime();
+        try {
+            restart.run(service);
+            return System.nanoTime() - start;
+        } finally {
+            EventLog.setLevel(previousLevel);
+            service.closePersistence();
+        }
+    }
+
+    /** Total size of the journal segments. */
+    private static long journalBytes(Path dataDir) throws IOException {
+        long total = 0;
+        try (Stream<Path> paths = Files.list(dataDir)) {
+            for (Path p : paths.toList()) {
+                if (p.getFileName().toString().startsWith(RentalService.JOURNAL_FILE)) {
+                    total += Files.size(p);
+                }
+            }
+        }
+        return total;
+    }
+
+    private static int arg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
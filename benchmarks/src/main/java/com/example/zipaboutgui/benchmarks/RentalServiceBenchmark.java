@@ -0,0 +1,269 @@
+package com.example.zipaboutgui.benchmarks;
+
+import com.example.zipaboutgui.domain.enums.EquipmentType;
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import com.example.zipaboutgui.service.EventLog;
+import com.example.zipaboutgui.service.LogLevel;
+import com.example.zipaboutgui.service.Rental;
+import com.example.zipaboutgui.service.RentalService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Microbenchmarks for the {@link RentalService} operations on the booking
+ * and query paths.
+ *
+ * <p>Each trial builds a fresh, isolated service (not the singleton) with
+ * {@code fleetSize} vehicles, {@code userCount} users and
+ * {@code historyDepth} completed rentals. Half of the users then hold an
+ * active rental, so active-rental queries have realistic content.</p>
+ *
+ * <p>Every benchmark thread owns a dedicated rider (a user without an
+ * active rental) and picks vehicles at random, so multi-threaded runs
+ * measure contention on shared structures rather than business-rule
+ * rejections.</p>
+ *
+ * <p>{@code bookVehicle}, {@code releaseVehicle} and {@code removeUser}
+ * prepare each call in a {@code Level.Invocation} fixture. JMH times every
+ * invocation separately then, and for operations of a few microseconds
+ * the timer overhead and the fixture's effect on caches show up in the
+ * score: compare them with each other, not as absolute costs.
+ * {@code bookAndRelease} runs a whole cycle without fixtures and is the
+ * figure to quote.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalServiceBenchmark {
+
+    @Param({"1000", "50000"})
+    public int fleetSize;
+
+    @Param({"1000", "20000"})
+    public int userCount;
+
+    @Param({"0", "200000"})
+    public int historyDepth;
+
+    RentalService service;
+    List<Vehicle> vehicles;
+    List<User> users;
+
+    /** Users reserved for benchmark threads (no active rental). */
+    User[] riders;
+    final AtomicInteger nextRider = new AtomicInteger();
+
+    private LogLevel logLevel;
+
+    @Setup(Level.Trial)
+    public void buildService() {
+        // Measure the operations themselves, not event formatting and console output
+        logLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+
+        service = RentalService.newInstance();
+        VehicleFactory factory = new VehicleFactory();
+        Equipment[] helmet = {new Equipment(EquipmentType.HELMET, "ABS plastic", "M")};
+        for (int i = 0; i < fleetSize; i++) {
+            Vehicle vehicle = i % 2 == 0
+                    ? factory.createVehicle(VehicleKind.E_SCOOTER, "Xiaomi", "Pro 2", helmet,
+                            new Battery(400, 100, true), new Motor(300), new Controller("v2.0"))
+                    : factory.createVehicle(VehicleKind.BIKE, "Trek", "FX 1", helmet, null, null, null);
+            vehicle.assignAssetCode("BM-" + i);
+            service.registerVehicle(vehicle);
+        }
+        for (int i = 0; i < userCount; i++) {
+            service.registerUser(new User("U" + i, "user" + i, "User " + i, "pw", Role.USER));
+        }
+        vehicles = service.getVehicles();
+        users = service.getUsers();
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < historyDepth; i++) {
+            User user = users.get(random.nextInt(users.size()));
+            Vehicle vehicle = vehicles.get(random.nextInt(vehicles.size()));
+            if (service.bookVehicle(user, vehicle) != null) {
+                service.releaseVehicle(user, vehicle);
+            }
+        }
+
+        // Second half of the users ride during the benchmark; the first half
+        // keeps an active rental for the query benchmarks
+        int riderCount = userCount / 2;
+        riders = new User[riderCount];
+        for (int i = 0; i < riderCount; i++) {
+            riders[i] = users.get(userCount - 1 - i);
+        }
+        int holders = Math.min(userCount - riderCount, fleetSize / 2);
+        for (int i = 0; i < holders; i++) {
+            service.bookVehicle(users.get(i), vehicles.get(i * 2));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeService() {
+        // Each trial has its own service; stop its reservation-expiry thread
+        service.stopReservationExpiry();
+        EventLog.setLevel(logLevel);
+    }
+
+    /* =========================================================
+       Per-thread state
+       ========================================================= */
+
+    /**
+     * A benchmark thread's rider. Subclasses add the per-invocation
+     * preparation of the booking or release benchmarks.
+     */
+    public abstract static class Rider {
+        User user;
+        SplittableRandom random;
+        Vehicle vehicle;
+        Rental rental;
+
+        @Setup(Level.Trial)
+        public void assign(RentalServiceBenchmark bench) {
+            int i = bench.nextRider.getAndIncrement();
+            if (i >= bench.riders.length) {
+                throw new IllegalStateException("More benchmark threads than riders; raise userCount");
+            }
+            user = bench.riders[i];
+            random = new SplittableRandom(i);
+        }
+
+        Vehicle randomVehicle(RentalServiceBenchmark bench) {
+            return bench.vehicles.get(random.nextInt(bench.vehicles.size()));
+        }
+    }
+
+    /** Picks an available vehicle to book; released again after the invocation. */
+    @State(Scope.Thread)
+    public static class BookingCycle extends Rider {
+        @Setup(Level.Invocation)
+        public void pick(RentalServiceBenchmark bench) {
+            do {
+                vehicle = randomVehicle(bench);
+            } while (!vehicle.isAvailable());
+        }
+
+        @TearDown(Level.Invocation)
+        public void release(RentalServiceBenchmark bench) {
+            if (rental != null) {
+                bench.service.releaseVehicle(user, vehicle);
+                rental = null;
+            }
+        }
+    }
+
+    /** Books a vehicle before the invocation so it can be released. */
+    @State(Scope.Thread)
+    public static class ReleaseCycle extends Rider {
+        @Setup(Level.Invocation)
+        public void book(RentalServiceBenchmark bench) {
+            do {
+                vehicle = randomVehicle(bench);
+                rental = bench.service.bookVehicle(user, vehicle);
+            } while (rental == null);
+        }
+    }
+
+    /** Books and releases within one invocation; no per-invocation fixtures. */
+    @State(Scope.Thread)
+    public static class RoundTrip extends Rider {
+    }
+
+    /** Per-thread random source for the query benchmarks. */
+    @State(Scope.Thread)
+    public static class Picker {
+        private static final AtomicInteger SEED = new AtomicInteger();
+        final SplittableRandom random = new SplittableRandom(SEED.getAndIncrement());
+    }
+
+    /** Registers a throwaway user before each removal. */
+    @State(Scope.Thread)
+    public static class RemovalCycle {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+        User victim;
+
+        @Setup(Level.Invocation)
+        public void register(RentalServiceBenchmark bench) {
+            int n = SEQUENCE.incrementAndGet();
+            victim = new User("X" + n, "tmp" + n, "Temp " + n, "pw", Role.USER);
+            bench.service.registerUser(victim);
+        }
+    }
+
+    /* =========================================================
+       Benchmarks
+       ========================================================= */
+
+    @Benchmark
+    public Rental bookVehicle(BookingCycle rider) {
+        rider.rental = service.bookVehicle(rider.user, rider.vehicle);
+        return rider.rental;
+    }
+
+    @Benchmark
+    public void releaseVehicle(ReleaseCycle rider) {
+        service.releaseVehicle(rider.user, rider.vehicle);
+        rider.rental = null;
+    }
+
+    @Benchmark
+    public Rental bookAndRelease(RoundTrip rider) {
+        Rental rental;
+        do {
+            rider.vehicle = rider.randomVehicle(this);
+            rental = service.bookVehicle(rider.user, rider.vehicle);
+        } while (rental == null);
+        service.releaseVehicle(rider.user, rider.vehicle);
+        return rental;
+    }
+
+    @Benchmark
+    public List<Rental> getActiveRentals() {
+        return service.getActiveRentals();
+    }
+
+    @Benchmark
+    public List<Rental> getRentalsForUser(Picker picker) {
+        return service.getRentalsForUser(users.get(picker.random.nextInt(users.size())));
+    }
+
+    @Benchmark
+    public List<Rental> getPastRentalsForVehicle(Picker picker) {
+        return service.getPastRentalsForVehicle(vehicles.get(picker.random.nextInt(vehicles.size())));
+    }
+
+    @Benchmark
+    public boolean removeUser(RemovalCycle cycle) {
+        return service.removeUser(cycle.victim);
+    }
+}
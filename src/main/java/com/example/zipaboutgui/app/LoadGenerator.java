@@ -0,0 +1,402 @@
+package com.example.zipaboutgui.app;
+
+import com.example.zipaboutgui.domain.enums.EquipmentType;
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import com.example.zipaboutgui.service.BackpressurePolicy;
+import com.example.zipaboutgui.service.EventLog;
+import com.example.zipaboutgui.service.LatencyHistogram;
+import com.example.zipaboutgui.service.LogLevel;
+import com.example.zipaboutgui.service.MaintenanceObserver;
+import com.example.zipaboutgui.service.Rental;
+import com.example.zipaboutgui.service.RentalService;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator that simulates many concurrent riders against an
+ * isolated {@link RentalService}.
+ *
+ * <p>Every rider runs on its own virtual thread and repeats the rental
+ * cycle until the run ends: pick a vehicle, book it, ride for a simulated
+ * duration, release it, pause. When the picked vehicle is already taken
+ * the attempt counts as a conflict and the rider tries another one.</p>
+ *
+ * <p>At the end the generator reports throughput, booking and release
+ * latency percentiles, the conflict rate and any invariant violations.
+ * The invariants checked are:</p>
+ * <ul>
+ *   <li>no vehicle is held by two riders at once (tracked in a claim
+ *       table indexed by fleet index);</li>
+ *   <li>a booking returns a rental for the requesting rider and vehicle,
+ *       and is never refused because of an active rental the rider does
+ *       not have;</li>
+ *   <li>after a release the rider has no active rental;</li>
+ *   <li>after the run no rental is active, every vehicle is available and
+ *       every successful booking appears in the riders' history.</li>
+ * </ul>
+ * <p>The process exits with status 1 if any invariant was violated, so
+ * the generator can gate concurrency changes.</p>
+ *
+ * <p>Usage ({@code key=value} options, all optional):</p>
+ * <pre>
+ *   Main --load riders=5000 vehicles=2000 seconds=30 rideMillis=50 thinkMillis=10 pick=random|search log=off
+ * </pre>
+ * <p>{@code pick=search} makes riders choose from
+ * {@code queryVehicles().availableOnly()} instead of picking blindly.
+ * {@code log} sets the {@link EventLog} level during the run (default
+ * {@code off}); e.g. {@code log=info} measures with every booking logged.</p>
+ */
+public class LoadGenerator {
+
+    private static final int MAX_VIOLATION_SAMPLES = 10;
+    private static final long PROGRESS_INTERVAL_SECONDS = 5;
+
+    // --- Configuration ---
+    private final int riderCount;
+    private final int vehicleCount;
+    private final int seconds;
+    private final int rideMillis;
+    private final int thinkMillis;
+    private final boolean search;
+    private final LogLevel logLevel;
+
+    // --- Run state ---
+    private RentalService service;
+    private List<Vehicle> vehicles;
+    private AtomicReferenceArray<User> claims;
+    private volatile long deadlineNanos;
+
+    // --- Results ---
+    private final LongAdder bookingAttempts = new LongAdder();
+    private final LongAdder bookings = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+    private final AtomicLong violations = new AtomicLong();
+    private final Queue<String> violationSamples = new ConcurrentLinkedQueue<>();
+    private final LatencyHistogram bookLatency = new LatencyHistogram();
+    private final LatencyHistogram releaseLatency = new LatencyHistogram();
+
+    public LoadGenerator(int riderCount, int vehicleCount, int seconds,
+                         int rideMillis, int thinkMillis, boolean search, LogLevel logLevel) {
+        if (riderCount <= 0 || vehicleCount <= 0 || seconds <= 0 || rideMillis < 0 || thinkMillis < 0
+                || logLevel == null) {
+            throw new IllegalArgumentException("Invalid load generator configuration");
+        }
+        this.riderCount = riderCount;
+        this.vehicleCount = vehicleCount;
+        this.seconds = seconds;
+        this.rideMillis = rideMillis;
+        this.thinkMillis = thinkMillis;
+        this.search = search;
+        this.logLevel = logLevel;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int riders = 5_000;
+        int vehicles = 2_000;
+        int seconds = 30;
+        int rideMillis = 50;
+        int thinkMillis = 10;
+        boolean search = false;
+        LogLevel logLevel = LogLevel.OFF;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "riders" -> riders = Integer.parseInt(value);
+                case "vehicles" -> vehicles = Integer.parseInt(value);
+                case "seconds" -> seconds = Integer.parseInt(value);
+                case "rideMillis" -> rideMillis = Integer.parseInt(value);
+                case "thinkMillis" -> thinkMillis = Integer.parseInt(value);
+                case "pick" -> search = switch (value) {
+                    case "random" -> false;
+                    case "search" -> true;
+                    default -> throw new IllegalArgumentException("pick must be random or search");
+                };
+                case "log" -> logLevel = LogLevel.valueOf(value.toUpperCase());
+                default -> throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        LoadGenerator generator = new LoadGenerator(riders, vehicles, seconds, rideMillis, thinkMillis,
+                search, logLevel);
+        boolean clean = generator.run();
+        if (!clean) {
+            System.exit(1);
+        }
+    }
+
+    /* =========================================================
+       Run
+       ========================================================= */
+
+    /**
+     * Builds the fleet, runs the riders and prints the report.
+     *
+     * @return true if all riders finished in time and no invariant was violated
+     */
+    public boolean run() throws InterruptedException {
+        PrintStream console = System.out;
+        console.println("Load: " + riderCount + " riders, " + vehicleCount + " vehicles, "
+                + seconds + " s, ride ~" + rideMillis + " ms, think ~" + thinkMillis + " ms, pick="
+                + (search ? "search" : "random") + ", log=" + logLevel.name().toLowerCase());
+
+        LogLevel previousLevel = EventLog.getLevel();
+        EventLog.setLevel(logLevel);
+        long elapsedNanos;
+        boolean finished;
+        MaintenanceObserver maintenance = new MaintenanceObserver();
+        ProgressReporter progress = null;
+        try {
+            User[] riders = buildService();
+            service.addAsyncObserver(maintenance, 1024, BackpressurePolicy.BLOCK);
+
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                deadlineNanos = start + TimeUnit.SECONDS.toNanos(seconds);
+                progress = new ProgressReporter(console, start);
+                for (User rider : riders) {
+                    executor.submit(() -> ride(rider));
+                }
+                executor.shutdown();
+                finished = executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+                elapsedNanos = System.nanoTime() - start;
+                if (!finished) {
+                    // Interrupt the stragglers; close() waits for them to leave
+                    executor.shutdownNow();
+                }
+            }
+
+            service.closeAsyncObservers();
+            if (finished) {
+                checkFinalState(riders);
+            }
+        } finally {
+            if (progress != null) {
+                progress.stop();
+            }
+            EventLog.flush();
+            EventLog.setLevel(previousLevel);
+        }
+
+        report(console, elapsedNanos, finished);
+        return finished && violations.get() == 0;
+    }
+
+    private User[] buildService() {
+        service = RentalService.newInstance();
+        VehicleFactory factory = new VehicleFactory();
+        Equipment[] helmet = {new Equipment(EquipmentType.HELMET, "ABS plastic", "M")};
+        for (int i = 0; i < vehicleCount; i++) {
+            Vehicle vehicle = switch (i % 3) {
+                case 0 -> factory.createVehicle(VehicleKind.E_SCOOTER, "Xiaomi", "Pro 2", helmet,
+                        new Battery(400, 100, true), new Motor(300), new Controller("v2.0"));
+                case 1 -> factory.createVehicle(VehicleKind.E_BIKE, "Giant", "Explore E+", helmet,
+                        new Battery(500, 100, true), new Motor(250), new Controller("v1.0"));
+                default -> factory.createVehicle(VehicleKind.BIKE, "Trek", "FX 1", helmet,
+                        null, null, null);
+            };
+            vehicle.assignAssetCode("LD-" + i);
+            service.registerVehicle(vehicle);
+        }
+        vehicles = service.getVehicles();
+        claims = new AtomicReferenceArray<>(vehicles.size());
+
+        User[] riders = new User[riderCount];
+        for (int i = 0; i < riderCount; i++) {
+            riders[i] = new User("R" + i, "rider" + i, "Rider " + i, "pw", Role.USER);
+            service.registerUser(riders[i]);
+        }
+        return riders;
+    }
+
+    /**
+     * One rider's loop: book, ride, release, pause, until the deadline.
+     */
+    private void ride(User rider) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            while (System.nanoTime() < deadlineNanos) {
+                Vehicle vehicle = pick(random);
+                if (vehicle == null) {
+                    pause(random, thinkMillis);
+                    continue;
+                }
+
+                bookingAttempts.increment();
+                long t0 = System.nanoTime();
+                Rental rental = service.bookVehicle(rider, vehicle);
+                bookLatency.record(System.nanoTime() - t0);
+
+                if (rental == null) {
+                    if (service.userHasActiveRental(rider)) {
+                        violation(rider.getName() + " refused with an active rental it does not hold");
+                    }
+                    conflicts.increment();
+                    pause(random, thinkMillis);
+                    continue;
+                }
+                bookings.increment();
+
+                int slot = vehicle.getFleetIndex();
+                if (rental.getUser() != rider || rental.getVehicle() != vehicle) {
+                    violation("Rental " + rental.getId() + " returned for the wrong rider or vehicle");
+                }
+                if (!claims.compareAndSet(slot, null, rider)) {
+                    User other = claims.get(slot);
+                    violation(vehicle.getAssetCode() + " double-booked by " + rider.getName()
+                            + " and " + (other != null ? other.getName() : "?"));
+                }
+
+                pause(random, rideMillis);
+
+                // Give up the claim before the vehicle becomes bookable again
+                claims.compareAndSet(slot, rider, null);
+                t0 = System.nanoTime();
+                service.releaseVehicle(rider, vehicle);
+                releaseLatency.record(System.nanoTime() - t0);
+                releases.increment();
+
+                if (rental.isActive() || service.userHasActiveRental(rider)) {
+                    violation(rider.getName() + " still holds a rental after releasing "
+                            + vehicle.getAssetCode());
+                }
+
+                pause(random, thinkMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            violation(rider.getName() + " failed: " + e);
+        }
+    }
+
+    private Vehicle pick(ThreadLocalRandom random) {
+        if (search) {
+            List<Vehicle> free = service.queryVehicles().availableOnly().list();
+            return free.isEmpty() ? null : free.get(random.nextInt(free.size()));
+        }
+        return vehicles.get(random.nextInt(vehicles.size()));
+    }
+
+    /**
+     * Sleeps for a random time around {@code meanMillis} (half to one and a half times).
+     */
+    private static void pause(ThreadLocalRandom random, int meanMillis) throws InterruptedException {
+        if (meanMillis > 0) {
+            Thread.sleep(meanMillis / 2 + random.nextInt(meanMillis + 1));
+        }
+    }
+
+    private void checkFinalState(User[] riders) {
+        int active = service.getActiveRentals().size();
+        if (active != 0) {
+            violation(active + " rentals still active after the run");
+        }
+        for (Vehicle vehicle : vehicles) {
+            if (!vehicle.isAvailable()) {
+                violation(vehicle.getAssetCode() + " not available after the run");
+            }
+        }
+        long recorded = 0;
+        for (User rider : riders) {
+            recorded += service.getRentalsForUser(rider).size();
+        }
+        if (recorded != bookings.sum()) {
+            violation(recorded + " rentals in history, but " + bookings.sum() + " bookings succeeded");
+        }
+    }
+
+    private void violation(String description) {
+        if (violations.incrementAndGet() <= MAX_VIOLATION_SAMPLES) {
+            violationSamples.add(description);
+        }
+    }
+
+    /* =========================================================
+       Reporting
+       ========================================================= */
+
+    private void report(PrintStream out, long elapsedNanos, boolean finished) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        long attempts = bookingAttempts.sum();
+        long booked = bookings.sum();
+        long released = releases.sum();
+
+        out.println();
+        out.println("--- Load generator results ---");
+        out.printf("Elapsed:            %.1f s%n", elapsedSeconds);
+        out.printf("Booking attempts:   %d (%.0f/s)%n", attempts, attempts / elapsedSeconds);
+        out.printf("Bookings:           %d (%.0f/s)%n", booked, booked / elapsedSeconds);
+        out.printf("Releases:           %d (%.0f/s)%n", released, released / elapsedSeconds);
+        out.printf("Conflicts:          %d (%.1f%% of attempts)%n", conflicts.sum(),
+                attempts == 0 ? 0.0 : conflicts.sum() * 100.0 / attempts);
+        out.println("Book latency:       " + bookLatency.summary().format());
+        out.println("Release latency:    " + releaseLatency.summary().format());
+        out.println("Log events dropped: " + EventLog.getDroppedCount());
+        if (!finished) {
+            out.println("Timed out:          riders still running " + (seconds + 60)
+                    + " s after the start; final state not checked");
+        }
+        out.println("Invariant violations: " + violations.get());
+        for (String sample : violationSamples) {
+            out.println("  " + sample);
+        }
+        out.println();
+        out.print(service.getMetrics().format());
+    }
+
+    /**
+     * Prints a progress line every few seconds while the riders run.
+     */
+    private final class ProgressReporter {
+
+        private final Thread thread;
+
+        ProgressReporter(PrintStream out, long startNanos) {
+            thread = new Thread(() -> {
+                try {
+                    while (true) {
+                        TimeUnit.SECONDS.sleep(PROGRESS_INTERVAL_SECONDS);
+                        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+                        out.println("  t=" + elapsed + "s bookings=" + bookings.sum()
+                                + " conflicts=" + conflicts.sum()
+                                + " active=" + service.getActiveRentals().size()
+                                + " violations=" + violations.get());
+                    }
+                } catch (InterruptedException e) {
+                    // run finished
+                }
+            }, "load-progress");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            thread.interrupt();
+        }
+    }
+}
@@ -37,10 +37,22 @@ import com.example.zipaboutgui.service.*;
  *     <li>Triggers maintenance checks via observers,</li>
  *     <li>Prints summaries of rentals, users, and vehicles.</li>
  * </ul>
+ * <p>
+ * Run with {@code --load [key=value ...]} to start the concurrent
+ * {@link LoadGenerator} instead of the scripted demo.
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+
+        if (args.length > 0 && args[0].equals("--load")) {
+            LoadGenerator.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // The demo prints its own section headers between service calls;
+        // write log events immediately so they stay in order
+        EventLog.setSynchronous(true);
 
         // --- Equipment sets -------------------------------------------------
         Equipment helmetM = new Equipment(EquipmentType.HELMET, "ABS plastic", "M");
@@ -177,6 +189,7 @@ public class Main {
         RentalService rentalService = RentalService.getInstance();
 
         // Register observers (Observer pattern)
+        // Called synchronously, so notifications print in order with the demo output
         NotificationObserver notificationObserver = new NotificationObserver();
         MaintenanceObserver maintenanceObserver   = new MaintenanceObserver();
         rentalService.addObserver(notificationObserver);
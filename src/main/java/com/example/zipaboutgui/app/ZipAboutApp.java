@@ -12,7 +12,14 @@ import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
+import com.example.zipaboutgui.service.EventLog;
+import com.example.zipaboutgui.service.LogLevel;
+import com.example.zipaboutgui.service.OverdueRentalAction;
 import com.example.zipaboutgui.service.RentalService;
 import com.example.zipaboutgui.domain.user.User;
 
@@ -25,7 +32,7 @@ import com.example.zipaboutgui.domain.user.User;
  *
  * <p>Responsibilities:
  * <ul>
- *   <li>Initialize shared services</li>
+ *   <li>Initialize shared services (optionally restoring journaled state)</li>
  *   <li>Seed temporary data for GUI testing</li>
  *   <li>Set up the primary JavaFX stage</li>
  *   <li>Load the initial login screen</li>
@@ -34,6 +41,36 @@ import com.example.zipaboutgui.domain.user.User;
  */
 public class ZipAboutApp extends Application {
 
+    /**
+     * System property naming a directory for durable state.
+     * When set, all changes are journaled there and replayed on the next start.
+     */
+    private static final String DATA_DIR_PROPERTY = "zipabout.data.dir";
+
+    /**
+     * System property with an interval in seconds. When set, all service
+     * metrics are printed to standard error at that interval.
+     */
+    private static final String METRICS_DUMP_PROPERTY = "zipabout.metrics.dump.seconds";
+
+    /**
+     * System property with the minimum {@link LogLevel} of logged events
+     * (e.g. {@code warn}); the default is {@code info}.
+     */
+    private static final String LOG_LEVEL_PROPERTY = "zipabout.log.level";
+
+    /**
+     * System property with a number of hours. When set, rentals active for
+     * longer are completed automatically (abandoned vehicles return to the fleet).
+     */
+    private static final String MAX_RENTAL_HOURS_PROPERTY = "zipabout.rental.max.hours";
+
+    /** How often a snapshot is written while the application runs. */
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
+
+    /** How often overdue rentals are looked for, when enabled. */
+    private static final Duration TIMEOUT_SWEEP_INTERVAL = Duration.ofMinutes(1);
+
     /**
      * JavaFX lifecycle method.
      * This is called automatically when the application starts.
@@ -43,6 +80,20 @@ public class ZipAboutApp extends Application {
     @Override
     public void start(Stage primaryStage) {
 
+        String logLevel = System.getProperty(LOG_LEVEL_PROPERTY);
+        if (logLevel != null && !logLevel.isBlank()) {
+            EventLog.setLevel(LogLevel.valueOf(logLevel.trim().toUpperCase()));
+        }
+
+        // Restore previous state from the journal, if persistence is enabled
+        enablePersistence();
+
+        // Periodic metrics dump, if requested
+        enableMetricsDump();
+
+        // Automatic completion of abandoned rentals, if requested
+        enableRentalTimeouts();
+
         // Ensure vehicles exist before the UI loads
         // This avoids empty tables when launching the GUI
         RentalService.getInstance().seedVehiclesIfEmpty();
@@ -77,6 +128,11 @@ public class ZipAboutApp extends Application {
     private void seedTestUsers() {
         RentalService rentalService = RentalService.getInstance();
 
+        // Users restored from the journal already include the test users
+        if (!rentalService.getUsers().isEmpty()) {
+            return;
+        }
+
         rentalService.registerUser(
                 new User("01", "user1", "User 1", "user1", Role.USER)
         );
@@ -90,6 +146,84 @@ public class ZipAboutApp extends Application {
         );
     }
 
+    /**
+     * Restores state from the snapshot and journal in the directory given by
+     * {@value #DATA_DIR_PROPERTY} and schedules periodic snapshots.
+     * Without the property the application runs purely in memory.
+     */
+    private void enablePersistence() {
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        if (dataDir == null || dataDir.isBlank()) {
+            return;
+        }
+        try {
+            RentalService rentalService = RentalService.getInstance();
+            rentalService.enablePersistence(Path.of(dataDir));
+            rentalService.scheduleSnapshots(SNAPSHOT_INTERVAL);
+        } catch (IOException e) {
+            // Fall back to in-memory mode rather than refusing to start
+            EventLog.warn("journal.unavailable", "Running in memory, cannot open {}: {}",
+                    dataDir, e.toString());
+        }
+    }
+
+    /**
+     * Starts the periodic metrics dump when {@value #METRICS_DUMP_PROPERTY} is set.
+     */
+    private void enableMetricsDump() {
+        String seconds = System.getProperty(METRICS_DUMP_PROPERTY);
+        if (seconds == null || seconds.isBlank()) {
+            return;
+        }
+        try {
+            RentalService.getInstance().getMetrics()
+                    .scheduleDump(Duration.ofSeconds(Long.parseLong(seconds.trim())), System.err);
+        } catch (IllegalArgumentException e) {
+            EventLog.warn("metrics.dump.failed", "Ignoring {}={}: {}",
+                    METRICS_DUMP_PROPERTY, seconds, e.toString());
+        }
+    }
+
+    /**
+     * Starts the overdue-rental sweeper when {@value #MAX_RENTAL_HOURS_PROPERTY} is set.
+     */
+    private void enableRentalTimeouts() {
+        String hours = System.getProperty(MAX_RENTAL_HOURS_PROPERTY);
+        if (hours == null || hours.isBlank()) {
+            return;
+        }
+        try {
+            RentalService.getInstance().scheduleRentalTimeouts(
+                    Duration.ofHours(Long.parseLong(hours.trim())),
+                    OverdueRentalAction.COMPLETE,
+                    TIMEOUT_SWEEP_INTERVAL);
+        } catch (IllegalArgumentException e) {
+            EventLog.warn("timeout.failed", "Ignoring {}={}: {}",
+                    MAX_RENTAL_HOURS_PROPERTY, hours, e.getMessage());
+        }
+    }
+
+    /**
+     * JavaFX lifecycle method called when the application exits.
+     * Writes a final snapshot (so the next start replays nothing) and
+     * flushes the journal so no acknowledged change is lost.
+     */
+    @Override
+    public void stop() {
+        RentalService rentalService = RentalService.getInstance();
+        rentalService.getMetrics().stopDump();
+        rentalService.stopRentalTimeouts();
+        rentalService.stopReservationExpiry();
+        if (System.getProperty(DATA_DIR_PROPERTY) != null) {
+            try {
+                rentalService.writeSnapshot();
+            } catch (IOException | IllegalStateException e) {
+                EventLog.warn("snapshot.failed", "Final snapshot failed: {}", e.toString());
+            }
+        }
+        rentalService.closePersistence();
+    }
+
     /**
      * Standard Java entry point.
      * Delegates control to JavaFX.
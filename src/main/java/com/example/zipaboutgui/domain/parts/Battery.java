@@ -8,6 +8,10 @@ import com.example.zipaboutgui.domain.enums.*;
  * <p>
  * Tracks capacity in watt-hours, current charge level (as a percentage),
  * whether the battery is removable, charge cycle count, and chemistry type.
+ * <p>
+ * Once the vehicle using it is registered, the battery's state moves into a
+ * {@link FleetBatteryStore} and this object becomes a view over its slot;
+ * the fields below only hold the values until then.
  */
 public class Battery {
 
@@ -17,6 +21,10 @@ public class Battery {
     private int cycleCount;
     private BatteryChemistry chemistry;
 
+    // Set once the state lives in a fleet store
+    private volatile FleetBatteryStore store;
+    private int slot = -1;
+
     /**
      * Creates a new battery with default chemistry (LI_ION).
      *
@@ -44,32 +52,79 @@ public class Battery {
         this.chemistry = chemistry;
     }
 
+    /**
+     * Called by {@link FleetBatteryStore} after copying this battery's state
+     * into the given slot.
+     */
+    void attachTo(FleetBatteryStore store, int slot) {
+        this.slot = slot;
+        this.store = store;
+    }
+
+    /**
+     * @return this battery's slot in {@code target}, or -1 if not stored yet
+     * @throws IllegalStateException if the battery is stored in another store
+     */
+    int storeSlot(FleetBatteryStore target) {
+        FleetBatteryStore current = store;
+        if (current == null) {
+            return -1;
+        }
+        if (current != target) {
+            throw new IllegalStateException("Battery already belongs to another fleet");
+        }
+        return slot;
+    }
+
     public int getCycleCount() {
-        return cycleCount;
+        FleetBatteryStore s = store;
+        return s != null ? s.cycleCount(slot) : cycleCount;
     }
 
     public void setCycleCount(int cycleCount) {
-        this.cycleCount = cycleCount;
+        FleetBatteryStore s = store;
+        if (s != null) {
+            s.setCycleCount(slot, cycleCount);
+        } else {
+            this.cycleCount = cycleCount;
+        }
     }
 
     public boolean isRemovable() {
-        return removable;
+        FleetBatteryStore s = store;
+        return s != null ? s.removable(slot) : removable;
     }
 
     public void setRemovable(boolean removable) {
-        this.removable = removable;
+        FleetBatteryStore s = store;
+        if (s != null) {
+            s.setRemovable(slot, removable);
+        } else {
+            this.removable = removable;
+        }
     }
 
     public double getCapacityWh() {
-        return capacityWh;
+        FleetBatteryStore s = store;
+        return s != null ? s.capacityWh(slot) : capacityWh;
     }
 
     public void setCapacityWh(double capacityWh) {
-        this.capacityWh = capacityWh;
+        FleetBatteryStore s = store;
+        if (s != null) {
+            s.setCapacityWh(slot, capacityWh);
+        } else {
+            this.capacityWh = capacityWh;
+        }
     }
 
     public void setLevel(double level) {
-        this.level = level;
+        FleetBatteryStore s = store;
+        if (s != null) {
+            s.setLevel(slot, level);
+        } else {
+            this.level = level;
+        }
     }
 
     /**
@@ -78,15 +133,22 @@ public class Battery {
      * @return current charge level
      */
     public double getLevel() {
-        return this.level;
+        FleetBatteryStore s = store;
+        return s != null ? s.level(slot) : level;
     }
 
     public BatteryChemistry getChemistry() {
-        return chemistry;
+        FleetBatteryStore s = store;
+        return s != null ? s.chemistry(slot) : chemistry;
     }
 
     public void setChemistry(BatteryChemistry chemistry) {
-        this.chemistry = chemistry;
+        FleetBatteryStore s = store;
+        if (s != null) {
+            s.setChemistry(slot, chemistry);
+        } else {
+            this.chemistry = chemistry;
+        }
     }
 
     /**
@@ -95,6 +157,6 @@ public class Battery {
      * @return formatted charge percentage string
      */
     public String getCurrentChargePercent() {
-        return String.format("%.0f", level);
+        return String.format("%.0f", getLevel());
     }
 }
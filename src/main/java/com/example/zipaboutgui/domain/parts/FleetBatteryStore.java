@@ -0,0 +1,430 @@
+package com.example.zipaboutgui.domain.parts;
+
+import com.example.zipaboutgui.domain.enums.BatteryChemistry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented store for the battery state of a whole fleet.
+ * <p>
+ * Instead of one heap object per battery, the store keeps each attribute in
+ * its own primitive array (level, capacity, cycle count, chemistry,
+ * removable). A {@link Battery} attached to the store becomes a thin view
+ * over its slot, so existing code keeps calling {@code getLevel()} and
+ * {@code setLevel()} while bulk updates and fleet-wide aggregates run as
+ * plain loops over contiguous arrays.
+ * <p>
+ * Vehicles are mapped to battery slots through an {@code int} array indexed
+ * by the vehicle's fleet index. Several vehicles may share one battery, in
+ * which case they map to the same slot.
+ * <p>
+ * <b>Concurrency.</b> Writers (single or bulk) hold the read side of a
+ * read/write lock, which only excludes growing the arrays, so concurrent
+ * writers never block each other. Readers do not lock. After each write the
+ * {@linkplain #getVersion() version} is incremented; every read goes through
+ * the version first, so a reader (such as a booking checking the charge)
+ * always sees the latest completed write without locking the fleet.
+ */
+public class FleetBatteryStore {
+
+    /** Power of two ≥ 64, so whole bitmap words always fall inside {@code batteryByVehicle}. */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** Arrays are replaced as a unit when they grow. */
+    private static final class Columns {
+        final double[] level;
+        final double[] capacityWh;
+        final int[] cycleCount;
+        final byte[] chemistry;       // ordinal, -1 for none
+        final boolean[] removable;
+        final long[] readingMillis;   // time of the last applied telemetry reading, 0 = none
+        final int[] batteryByVehicle; // -1 where the vehicle has no battery
+
+        Columns(int batteries, int vehicles) {
+            level = new double[batteries];
+            capacityWh = new double[batteries];
+            cycleCount = new int[batteries];
+            chemistry = new byte[batteries];
+            removable = new boolean[batteries];
+            readingMillis = new long[batteries];
+            batteryByVehicle = new int[vehicles];
+            Arrays.fill(batteryByVehicle, -1);
+        }
+
+        Columns(Columns old, int batteries, int vehicles) {
+            level = Arrays.copyOf(old.level, batteries);
+            capacityWh = Arrays.copyOf(old.capacityWh, batteries);
+            cycleCount = Arrays.copyOf(old.cycleCount, batteries);
+            chemistry = Arrays.copyOf(old.chemistry, batteries);
+            removable = Arrays.copyOf(old.removable, batteries);
+            readingMillis = Arrays.copyOf(old.readingMillis, batteries);
+            batteryByVehicle = Arrays.copyOf(old.batteryByVehicle, vehicles);
+            Arrays.fill(batteryByVehicle, old.batteryByVehicle.length, vehicles, -1);
+        }
+    }
+
+    private static final BatteryChemistry[] CHEMISTRIES = BatteryChemistry.values();
+
+    private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    private volatile int batteryCount;
+    private final AtomicLong version = new AtomicLong();
+
+    /* =========================================================
+       Attaching batteries
+       ========================================================= */
+
+    /**
+     * Moves the battery's state into this store (if it is not stored yet)
+     * and maps the vehicle with the given fleet index to it.
+     *
+     * @param vehicleIndex fleet index of the vehicle using the battery
+     * @param battery      the vehicle's battery
+     * @return the battery's slot in this store
+     * @throws IllegalStateException if the battery belongs to another store
+     */
+    public int attach(int vehicleIndex, Battery battery) {
+        if (vehicleIndex < 0) {
+            throw new IllegalArgumentException("Negative vehicle index: " + vehicleIndex);
+        }
+        resizeLock.writeLock().lock();
+        try {
+            int slot = battery.storeSlot(this);
+            if (slot < 0) {
+                slot = batteryCount;
+                ensureCapacity(slot + 1, vehicleIndex + 1);
+                Columns c = columns;
+                c.level[slot] = battery.getLevel();
+                c.capacityWh[slot] = battery.getCapacityWh();
+                c.cycleCount[slot] = battery.getCycleCount();
+                c.chemistry[slot] = ordinalOf(battery.getChemistry());
+                c.removable[slot] = battery.isRemovable();
+                batteryCount = slot + 1;
+                battery.attachTo(this, slot);
+            } else {
+                ensureCapacity(batteryCount, vehicleIndex + 1);
+            }
+            columns.batteryByVehicle[vehicleIndex] = slot;
+            version.incrementAndGet();
+            return slot;
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int batteries, int vehicles) {
+        Columns c = columns;
+        int batteryCapacity = c.level.length;
+        int vehicleCapacity = c.batteryByVehicle.length;
+        if (batteries <= batteryCapacity && vehicles <= vehicleCapacity) {
+            return;
+        }
+        while (batteryCapacity < batteries) {
+            batteryCapacity *= 2;
+        }
+        while (vehicleCapacity < vehicles) {
+            vehicleCapacity *= 2;
+        }
+        columns = new Columns(c, batteryCapacity, vehicleCapacity);
+    }
+
+    /* =========================================================
+       Per-battery access (used by Battery views)
+       ========================================================= */
+
+    double level(int slot) {
+        return current().level[slot];
+    }
+
+    double capacityWh(int slot) {
+        return current().capacityWh[slot];
+    }
+
+    int cycleCount(int slot) {
+        return current().cycleCount[slot];
+    }
+
+    BatteryChemistry chemistry(int slot) {
+        byte ordinal = current().chemistry[slot];
+        return ordinal < 0 ? null : CHEMISTRIES[ordinal];
+    }
+
+    boolean removable(int slot) {
+        return current().removable[slot];
+    }
+
+    void setLevel(int slot, double level) {
+        resizeLock.readLock().lock();
+        try {
+            columns.level[slot] = level;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    void setCapacityWh(int slot, double capacityWh) {
+        resizeLock.readLock().lock();
+        try {
+            columns.capacityWh[slot] = capacityWh;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    void setCycleCount(int slot, int cycleCount) {
+        resizeLock.readLock().lock();
+        try {
+            columns.cycleCount[slot] = cycleCount;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    void setChemistry(int slot, BatteryChemistry chemistry) {
+        resizeLock.readLock().lock();
+        try {
+            columns.chemistry[slot] = ordinalOf(chemistry);
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    void setRemovable(int slot, boolean removable) {
+        resizeLock.readLock().lock();
+        try {
+            columns.removable[slot] = removable;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    /* =========================================================
+       Per-vehicle access and bulk updates
+       ========================================================= */
+
+    /**
+     * @return the battery slot of the vehicle, or -1 if it has none here
+     */
+    public int batteryOf(int vehicleIndex) {
+        int[] map = current().batteryByVehicle;
+        return vehicleIndex >= 0 && vehicleIndex < map.length ? map[vehicleIndex] : -1;
+    }
+
+    /**
+     * @return the charge level (0–100) of the vehicle's battery, or NaN if it has none
+     */
+    public double levelOfVehicle(int vehicleIndex) {
+        Columns c = current();
+        int slot = vehicleIndex >= 0 && vehicleIndex < c.batteryByVehicle.length
+                ? c.batteryByVehicle[vehicleIndex] : -1;
+        return slot < 0 ? Double.NaN : c.level[slot];
+    }
+
+    /**
+     * Applies a batch of charge readings in one pass. Vehicles without a
+     * battery in this store are skipped.
+     *
+     * @param vehicleIndexes fleet indexes of the vehicles reported
+     * @param levels         new charge levels (0–100), parallel to {@code vehicleIndexes}
+     * @param count          number of entries to apply
+     * @return number of readings applied
+     */
+    public int updateLevels(int[] vehicleIndexes, double[] levels, int count) {
+        int applied = 0;
+        resizeLock.readLock().lock();
+        try {
+            Columns c = columns;
+            int[] map = c.batteryByVehicle;
+            double[] level = c.level;
+            for (int i = 0; i < count; i++) {
+                int v = vehicleIndexes[i];
+                int slot = v >= 0 && v < map.length ? map[v] : -1;
+                if (slot >= 0) {
+                    level[slot] = levels[i];
+                    applied++;
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        version.incrementAndGet();
+        return applied;
+    }
+
+    /**
+     * Applies a batch of telemetry readings in one pass. A reading older
+     * than the last one applied to the same battery (e.g. delivered out of
+     * order) is skipped, as are vehicles without a battery in this store.
+     *
+     * @param vehicleIndexes fleet indexes of the vehicles reported
+     * @param levels         charge levels (0–100)
+     * @param cycleCounts    charge cycle counts
+     * @param timestamps     reading times in epoch milliseconds
+     * @param count          number of entries to apply
+     * @return number of readings applied
+     */
+    public int applyReadings(int[] vehicleIndexes, double[] levels, int[] cycleCounts,
+                             long[] timestamps, int count) {
+        int applied = 0;
+        resizeLock.readLock().lock();
+        try {
+            Columns c = columns;
+            int[] map = c.batteryByVehicle;
+            for (int i = 0; i < count; i++) {
+                int v = vehicleIndexes[i];
+                int slot = v >= 0 && v < map.length ? map[v] : -1;
+                if (slot >= 0 && timestamps[i] >= c.readingMillis[slot]) {
+                    c.level[slot] = levels[i];
+                    c.cycleCount[slot] = cycleCounts[i];
+                    c.readingMillis[slot] = timestamps[i];
+                    applied++;
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        version.incrementAndGet();
+        return applied;
+    }
+
+    /**
+     * @return epoch millis of the last telemetry reading applied to the
+     *         vehicle's battery, or 0 if none
+     */
+    public long readingTimeOfVehicle(int vehicleIndex) {
+        Columns c = current();
+        int slot = vehicleIndex >= 0 && vehicleIndex < c.batteryByVehicle.length
+                ? c.batteryByVehicle[vehicleIndex] : -1;
+        return slot < 0 ? 0L : c.readingMillis[slot];
+    }
+
+    /* =========================================================
+       Aggregates
+       ========================================================= */
+
+    /**
+     * Average charge level over every battery in the store.
+     *
+     * @return average level (0–100), or NaN if the store is empty
+     */
+    public double averageLevel() {
+        int n = batteryCount;
+        double[] level = current().level;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += level[i];
+        }
+        return n == 0 ? Double.NaN : sum / n;
+    }
+
+    /**
+     * Average charge level of the vehicles selected by a fleet bitmap
+     * (bit {@code i} set = vehicle with fleet index {@code i}).
+     *
+     * @return average level (0–100), or NaN if no selected vehicle has a battery
+     */
+    public double averageLevel(long[] vehicleBits) {
+        Columns c = current();
+        int[] map = c.batteryByVehicle;
+        double[] level = c.level;
+        double sum = 0;
+        int count = 0;
+        int words = Math.min(vehicleBits.length, (map.length + 63) >>> 6);
+        for (int w = 0; w < words; w++) {
+            long word = vehicleBits[w];
+            while (word != 0) {
+                int slot = map[(w << 6) + Long.numberOfTrailingZeros(word)];
+                if (slot >= 0) {
+                    sum += level[slot];
+                    count++;
+                }
+                word &= word - 1;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Stored energy (capacity × level) of the selected vehicles' batteries.
+     *
+     * @return energy in watt-hours
+     */
+    public double totalEnergyWh(long[] vehicleBits) {
+        Columns c = current();
+        int[] map = c.batteryByVehicle;
+        double sum = 0;
+        int words = Math.min(vehicleBits.length, (map.length + 63) >>> 6);
+        for (int w = 0; w < words; w++) {
+            long word = vehicleBits[w];
+            while (word != 0) {
+                int slot = map[(w << 6) + Long.numberOfTrailingZeros(word)];
+                if (slot >= 0) {
+                    sum += c.capacityWh[slot] * c.level[slot] / 100.0;
+                }
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Counts selected vehicles whose battery is below a charge level.
+     *
+     * @param threshold charge level (0–100)
+     */
+    public int countBelow(long[] vehicleBits, double threshold) {
+        Columns c = current();
+        int[] map = c.batteryByVehicle;
+        int count = 0;
+        int words = Math.min(vehicleBits.length, (map.length + 63) >>> 6);
+        for (int w = 0; w < words; w++) {
+            long word = vehicleBits[w];
+            while (word != 0) {
+                int slot = map[(w << 6) + Long.numberOfTrailingZeros(word)];
+                if (slot >= 0 && c.level[slot] < threshold) {
+                    count++;
+                }
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /* =========================================================
+       Metadata
+       ========================================================= */
+
+    /** Number of distinct batteries in the store. */
+    public int getBatteryCount() {
+        return batteryCount;
+    }
+
+    /**
+     * Returns a counter that increases after every change. Reading it
+     * before the columns guarantees seeing all writes made before that
+     * version; comparing versions tells a poller whether anything changed.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Reads the version before the columns, so all writes published by
+     * earlier version increments are visible to the caller.
+     */
+    private Columns current() {
+        version.get();
+        return columns;
+    }
+
+    private static byte ordinalOf(BatteryChemistry chemistry) {
+        return chemistry == null ? -1 : (byte) chemistry.ordinal();
+    }
+}
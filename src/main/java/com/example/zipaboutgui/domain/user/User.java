@@ -4,7 +4,6 @@ package com.example.zipaboutgui.domain.user;
 import com.example.zipaboutgui.domain.enums.Role;
 import com.example.zipaboutgui.service.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -32,7 +31,9 @@ public class User {
     private int totalCompletedRentals;
     private boolean vip;
 
-    private final List<Rental> rentals;
+    // Read-only view of the history kept by the rental service
+    private List<Rental> rentals = List.of();
+    private volatile int activeRentalCount;
 
 
 
@@ -48,7 +49,6 @@ public class User {
         this.id = id;
         this.name = name;
         this.username = name; // temp
-        this.rentals = new ArrayList<>();
     }
 
 
@@ -59,7 +59,6 @@ public class User {
         this.name = name;
         this.password = password;
         this.role = role;
-        this.rentals = new ArrayList<>();
     }
 
     public String getId() {
@@ -98,7 +97,12 @@ public class User {
     }
 
     /**
-     * Returns a mutable list of this user's rentals (active and completed).
+     * Returns this user's rentals (active and completed), oldest first.
+     * <p>
+     * The list is a read-only view of the history kept by the rental
+     * service: recent rentals are held directly, older ones are archived
+     * in compact form and read back a page at a time when the list is
+     * walked. Use {@code RentalService#queryRentals()} for paged access.
      *
      * @return list of rentals associated with this user
      */
@@ -106,6 +110,16 @@ public class User {
         return rentals;
     }
 
+    /**
+     * Returns the number of this user's rentals that are currently active,
+     * without looking at the rental history.
+     *
+     * @return number of active rentals (0 or 1 under the booking rules)
+     */
+    public int getActiveRentalCount() {
+        return activeRentalCount;
+    }
+
     /**
      * Adds the given number of points to this user's loyalty balance.
      *
@@ -116,21 +130,48 @@ public class User {
     }
 
     /**
-     * Adds a rental to this user's list of rentals.
+     * Attaches the history the rental service keeps for this user.
+     * <p>
+     * This is called by the rental service when the user books for the
+     * first time; {@link #getRentals()} is empty until then.
      *
-     * @param rental the rental to add
+     * @param history read-only view of the user's rentals
      */
-    public void addRental(Rental rental) {
-        rentals.add(rental);
+    public void setRentalHistory(List<Rental> history) {
+        this.rentals = history;
     }
 
     /**
-     * Removes a rental from this user's list of rentals.
+     * Counts a rental that has just started.
+     * <p>
+     * This is called by the rental service, like {@link #incrementCompletedRentals()}.
+     */
+    public void incrementActiveRentals() {
+        activeRentalCount++;
+    }
+
+    /**
+     * Counts a rental that has just been completed or cancelled.
+     */
+    public void decrementActiveRentals() {
+        activeRentalCount--;
+    }
+
+    /**
+     * Restores loyalty state for a user rebuilt from a snapshot.
+     * <p>
+     * Normal operation changes these values only through
+     * {@link #incrementCompletedRentals()}, {@link #addLoyaltyPoints(int)}
+     * and {@link #checkAndUpdateVipStatus()}.
      *
-     * @param rental the rental to remove
+     * @param loyaltyPoints         saved loyalty point balance
+     * @param totalCompletedRentals saved number of completed rentals
+     * @param vip                   saved VIP flag
      */
-    public void removeRental(Rental rental) {
-        rentals.remove(rental);
+    public void restoreLoyaltyState(int loyaltyPoints, int totalCompletedRentals, boolean vip) {
+        this.loyaltyPoints = loyaltyPoints;
+        this.totalCompletedRentals = totalCompletedRentals;
+        this.vip = vip;
     }
 
     /**
@@ -150,7 +191,7 @@ public class User {
     public void checkAndUpdateVipStatus() {
         if (!vip && loyaltyPoints >= 5) {
             vip = true;
-            System.out.println(name + " has become a VIP user!");
+            EventLog.info("user.vip", "{} has become a VIP user!", name);
         }
     }
 
@@ -180,13 +221,7 @@ public class User {
         System.out.println("Loyalty Points: " + loyaltyPoints);
         System.out.println("VIP: " + (vip ? "Yes" : "No"));
 
-        int activeCount = 0;
-        for (Rental r : rentals) {
-            if (r.isActive()) {
-                activeCount++;
-            }
-        }
-        System.out.println("Current active rentals: " + activeCount);
+        System.out.println("Current active rentals: " + activeRentalCount);
         System.out.println("----------------------------------------");
     }
 
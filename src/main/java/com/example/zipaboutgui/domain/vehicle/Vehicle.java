@@ -2,8 +2,10 @@ package com.example.zipaboutgui.domain.vehicle;
 
 //import main.java.roehampton.msayyid.zipabout.domain.equipment.Equipment;
 //import main.java.roehampton.msayyid.zipabout.domain.user.User;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
 import com.example.zipaboutgui.domain.user.User;
 import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.vehicle.internal.VehicleInternals;
 
 import java.util.List;
 import java.util.UUID;
@@ -11,7 +13,8 @@ import java.util.UUID;
 /**
  * Base abstract class for all ZipAbout vehicles.
  * <p>
- * A {@code Vehicle} has an internal unique ID, human-readable asset code,
+ * A {@code Vehicle} has an external unique ID, a compact fleet index used
+ * internally once it is registered, a human-readable asset code,
  * basic descriptive properties (make, model, etc.), an optional set of
  * {@link Equipment} items, and simple booking state (available or booked
  * by a {@link User}).
@@ -22,8 +25,24 @@ import java.util.UUID;
  */
 public abstract class Vehicle {
 
+    static {
+        // Id restore and fleet index are for the rental service only
+        VehicleInternals.install(new VehicleInternals.Access() {
+            @Override
+            public void restoreId(Vehicle vehicle, String id) {
+                vehicle.restoreId(id);
+            }
+
+            @Override
+            public void assignFleetIndex(Vehicle vehicle, int fleetIndex) {
+                vehicle.assignFleetIndex(fleetIndex);
+            }
+        });
+    }
+
     // Core identity
-    private final String id = UUID.randomUUID().toString();  // internal unique id
+    private volatile String id;                              // external unique id (UUID), created on first use
+    private volatile int fleetIndex = -1;                    // dense internal id, assigned on registration
     private String assetCode;                                // human-visible code like EB-001
 
     // Basic descriptive attributes
@@ -37,9 +56,9 @@ public abstract class Vehicle {
     // Associated equipment (helmet, gloves, etc.)
     private Equipment[] equipments;
 
-    // Booking state
-    private boolean available = true;
-    private User currentUser;
+    // Booking state (volatile: read lock-free while bookings run on other threads)
+    private volatile boolean available = true;
+    private volatile User currentUser;
 
     /**
      * Creates a vehicle with the given make, model and associated equipment.
@@ -71,10 +90,64 @@ public abstract class Vehicle {
         this.assetCode = assetCode;
     }
 
+    /**
+     * Restores the internal id of a vehicle that is being rebuilt from
+     * persisted state (journal or snapshot), so rentals recorded against
+     * the original vehicle still refer to it. Reached from the service
+     * through {@link VehicleInternals}.
+     *
+     * @param id the id the vehicle had when it was persisted
+     */
+    void restoreId(String id) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Vehicle id must not be blank");
+        }
+        this.id = id;
+    }
+
+    /**
+     * Assigns the dense fleet index of this vehicle. Called once by the
+     * rental service (through {@link VehicleInternals}) when the vehicle is
+     * registered; the index is used as
+     * an array position for per-vehicle state instead of hashing the id.
+     *
+     * @param fleetIndex zero-based position in the fleet
+     * @throws IllegalStateException if the vehicle already has an index
+     */
+    void assignFleetIndex(int fleetIndex) {
+        if (this.fleetIndex >= 0) {
+            throw new IllegalStateException("Vehicle " + getId()
+                    + " is already registered as #" + this.fleetIndex);
+        }
+        this.fleetIndex = fleetIndex;
+    }
+
     // --- Getters ---
 
+    /**
+     * Returns the external unique id (a UUID string). It is generated on
+     * first use, so vehicles that are never persisted or displayed by id
+     * do not pay for secure random number generation.
+     */
     public String getId() {
-        return id;
+        String value = id;
+        if (value == null) {
+            synchronized (this) {
+                value = id;
+                if (value == null) {
+                    value = UUID.randomUUID().toString();
+                    id = value;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the dense fleet index, or -1 while the vehicle is not registered.
+     */
+    public int getFleetIndex() {
+        return fleetIndex;
     }
 
     public String getAssetCode() {
@@ -198,4 +271,12 @@ public abstract class Vehicle {
      * @return the vehicle type as a string
      */
     public abstract String getVehicleType();
+
+    /**
+     * Returns the {@link VehicleKind} matching this vehicle's concrete class,
+     * i.e. the kind that {@link VehicleFactory} would need to create it.
+     *
+     * @return the vehicle kind
+     */
+    public abstract VehicleKind getKind();
 }
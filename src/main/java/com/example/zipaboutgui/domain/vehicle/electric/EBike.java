@@ -74,6 +74,11 @@ public class EBike extends ElectricVehicle {
         return "Electric Bike";
     }
 
+    @Override
+    public VehicleKind getKind() {
+        return VehicleKind.E_BIKE;
+    }
+
     // --- Getters and setters (unchanged) ---
     public int getAssistLevel() { return assistLevel; }
     public void setAssistLevel(int assistLevel) { this.assistLevel = assistLevel; }
@@ -63,6 +63,11 @@ public class EScooter extends ElectricVehicle {
         return "Electric Scooter";
     }
 
+    @Override
+    public VehicleKind getKind() {
+        return VehicleKind.E_SCOOTER;
+    }
+
     /**
      * Returns the scooter subtype (commuter / off-road etc.).
      */
@@ -10,6 +10,7 @@ import com.example.zipaboutgui.domain.equipment.*;
 import com.example.zipaboutgui.domain.parts.*;
 import com.example.zipaboutgui.domain.user.*;
 import com.example.zipaboutgui.domain.vehicle.ElectricVehicle;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
 /**
  * Electric skateboard in the ZipAbout system.
  * <p>
@@ -42,6 +43,11 @@ public class ESkateboard extends ElectricVehicle {
         return "Electric Skateboard";
     }
 
+    @Override
+    public VehicleKind getKind() {
+        return VehicleKind.E_SKATEBOARD;
+    }
+
     @Override
     public void go() {
         System.out.println(
@@ -10,6 +10,7 @@ import com.example.zipaboutgui.domain.parts.*;
 //import main.java.roehampton.msayyid.zipabout.domain.vehicle.ElectricVehicle;
 import com.example.zipaboutgui.domain.user.*;
 import com.example.zipaboutgui.domain.vehicle.ElectricVehicle;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
 
 /**
  * Electric Segway vehicle in the ZipAbout system.
@@ -91,4 +92,9 @@ public class Segway extends ElectricVehicle {
     public String getVehicleType() {
         return "Segway";
     }
+
+    @Override
+    public VehicleKind getKind() {
+        return VehicleKind.SEGWAY;
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.zipaboutgui.domain.vehicle.internal;
+
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+/**
+ * Gives the rental service access to the {@link Vehicle} mutators that are
+ * not part of its public API: restoring a persisted id and assigning the
+ * fleet index on registration.
+ *
+ * <p>The mutators themselves are package-private in {@code Vehicle}, which
+ * installs an {@link Access} here when it is loaded. This package is not
+ * exported from the module, so code outside the application cannot reach
+ * them.</p>
+ */
+public final class VehicleInternals {
+
+    /** Implemented by {@link Vehicle}. */
+    public interface Access {
+
+        void restoreId(Vehicle vehicle, String id);
+
+        void assignFleetIndex(Vehicle vehicle, int fleetIndex);
+    }
+
+    private static volatile Access access;
+
+    private VehicleInternals() {
+    }
+
+    /**
+     * Called once, by {@link Vehicle}'s static initializer.
+     *
+     * @throws IllegalStateException if an access was already installed
+     */
+    public static synchronized void install(Access vehicleAccess) {
+        if (access != null) {
+            throw new IllegalStateException("Vehicle access already installed");
+        }
+        access = vehicleAccess;
+    }
+
+    /**
+     * Restores the id of a vehicle rebuilt from persisted state, see
+     * {@code Vehicle.restoreId}.
+     */
+    public static void restoreId(Vehicle vehicle, String id) {
+        access.restoreId(vehicle, id);
+    }
+
+    /**
+     * Assigns the fleet index of a vehicle being registered, see
+     * {@code Vehicle.assignFleetIndex}.
+     */
+    public static void assignFleetIndex(Vehicle vehicle, int fleetIndex) {
+        access.assignFleetIndex(vehicle, fleetIndex);
+    }
+}
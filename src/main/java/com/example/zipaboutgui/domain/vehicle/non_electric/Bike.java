@@ -4,6 +4,7 @@ package com.example.zipaboutgui.domain.vehicle.non_electric;
 //import main.java.roehampton.msayyid.zipabout.domain.vehicle.Vehicle;
 import com.example.zipaboutgui.domain.equipment.*;
 import com.example.zipaboutgui.domain.vehicle.*;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
 
 /**
  * Non-electric bike in the ZipAbout system.
@@ -59,4 +60,9 @@ public class Bike extends Vehicle {
     public String getVehicleType() {
         return "Bike";
     }
+
+    @Override
+    public VehicleKind getKind() {
+        return VehicleKind.BIKE;
+    }
 }
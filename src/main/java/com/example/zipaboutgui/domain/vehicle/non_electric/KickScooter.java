@@ -4,6 +4,7 @@ package com.example.zipaboutgui.domain.vehicle.non_electric;
 //import main.java.roehampton.msayyid.zipabout.domain.vehicle.Vehicle;
 import com.example.zipaboutgui.domain.equipment.*;
 import com.example.zipaboutgui.domain.vehicle.*;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
 
 /**
  * Non-electric kick scooter in the ZipAbout system.
@@ -67,4 +68,9 @@ public class KickScooter extends Vehicle {
     public String getVehicleType() {
         return "Kick Scooter";
     }
+
+    @Override
+    public VehicleKind getKind() {
+        return VehicleKind.KICK_SCOOTER;
+    }
 }
@@ -4,6 +4,7 @@ package com.example.zipaboutgui.domain.vehicle.non_electric;
 //import main.java.roehampton.msayyid.zipabout.domain.vehicle.Vehicle;
 import com.example.zipaboutgui.domain.equipment.*;
 import com.example.zipaboutgui.domain.vehicle.*;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
 /**
  * Non-electric skateboard in the ZipAbout system.
  * <p>
@@ -66,4 +67,9 @@ public class Skateboard extends Vehicle {
     public String getVehicleType() {
         return "Skateboard";
     }
+
+    @Override
+    public VehicleKind getKind() {
+        return VehicleKind.SKATEBOARD;
+    }
 }
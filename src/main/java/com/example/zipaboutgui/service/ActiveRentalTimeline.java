@@ -0,0 +1,58 @@
+package com.example.zipaboutgui.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Active rentals ordered by start time, so the rentals that started
+ * before a cut-off (the overdue ones) are found without scanning all
+ * active rentals.
+ *
+ * <p>Entries are keyed by start time and rental id, which is unique for
+ * rentals booked through {@link RentalService}. Adding, removing and
+ * finding the first overdue rental each cost O(log n).</p>
+ */
+final class ActiveRentalTimeline {
+
+    private record Key(long startMillis, long rentalId) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byStart = Long.compare(startMillis, other.startMillis);
+            return byStart != 0 ? byStart : Long.compare(rentalId, other.rentalId);
+        }
+    }
+
+    private final ConcurrentSkipListMap<Key, Rental> byStart = new ConcurrentSkipListMap<>();
+
+    void add(Rental rental) {
+        byStart.put(keyOf(rental), rental);
+    }
+
+    void remove(Rental rental) {
+        byStart.remove(keyOf(rental), rental);
+    }
+
+    /**
+     * @return rentals that started before {@code millis}, oldest first
+     */
+    List<Rental> startedBefore(long millis) {
+        return new ArrayList<>(byStart.headMap(new Key(millis, Long.MIN_VALUE)).values());
+    }
+
+    /**
+     * @return rentals that started in {@code [from, to)}, oldest first
+     */
+    List<Rental> startedBetween(long from, long to) {
+        if (to <= from) {
+            return List.of();
+        }
+        return new ArrayList<>(byStart.subMap(new Key(from, Long.MIN_VALUE), new Key(to, Long.MIN_VALUE))
+                .values());
+    }
+
+    private static Key keyOf(Rental rental) {
+        return new Key(rental.getStartMillis(), rental.getNumericId());
+    }
+}
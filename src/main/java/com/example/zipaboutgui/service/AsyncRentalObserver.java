@@ -0,0 +1,328 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorator that delivers rental events to another {@link RentalObserver}
+ * on a background virtual thread.
+ * <p>
+ * {@link #onRentalCompleted(Rental)} only places the event in a bounded
+ * queue, so a slow observer (e.g. notifications or billing) no longer adds
+ * its latency to {@link RentalService#releaseVehicle}. What happens when the
+ * queue is full is decided by a {@link BackpressurePolicy}.
+ * <p>
+ * Each instance exposes simple lag metrics (queue depth, delivered, dropped
+ * and coalesced counts, last and maximum queueing delay) so operators can
+ * spot observers that fall behind.
+ */
+public class AsyncRentalObserver implements RentalObserver, AutoCloseable {
+
+    private final RentalObserver delegate;
+    private final BackpressurePolicy policy;
+    private final String name;
+
+    // --- Bounded ring buffer guarded by lock ---
+    private final Rental[] events;
+    private final long[] enqueuedAtNanos;
+    private final Map<Vehicle, Long> pendingByVehicle = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long head;   // sequence of the next event to deliver
+    private long tail;   // sequence of the next free slot
+    private boolean closed;
+
+    private final Thread worker;
+
+    // --- Metrics (queue counters written under lock) ---
+    private long enqueued;
+    private long dropped;
+    private long coalesced;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+    private final LatencyHistogram callbackLatency;   // may be null
+
+    /**
+     * Wraps an observer with an asynchronous, bounded delivery queue.
+     *
+     * @param delegate observer that receives the events
+     * @param capacity maximum number of queued events
+     * @param policy   behaviour when the queue is full
+     */
+    public AsyncRentalObserver(RentalObserver delegate, int capacity, BackpressurePolicy policy) {
+        this(delegate, capacity, policy, null);
+    }
+
+    /**
+     * Same as the public constructor, additionally timing every delivery
+     * to the wrapped observer.
+     *
+     * @param callbackLatency histogram receiving the delegate's callback time, or null
+     */
+    AsyncRentalObserver(RentalObserver delegate, int capacity, BackpressurePolicy policy,
+                        LatencyHistogram callbackLatency) {
+        if (delegate == null || policy == null) {
+            throw new IllegalArgumentException("Observer and policy must not be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.delegate = delegate;
+        this.policy = policy;
+        this.name = delegate.getClass().getSimpleName();
+        this.events = new Rental[capacity];
+        this.enqueuedAtNanos = new long[capacity];
+        this.callbackLatency = callbackLatency;
+        this.worker = Thread.ofVirtual()
+                .name("rental-observer-" + name)
+                .start(this::drainLoop);
+    }
+
+    /**
+     * Queues the event for background delivery.
+     * After {@link #close()} events are delivered on the calling thread.
+     */
+    @Override
+    public void onRentalCompleted(Rental rental) {
+        boolean queued;
+        lock.lock();
+        try {
+            queued = enqueue(rental);
+        } finally {
+            lock.unlock();
+        }
+        if (!queued) {
+            deliver(rental, System.nanoTime());
+        }
+    }
+
+    /**
+     * Passes the expiry straight to the wrapped observer. Expiries arrive
+     * on the service's expiry thread, not on a booking thread, so there
+     * is no caller latency to hide.
+     */
+    @Override
+    public void onReservationExpired(Reservation reservation) {
+        delegate.onReservationExpired(reservation);
+    }
+
+    /**
+     * Applies the backpressure policy and queues the event.
+     * Caller must hold the lock.
+     *
+     * @return false if the observer is closed and the event was not queued
+     */
+    private boolean enqueue(Rental rental) {
+        if (policy == BackpressurePolicy.COALESCE && replacePending(rental)) {
+            return true;
+        }
+
+        while (isFull() && !closed) {
+            if (policy == BackpressurePolicy.DROP_OLDEST) {
+                removeHead();
+                dropped++;
+            } else {
+                notFull.awaitUninterruptibly();
+                if (policy == BackpressurePolicy.COALESCE && replacePending(rental)) {
+                    return true;
+                }
+            }
+        }
+        if (closed) {
+            return false;
+        }
+
+        int slot = slot(tail);
+        events[slot] = rental;
+        enqueuedAtNanos[slot] = System.nanoTime();
+        if (policy == BackpressurePolicy.COALESCE) {
+            pendingByVehicle.put(rental.getVehicle(), tail);
+        }
+        tail++;
+        enqueued++;
+        notEmpty.signal();
+        return true;
+    }
+
+    /**
+     * Replaces a queued event for the same vehicle, keeping its original
+     * queue position and enqueue time. Caller must hold the lock.
+     */
+    private boolean replacePending(Rental rental) {
+        Long seq = pendingByVehicle.get(rental.getVehicle());
+        if (seq == null || seq < head) {
+            return false;
+        }
+        events[slot(seq)] = rental;
+        coalesced++;
+        return true;
+    }
+
+    private boolean isFull() {
+        return tail - head == events.length;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % events.length);
+    }
+
+    /**
+     * Removes and returns the head event. Caller must hold the lock.
+     */
+    private Rental removeHead() {
+        int slot = slot(head);
+        Rental rental = events[slot];
+        events[slot] = null;
+        if (policy == BackpressurePolicy.COALESCE) {
+            pendingByVehicle.remove(rental.getVehicle(), head);
+        }
+        head++;
+        notFull.signal();
+        return rental;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            Rental rental;
+            long enqueuedAt;
+
+            lock.lock();
+            try {
+                while (head == tail && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (head == tail) {
+                    return; // closed and fully drained
+                }
+                enqueuedAt = enqueuedAtNanos[slot(head)];
+                rental = removeHead();
+            } finally {
+                lock.unlock();
+            }
+
+            deliver(rental, enqueuedAt);
+        }
+    }
+
+    private void deliver(Rental rental, long enqueuedAt) {
+        long lag = System.nanoTime() - enqueuedAt;
+        lastLagNanos = lag;
+        if (lag > maxLagNanos) {
+            maxLagNanos = lag;
+        }
+        long start = System.nanoTime();
+        try {
+            delegate.onRentalCompleted(rental);
+            delivered.incrementAndGet();
+            if (callbackLatency != null) {
+                callbackLatency.recordSince(start);
+            }
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            EventLog.warn("observer.failed", "{} failed on rental {}: {}",
+                    name, rental.getId(), e.toString());
+        }
+    }
+
+    /**
+     * Stops accepting queued events, delivers everything already queued
+     * and waits for the worker to finish.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* =========================================================
+       Metrics
+       ========================================================= */
+
+    /** Returns the simple class name of the wrapped observer. */
+    public String getName() {
+        return name;
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    /** Returns the number of events currently waiting for delivery. */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public long getEnqueuedCount() {
+        lock.lock();
+        try {
+            return enqueued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /** Returns how long the most recently delivered event waited in the queue. */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /** Returns the longest time any event has waited in the queue. */
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+}
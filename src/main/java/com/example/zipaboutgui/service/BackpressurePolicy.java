@@ -0,0 +1,27 @@
+package com.example.zipaboutgui.service;
+
+/**
+ * What an {@link AsyncRentalObserver} does when its queue is full.
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * The releasing thread waits until the observer has caught up.
+     * No events are lost; release latency grows only while the queue is full.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued event is discarded to make room for the new one.
+     * Releases never wait; the observer may miss events under overload.
+     */
+    DROP_OLDEST,
+
+    /**
+     * A new event replaces a still-queued event for the same vehicle, so
+     * the observer sees only the latest completion per vehicle. When no
+     * event for that vehicle is queued and the queue is full, the
+     * releasing thread waits as with {@link #BLOCK}.
+     */
+    COALESCE
+}
@@ -0,0 +1,385 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.parts.FleetBatteryStore;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming ingestion of battery telemetry into the fleet's
+ * {@link FleetBatteryStore}.
+ *
+ * <p>Readings arrive as text lines, one per reading:</p>
+ * <pre>
+ *   vehicleId,level,cycleCount,timestampMillis
+ *   3f0c...-9a1e,72.5,118,1767225600000
+ * </pre>
+ * <p>Blank lines and lines starting with {@code #} are ignored. The source
+ * can be a file, a socket or any other {@link InputStream}.</p>
+ *
+ * <p><b>Low allocation.</b> Bytes are read into one reusable buffer and
+ * parsed in place; vehicle ids are matched against an open-addressing
+ * table without creating {@code String}s, and parsed readings go into
+ * reusable primitive arrays. When a batch is full it is applied to the
+ * store in one pass ({@link FleetBatteryStore#applyReadings}), so
+ * concurrent bookings read fresh charge levels without any fleet-wide
+ * lock.</p>
+ *
+ * <p>One ingestor instance is meant to be driven by one thread; its
+ * metrics can be read from any thread.</p>
+ */
+public class BatteryTelemetryIngestor {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LINE_BYTES = 256;
+
+    private final RentalService service;
+    private final FleetBatteryStore store;
+
+    // --- Reusable batch (parallel arrays) ---
+    private final int[] vehicleIndexes;
+    private final double[] levels;
+    private final int[] cycleCounts;
+    private final long[] timestamps;
+    private int batchSize;
+
+    private final byte[] readBuffer = new byte[READ_BUFFER_BYTES];
+    private final byte[] line = new byte[MAX_LINE_BYTES];
+    private final VehicleIdTable ids = new VehicleIdTable();
+
+    // --- Metrics ---
+    private final AtomicLong readingsReceived = new AtomicLong();
+    private final AtomicLong readingsApplied = new AtomicLong();
+    private final AtomicLong readingsRejected = new AtomicLong();
+    private final AtomicLong batchesApplied = new AtomicLong();
+    private final AtomicLong applyNanos = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile long firstReadingNanos;
+    private volatile long lastBatchNanos;
+
+    /**
+     * @param service   service whose battery store receives the readings
+     * @param batchSize readings per applied batch
+     */
+    public BatteryTelemetryIngestor(RentalService service, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.service = service;
+        this.store = service.getBatteryStore();
+        this.vehicleIndexes = new int[batchSize];
+        this.levels = new double[batchSize];
+        this.cycleCounts = new int[batchSize];
+        this.timestamps = new long[batchSize];
+    }
+
+    /* =========================================================
+       Ingestion
+       ========================================================= */
+
+    /**
+     * Reads and applies readings until the stream ends. A partial batch
+     * is applied when the stream pauses (no bytes immediately available)
+     * and at the end, so readings are never held back indefinitely.
+     *
+     * @param in telemetry source
+     * @return number of readings applied
+     * @throws IOException if reading the stream fails
+     */
+    public long ingest(InputStream in) throws IOException {
+        long appliedBefore = readingsApplied.get();
+        int lineLength = 0;
+        boolean lineTooLong = false;
+        int n;
+        while ((n = in.read(readBuffer)) != -1) {
+            for (int i = 0; i < n; i++) {
+                byte b = readBuffer[i];
+                if (b == '\n') {
+                    if (lineTooLong) {
+                        readingsRejected.incrementAndGet();
+                    } else {
+                        acceptLine(lineLength);
+                    }
+                    lineLength = 0;
+                    lineTooLong = false;
+                } else if (lineLength < MAX_LINE_BYTES) {
+                    line[lineLength++] = b;
+                } else {
+                    lineTooLong = true;
+                }
+            }
+            if (in.available() == 0) {
+                flush();
+            }
+        }
+        if (lineLength > 0 && !lineTooLong) {
+            acceptLine(lineLength);
+        }
+        flush();
+        return readingsApplied.get() - appliedBefore;
+    }
+
+    /**
+     * Applies readings buffered so far.
+     */
+    public void flush() {
+        if (batchSize == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        int applied = store.applyReadings(vehicleIndexes, levels, cycleCounts, timestamps, batchSize);
+        long end = System.nanoTime();
+
+        long newest = Long.MIN_VALUE;
+        for (int i = 0; i < batchSize; i++) {
+            newest = Math.max(newest, timestamps[i]);
+        }
+        long lag = Math.max(0, System.currentTimeMillis() - newest);
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+
+        readingsApplied.addAndGet(applied);
+        readingsRejected.addAndGet(batchSize - applied);
+        batchesApplied.incrementAndGet();
+        applyNanos.addAndGet(end - start);
+        lastBatchNanos = end;
+        batchSize = 0;
+    }
+
+    private void acceptLine(int length) {
+        while (length > 0 && (line[length - 1] == '\r' || line[length - 1] == ' ')) {
+            length--;
+        }
+        if (length == 0 || line[0] == '#') {
+            return;
+        }
+        if (firstReadingNanos == 0) {
+            firstReadingNanos = System.nanoTime();
+        }
+        readingsReceived.incrementAndGet();
+
+        int c1 = indexOf(line, ',', 0, length);
+        int c2 = c1 < 0 ? -1 : indexOf(line, ',', c1 + 1, length);
+        int c3 = c2 < 0 ? -1 : indexOf(line, ',', c2 + 1, length);
+        if (c3 < 0) {
+            readingsRejected.incrementAndGet();
+            return;
+        }
+
+        int vehicleIndex = resolve(line, 0, c1);
+        double level = parseDecimal(line, c1 + 1, c2);
+        long cycles = parseLong(line, c2 + 1, c3);
+        long timestamp = parseLong(line, c3 + 1, length);
+        if (vehicleIndex < 0 || Double.isNaN(level) || level < 0 || level > 100
+                || cycles < 0 || cycles > Integer.MAX_VALUE || timestamp < 0) {
+            readingsRejected.incrementAndGet();
+            return;
+        }
+
+        vehicleIndexes[batchSize] = vehicleIndex;
+        levels[batchSize] = level;
+        cycleCounts[batchSize] = (int) cycles;
+        timestamps[batchSize] = timestamp;
+        if (++batchSize == vehicleIndexes.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Looks up a vehicle id; on a miss the table is rebuilt once in case
+     * vehicles were registered since the last build.
+     */
+    private int resolve(byte[] bytes, int from, int to) {
+        int index = ids.get(bytes, from, to);
+        if (index < 0 && ids.size() != service.getVehicles().size()) {
+            ids.rebuild(service.getVehicles());
+            index = ids.get(bytes, from, to);
+        }
+        return index;
+    }
+
+    /* =========================================================
+       Parsing helpers (no allocation)
+       ========================================================= */
+
+    private static int indexOf(byte[] bytes, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the parsed value, or -1 if the field is not a plain non-negative integer
+     */
+    private static long parseLong(byte[] bytes, int from, int to) {
+        if (from >= to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @return the parsed non-negative decimal (e.g. "72.5"), or NaN if malformed
+     */
+    private static double parseDecimal(byte[] bytes, int from, int to) {
+        int dot = indexOf(bytes, '.', from, to);
+        if (dot < 0) {
+            long whole = parseLong(bytes, from, to);
+            return whole < 0 ? Double.NaN : whole;
+        }
+        long whole = dot == from ? 0 : parseLong(bytes, from, dot);
+        long fraction = dot + 1 == to ? 0 : parseLong(bytes, dot + 1, to);
+        if (whole < 0 || fraction < 0) {
+            return Double.NaN;
+        }
+        double scale = 1;
+        for (int i = dot + 1; i < to; i++) {
+            scale *= 10;
+        }
+        return whole + fraction / scale;
+    }
+
+    /* =========================================================
+       Metrics
+       ========================================================= */
+
+    public long getReadingsReceived() {
+        return readingsReceived.get();
+    }
+
+    public long getReadingsApplied() {
+        return readingsApplied.get();
+    }
+
+    /** Malformed lines, unknown vehicles and out-of-order readings. */
+    public long getReadingsRejected() {
+        return readingsRejected.get();
+    }
+
+    public long getBatchesApplied() {
+        return batchesApplied.get();
+    }
+
+    /**
+     * @return applied readings per second, from the first reading to the last batch
+     */
+    public double getThroughputPerSecond() {
+        long first = firstReadingNanos;
+        long last = lastBatchNanos;
+        if (first == 0 || last <= first) {
+            return 0;
+        }
+        return readingsApplied.get() * 1e9 / (last - first);
+    }
+
+    /** Average time spent applying one batch to the store, in microseconds. */
+    public double getAverageApplyMicros() {
+        long batches = batchesApplied.get();
+        return batches == 0 ? 0 : applyNanos.get() / 1e3 / batches;
+    }
+
+    /** Age of the newest reading in the last batch when it was applied. */
+    public long getLastLagMillis() {
+        return lastLagMillis.get();
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis.get();
+    }
+
+    /* =========================================================
+       Vehicle id lookup
+       ========================================================= */
+
+    /**
+     * Open-addressing table from vehicle id to fleet index, matched
+     * directly against the bytes of the input line (ids are ASCII).
+     */
+    private static final class VehicleIdTable {
+
+        private String[] keys = new String[16];
+        private int[] values = new int[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void rebuild(List<Vehicle> vehicles) {
+            int capacity = Integer.highestOneBit(Math.max(16, vehicles.size() * 2 - 1)) << 1;
+            keys = new String[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (Vehicle v : vehicles) {
+                if (v.getFleetIndex() < 0) {
+                    continue;
+                }
+                String id = v.getId();
+                int mask = capacity - 1;
+                int slot = hash(id) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = id;
+                values[slot] = v.getFleetIndex();
+                size++;
+            }
+        }
+
+        int get(byte[] bytes, int from, int to) {
+            int mask = keys.length - 1;
+            int slot = hash(bytes, from, to) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (matches(key, bytes, from, to)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int hash(String s) {
+            int h = 0;
+            for (int i = 0; i < s.length(); i++) {
+                h = 31 * h + s.charAt(i);
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static int hash(byte[] bytes, int from, int to) {
+            int h = 0;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + (bytes[i] & 0xFF);
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean matches(String key, byte[] bytes, int from, int to) {
+            if (key.length() != to - from) {
+                return false;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (key.charAt(i) != (bytes[from + i] & 0xFF)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.zipaboutgui.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Small growable byte buffer used to encode journal records and snapshots.
+ * <p>
+ * Values are written big-endian, matching the default order of
+ * {@link ByteBuffer}, so they can be read back with a plain
+ * {@code ByteBuffer} (heap or memory-mapped). Strings are written as
+ * an int byte length ({@code -1} for null) followed by UTF-8 bytes.
+ */
+class BinaryEncoder {
+
+    private byte[] bytes;
+    private int size;
+
+    BinaryEncoder() {
+        this(256);
+    }
+
+    BinaryEncoder(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+
+    BinaryEncoder putByte(int v) {
+        ensure(1);
+        bytes[size++] = (byte) v;
+        return this;
+    }
+
+    BinaryEncoder putBoolean(boolean v) {
+        return putByte(v ? 1 : 0);
+    }
+
+    BinaryEncoder putInt(int v) {
+        ensure(4);
+        bytes[size++] = (byte) (v >>> 24);
+        bytes[size++] = (byte) (v >>> 16);
+        bytes[size++] = (byte) (v >>> 8);
+        bytes[size++] = (byte) v;
+        return this;
+    }
+
+    BinaryEncoder putLong(long v) {
+        putInt((int) (v >>> 32));
+        return putInt((int) v);
+    }
+
+    BinaryEncoder putDouble(double v) {
+        return putLong(Double.doubleToRawLongBits(v));
+    }
+
+    BinaryEncoder putString(String v) {
+        if (v == null) {
+            return putInt(-1);
+        }
+        byte[] utf8 = v.getBytes(StandardCharsets.UTF_8);
+        putInt(utf8.length);
+        ensure(utf8.length);
+        System.arraycopy(utf8, 0, bytes, size, utf8.length);
+        size += utf8.length;
+        return this;
+    }
+
+    BinaryEncoder putBytes(byte[] src, int offset, int length) {
+        ensure(length);
+        System.arraycopy(src, offset, bytes, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * Writes an enum as its ordinal, or {@code -1} for null.
+     */
+    BinaryEncoder putEnum(Enum<?> v) {
+        return putByte(v == null ? -1 : v.ordinal());
+    }
+
+    /**
+     * Overwrites an int previously written at {@code offset}.
+     */
+    void putIntAt(int offset, int v) {
+        bytes[offset] = (byte) (v >>> 24);
+        bytes[offset + 1] = (byte) (v >>> 16);
+        bytes[offset + 2] = (byte) (v >>> 8);
+        bytes[offset + 3] = (byte) v;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    /**
+     * Wraps the written bytes without copying.
+     */
+    ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, size);
+    }
+
+    /* =========================================================
+       Decoding helpers (counterparts of the put methods)
+       ========================================================= */
+
+    static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    static boolean getBoolean(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    static <E extends Enum<E>> E getEnum(ByteBuffer in, E[] values) {
+        int ordinal = in.get();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.RentalStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finished (completed or cancelled) rentals of all users, ordered by start
+ * time and by end time.
+ *
+ * <p>Each order is a concurrent skip list keyed by a primitive
+ * {@code long}: the time in epoch milliseconds, shifted left to make room
+ * for a small sequence number that keeps rentals finishing in the same
+ * millisecond apart. A time range is then a sub-map found in O(log n),
+ * and scanning it costs only the number of rentals returned.</p>
+ *
+ * <p>Per-day totals (by start day) are kept alongside in a third skip
+ * list, so daily figures and totals over a range of days cost O(log n)
+ * plus one entry per day, however many rentals those days hold.</p>
+ *
+ * <p>Times are {@link LocalMillis}, as stored by the rentals, so day
+ * boundaries are those of the local calendar. The service stamps them
+ * from a clock that never goes backwards, so a rental never ends before
+ * it starts; a rental ended directly through {@link Rental#cancel()}
+ * uses the wall clock and may, so its minutes are counted as zero.
+ * Writers and readers never lock.</p>
+ */
+final class CompletedRentalIndex {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final ConcurrentSkipListMap<Long, Rental> byStart = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, Rental> byEnd = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, DayTotals> byDay = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** Running totals of one start day. */
+    private static final class DayTotals {
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger cancelled = new AtomicInteger();
+        final LongAdder minutes = new LongAdder();
+    }
+
+    /**
+     * Adds a rental that has just been completed or cancelled. Each rental
+     * must be added once; active rentals are ignored.
+     */
+    void add(Rental rental) {
+        long start = rental.getStartMillis();
+        long end = rental.getEndMillis();
+        RentalStatus status = rental.getStatus();
+        if (end == LocalMillis.NONE || status == RentalStatus.ACTIVE) {
+            return;
+        }
+        insert(byStart, start, rental);
+        insert(byEnd, end, rental);
+
+        DayTotals day = byDay.computeIfAbsent(LocalMillis.epochDay(start), d -> new DayTotals());
+        if (status == RentalStatus.COMPLETED) {
+            day.completed.incrementAndGet();
+        } else {
+            day.cancelled.incrementAndGet();
+        }
+        day.minutes.add(Math.max(0, rental.getDurationMinutes()));
+    }
+
+    private void insert(ConcurrentSkipListMap<Long, Rental> order, long millis, Rental rental) {
+        // Retry with the next sequence number in the unlikely case the key is taken
+        while (order.putIfAbsent(key(millis, sequence.getAndIncrement()), rental) != null) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /* -------------------------------
+       Range scans
+     -------------------------------- */
+
+    /**
+     * @return rentals that started in {@code [from, to)}, oldest first;
+     *         a null bound leaves that end of the range open
+     */
+    List<Rental> startedBetween(LocalDateTime from, LocalDateTime to) {
+        return scan(byStart, from, to);
+    }
+
+    /**
+     * @return rentals that ended in {@code [from, to)}, oldest first
+     */
+    List<Rental> endedBetween(LocalDateTime from, LocalDateTime to) {
+        return scan(byEnd, from, to);
+    }
+
+    private static List<Rental> scan(ConcurrentSkipListMap<Long, Rental> order,
+                                     LocalDateTime from, LocalDateTime to) {
+        Map<Long, Rental> range;
+        if (from == null && to == null) {
+            range = order;
+        } else if (from == null) {
+            range = order.headMap(key(toMillis(to), 0));
+        } else if (to == null) {
+            range = order.tailMap(key(toMillis(from), 0));
+        } else {
+            range = order.subMap(key(toMillis(from), 0), key(toMillis(to), 0));
+        }
+        return new ArrayList<>(range.values());
+    }
+
+    /* -------------------------------
+       Daily totals
+     -------------------------------- */
+
+    /**
+     * @return totals for each day in {@code [from, to]} (inclusive) on
+     *         which a finished rental started, in date order
+     */
+    List<RentalStats> daily(LocalDate from, LocalDate to) {
+        List<RentalStats> days = new ArrayList<>();
+        for (Map.Entry<Long, DayTotals> entry : days(from, to).entrySet()) {
+            LocalDate day = LocalDate.ofEpochDay(entry.getKey());
+            DayTotals totals = entry.getValue();
+            days.add(new RentalStats(day, day, totals.completed.get(), totals.cancelled.get(),
+                    totals.minutes.sum()));
+        }
+        return days;
+    }
+
+    /**
+     * @return totals over all days in {@code [from, to]} (inclusive)
+     */
+    RentalStats total(LocalDate from, LocalDate to) {
+        int completed = 0;
+        int cancelled = 0;
+        long minutes = 0;
+        for (DayTotals totals : days(from, to).values()) {
+            completed += totals.completed.get();
+            cancelled += totals.cancelled.get();
+            minutes += totals.minutes.sum();
+        }
+        return new RentalStats(from, to, completed, cancelled, minutes);
+    }
+
+    private Map<Long, DayTotals> days(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Day range must not be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end is before its start");
+        }
+        return byDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true);
+    }
+
+    /* -------------------------------
+       Keys
+     -------------------------------- */
+
+    private static long toMillis(LocalDateTime time) {
+        return LocalMillis.of(time);
+    }
+
+    private static long key(long millis, long sequence) {
+        return (millis << SEQUENCE_BITS) | (sequence & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.zipaboutgui.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Growable bitmap whose bits can be set and cleared from many threads
+ * without locking.
+ *
+ * <p>Bits are stored in fixed-size segments of {@link AtomicLongArray}.
+ * Growing only replaces the segment directory; existing segments are never
+ * copied, so a bit flipped while the bitmap grows is never lost.</p>
+ *
+ * <p>Readers see each word atomically but not the whole bitmap at one
+ * instant, which is fine for search results that are re-checked when a
+ * vehicle is actually booked.</p>
+ */
+class ConcurrentBitmap {
+
+    static final int SEGMENT_WORDS = 64;
+    static final int SEGMENT_BITS = SEGMENT_WORDS * 64;
+
+    private volatile AtomicLongArray[] segments = new AtomicLongArray[0];
+
+    void set(int bit) {
+        AtomicLongArray segment = segmentFor(bit);
+        int word = (bit % SEGMENT_BITS) >>> 6;
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = segment.get(word);
+        } while ((current & mask) == 0 && !segment.compareAndSet(word, current, current | mask));
+    }
+
+    void clear(int bit) {
+        AtomicLongArray[] dir = segments;
+        int s = bit / SEGMENT_BITS;
+        if (s >= dir.length) {
+            return;
+        }
+        AtomicLongArray segment = dir[s];
+        int word = (bit % SEGMENT_BITS) >>> 6;
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = segment.get(word);
+        } while ((current & mask) != 0 && !segment.compareAndSet(word, current, current & ~mask));
+    }
+
+    void set(int bit, boolean value) {
+        if (value) {
+            set(bit);
+        } else {
+            clear(bit);
+        }
+    }
+
+    boolean get(int bit) {
+        AtomicLongArray[] dir = segments;
+        int s = bit / SEGMENT_BITS;
+        return s < dir.length && (dir[s].get((bit % SEGMENT_BITS) >>> 6) & (1L << bit)) != 0;
+    }
+
+    /**
+     * ANDs this bitmap into {@code acc}, word by word.
+     */
+    void andInto(long[] acc) {
+        AtomicLongArray[] dir = segments;
+        for (int i = 0; i < acc.length; i++) {
+            int s = i / SEGMENT_WORDS;
+            acc[i] &= s < dir.length ? dir[s].get(i % SEGMENT_WORDS) : 0L;
+        }
+    }
+
+    /**
+     * ORs this bitmap into {@code acc}, word by word.
+     */
+    void orInto(long[] acc) {
+        AtomicLongArray[] dir = segments;
+        int words = Math.min(acc.length, dir.length * SEGMENT_WORDS);
+        for (int i = 0; i < words; i++) {
+            acc[i] |= dir[i / SEGMENT_WORDS].get(i % SEGMENT_WORDS);
+        }
+    }
+
+    private AtomicLongArray segmentFor(int bit) {
+        int s = bit / SEGMENT_BITS;
+        AtomicLongArray[] dir = segments;
+        if (s < dir.length) {
+            return dir[s];
+        }
+        synchronized (this) {
+            dir = segments;
+            if (s >= dir.length) {
+                AtomicLongArray[] grown = Arrays.copyOf(dir, s + 1);
+                for (int i = dir.length; i < grown.length; i++) {
+                    grown[i] = new AtomicLongArray(SEGMENT_WORDS);
+                }
+                segments = grown;
+                dir = grown;
+            }
+            return dir[s];
+        }
+    }
+}
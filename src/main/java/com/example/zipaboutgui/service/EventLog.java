@@ -0,0 +1,368 @@
+package com.example.zipaboutgui.service;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, structured event log for the service and domain layers.
+ *
+ * <p>Each event has a level, a dotted event name and a message template
+ * with {@code {}} placeholders, e.g.</p>
+ * <pre>
+ *   EventLog.info("rental.booked", "{} booked {}", user.getName(), vehicle.getModel());
+ * </pre>
+ * <p>and is written as one line:</p>
+ * <pre>
+ *   12:04:31.118 INFO  rental.booked          Alice Smith booked Explore E+
+ * </pre>
+ *
+ * <p><b>Off the caller's thread.</b> Logging stores the level, a
+ * timestamp, the template and the argument references in a preallocated
+ * slot of a bounded ring buffer; a background thread formats and writes
+ * the lines in batches. Callers never take the stdout lock and never
+ * build strings, so booking throughput is not limited by console I/O.
+ * Events below the threshold level are discarded before anything is
+ * stored. Because formatting is deferred, arguments should be immutable
+ * values (strings, numbers, enums).</p>
+ *
+ * <p>When the buffer is full, new events are dropped and counted
+ * ({@link #getDroppedCount()}) rather than blocking the caller.</p>
+ *
+ * <p>Console tools that interleave their own output with log lines (the
+ * CLI demo) can switch to {@linkplain #setSynchronous(boolean) synchronous}
+ * mode, where each event is written on the calling thread.</p>
+ */
+public final class EventLog {
+
+    private static final int CAPACITY = 8192;               // power of two
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final EventLog INSTANCE = new EventLog();
+
+    /* -------------------------------
+       Ring buffer (bounded MPSC queue; a slot's sequence tells
+       whether it is free for a producer or ready for the writer)
+     -------------------------------- */
+    private static final class Slot {
+        volatile long sequence;
+        LogLevel level;
+        long timeMillis;
+        String event;
+        String template;
+        Object arg0;
+        Object arg1;
+        Object arg2;
+        Object arg3;
+        Object arg4;
+    }
+
+    private final Slot[] slots = new Slot[CAPACITY];
+    private final AtomicLong tail = new AtomicLong();   // next sequence to claim
+    private volatile long head;                          // next sequence to write (writer only)
+
+    /* -------------------------------
+       Configuration
+     -------------------------------- */
+    private volatile LogLevel threshold = LogLevel.INFO;
+    private volatile PrintStream sink;                   // null = current System.out
+    private volatile boolean synchronous;
+
+    /* -------------------------------
+       Writer thread
+     -------------------------------- */
+    private final Thread writer;
+    private volatile boolean writerParked;
+    private final StringBuilder line = new StringBuilder(256);   // writer thread only
+    private final LongAdder dropped = new LongAdder();
+
+    private EventLog() {
+        for (int i = 0; i < CAPACITY; i++) {
+            slots[i] = new Slot();
+            slots[i].sequence = i;
+        }
+        writer = new Thread(this::drainLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::flush, "event-log-flush"));
+    }
+
+    /* =========================================================
+       Logging
+       ========================================================= */
+
+    /**
+     * Logs an event at any level; the level-specific methods below are shortcuts.
+     * Unused arguments are passed as {@code null}.
+     */
+    public static void log(LogLevel level, String event, String template,
+                           Object arg0, Object arg1, Object arg2, Object arg3) {
+        INSTANCE.publish(level, event, template, arg0, arg1, arg2, arg3, null);
+    }
+
+    public static void info(String event, String template) {
+        INSTANCE.publish(LogLevel.INFO, event, template, null, null, null, null, null);
+    }
+
+    public static void info(String event, String template, Object arg0) {
+        INSTANCE.publish(LogLevel.INFO, event, template, arg0, null, null, null, null);
+    }
+
+    public static void info(String event, String template, Object arg0, Object arg1) {
+        INSTANCE.publish(LogLevel.INFO, event, template, arg0, arg1, null, null, null);
+    }
+
+    public static void info(String event, String template, Object arg0, Object arg1, Object arg2) {
+        INSTANCE.publish(LogLevel.INFO, event, template, arg0, arg1, arg2, null, null);
+    }
+
+    public static void info(String event, String template, Object arg0, Object arg1, Object arg2,
+                            Object arg3) {
+        INSTANCE.publish(LogLevel.INFO, event, template, arg0, arg1, arg2, arg3, null);
+    }
+
+    public static void info(String event, String template, Object arg0, Object arg1, Object arg2,
+                            Object arg3, Object arg4) {
+        INSTANCE.publish(LogLevel.INFO, event, template, arg0, arg1, arg2, arg3, arg4);
+    }
+
+    public static void warn(String event, String template) {
+        INSTANCE.publish(LogLevel.WARN, event, template, null, null, null, null, null);
+    }
+
+    public static void warn(String event, String template, Object arg0) {
+        INSTANCE.publish(LogLevel.WARN, event, template, arg0, null, null, null, null);
+    }
+
+    public static void warn(String event, String template, Object arg0, Object arg1) {
+        INSTANCE.publish(LogLevel.WARN, event, template, arg0, arg1, null, null, null);
+    }
+
+    public static void warn(String event, String template, Object arg0, Object arg1, Object arg2) {
+        INSTANCE.publish(LogLevel.WARN, event, template, arg0, arg1, arg2, null, null);
+    }
+
+    /**
+     * @return whether events of this level are currently logged
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return level.compareTo(INSTANCE.threshold) >= 0 && level != LogLevel.OFF;
+    }
+
+    private void publish(LogLevel level, String event, String template,
+                         Object arg0, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        long timeMillis = System.currentTimeMillis();
+
+        if (synchronous) {
+            flush();
+            PrintStream out = currentSink();
+            synchronized (this) {
+                StringBuilder sb = new StringBuilder(128);
+                format(sb, level, timeMillis, event, template, arg0, arg1, arg2, arg3, arg4);
+                out.print(sb);
+                out.flush();
+            }
+            return;
+        }
+
+        Slot slot;
+        long sequence;
+        while (true) {
+            sequence = tail.get();
+            slot = slots[(int) (sequence & (CAPACITY - 1))];
+            long slotSequence = slot.sequence;
+            if (slotSequence == sequence) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+            } else if (slotSequence < sequence) {
+                dropped.increment();   // full: writer has not freed this slot yet
+                return;
+            }
+            // else another producer claimed it first; retry
+        }
+
+        slot.level = level;
+        slot.timeMillis = timeMillis;
+        slot.event = event;
+        slot.template = template;
+        slot.arg0 = arg0;
+        slot.arg1 = arg1;
+        slot.arg2 = arg2;
+        slot.arg3 = arg3;
+        slot.arg4 = arg4;
+        slot.sequence = sequence + 1;   // publish to the writer
+
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /* =========================================================
+       Writer
+       ========================================================= */
+
+    private void drainLoop() {
+        while (true) {
+            if (drainBatch() == 0) {
+                writerParked = true;
+                if (!hasPending()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+            }
+        }
+    }
+
+    private boolean hasPending() {
+        long h = head;
+        return slots[(int) (h & (CAPACITY - 1))].sequence == h + 1;
+    }
+
+    /**
+     * Formats and writes up to {@link #MAX_BATCH} ready events with one print.
+     *
+     * @return number of events written
+     */
+    private int drainBatch() {
+        long h = head;
+        int count = 0;
+        line.setLength(0);
+        while (count < MAX_BATCH) {
+            Slot slot = slots[(int) (h & (CAPACITY - 1))];
+            if (slot.sequence != h + 1) {
+                break;
+            }
+            try {
+                format(line, slot.level, slot.timeMillis, slot.event, slot.template,
+                        slot.arg0, slot.arg1, slot.arg2, slot.arg3, slot.arg4);
+            } catch (RuntimeException e) {
+                // A faulty toString() must not stop the writer
+                line.append("[unformattable event ").append(slot.event).append("]\n");
+            }
+            slot.event = null;
+            slot.template = null;
+            slot.arg0 = null;
+            slot.arg1 = null;
+            slot.arg2 = null;
+            slot.arg3 = null;
+            slot.arg4 = null;
+            slot.sequence = h + CAPACITY;   // free for the producer one lap ahead
+            h++;
+            count++;
+        }
+        if (count > 0) {
+            PrintStream out = currentSink();
+            out.print(line);
+            out.flush();
+            head = h;
+        }
+        return count;
+    }
+
+    private static void format(StringBuilder sb, LogLevel level, long timeMillis, String event,
+                               String template, Object arg0, Object arg1, Object arg2,
+                               Object arg3, Object arg4) {
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(timeMillis), sb);
+        sb.append(' ').append(level.name());
+        for (int i = level.name().length(); i < 6; i++) {
+            sb.append(' ');
+        }
+        sb.append(event);
+        for (int i = event.length(); i < 22; i++) {
+            sb.append(' ');
+        }
+        sb.append(' ');
+
+        int argIndex = 0;
+        int from = 0;
+        int at;
+        while ((at = template.indexOf("{}", from)) >= 0) {
+            sb.append(template, from, at);
+            Object arg = switch (argIndex++) {
+                case 0 -> arg0;
+                case 1 -> arg1;
+                case 2 -> arg2;
+                case 3 -> arg3;
+                case 4 -> arg4;
+                default -> "{}";
+            };
+            sb.append(arg);
+            from = at + 2;
+        }
+        sb.append(template, from, template.length()).append('\n');
+    }
+
+    private PrintStream currentSink() {
+        PrintStream out = sink;
+        return out != null ? out : System.out;
+    }
+
+    /* =========================================================
+       Control
+       ========================================================= */
+
+    /**
+     * Waits until every event logged so far has been written (at most a few seconds).
+     */
+    public static void flush() {
+        EventLog log = INSTANCE;
+        long target = log.tail.get();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (log.head < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(log.writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    /**
+     * Sets the minimum level that is logged (default {@link LogLevel#INFO}).
+     */
+    public static void setLevel(LogLevel level) {
+        if (level == null) {
+            throw new IllegalArgumentException("Log level must not be null");
+        }
+        INSTANCE.threshold = level;
+    }
+
+    public static LogLevel getLevel() {
+        return INSTANCE.threshold;
+    }
+
+    /**
+     * Redirects output; {@code null} restores the default, the current {@code System.out}.
+     */
+    public static void setSink(PrintStream out) {
+        flush();
+        INSTANCE.sink = out;
+    }
+
+    /**
+     * In synchronous mode each event is written before the logging call
+     * returns, keeping it in order with other console output.
+     */
+    public static void setSynchronous(boolean synchronous) {
+        flush();
+        INSTANCE.synchronous = synchronous;
+    }
+
+    /**
+     * @return number of events dropped because the buffer was full
+     */
+    public static long getDroppedCount() {
+        return INSTANCE.dropped.sum();
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.FleetBatteryStore;
+import com.example.zipaboutgui.domain.vehicle.ElectricVehicle;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.electric.EBike;
+import com.example.zipaboutgui.domain.vehicle.electric.EScooter;
+import com.example.zipaboutgui.domain.vehicle.internal.VehicleInternals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of fleet slots plus a bitmap index for attribute search.
+ *
+ * <p>Each registered vehicle is assigned a dense slot, its
+ * {@linkplain Vehicle#getFleetIndex() fleet index}, in registration order.
+ * Per-vehicle state elsewhere in the service is kept in arrays indexed by
+ * that slot.</p>
+ *
+ * <p>For every enum attribute value (kind, ride mode, motor type,
+ * PAS type, brake, frame, suspension, scooter type, battery chemistry)
+ * the index keeps a bitmap with one bit per slot, plus one bitmap for
+ * availability. A query is answered by AND-ing (and, within one attribute,
+ * OR-ing) these bitmaps; vehicles themselves are only touched to build the
+ * result list.</p>
+ *
+ * <p>Availability bits are flipped by {@link RentalService} under the
+ * booking locks. Attribute bits are set at registration and refreshed by
+ * {@link #reindex(Vehicle)} when a vehicle is reconfigured.</p>
+ *
+ * <p>Batteries of registered electric vehicles are moved into a
+ * {@link FleetBatteryStore} under the same index, so battery aggregates
+ * can be computed directly over a query's result bitmap.</p>
+ */
+class FleetIndex {
+
+    private final FleetBatteryStore batteries;
+
+    private final Map<Enum<?>, ConcurrentBitmap> bitmaps = new ConcurrentHashMap<>();
+    private final ConcurrentBitmap registered = new ConcurrentBitmap();
+    private final ConcurrentBitmap available = new ConcurrentBitmap();
+
+    // --- Slot tables ---
+    private final SlotTable<Vehicle> vehicles = new SlotTable<>();
+    private final SlotTable<List<Enum<?>>> indexedValues = new SlotTable<>();
+    private volatile int size;
+
+    FleetIndex(FleetBatteryStore batteries) {
+        this.batteries = batteries;
+    }
+
+    /* =========================================================
+       Maintenance
+       ========================================================= */
+
+    /**
+     * Assigns the vehicle the next fleet index and indexes its current
+     * attributes. Adding the same vehicle twice has no effect.
+     *
+     * @throws IllegalStateException if the vehicle is registered with
+     *                               another service instance
+     */
+    synchronized void add(Vehicle vehicle) {
+        int existing = vehicle.getFleetIndex();
+        if (existing >= 0 && vehicles.get(existing) == vehicle) {
+            return;
+        }
+        int slot = size;
+        // Claim the slot first: this throws if another service owns the vehicle
+        VehicleInternals.assignFleetIndex(vehicle, slot);
+        if (vehicle instanceof ElectricVehicle ev && ev.getBattery() != null) {
+            batteries.attach(slot, ev.getBattery());
+        }
+        vehicles.set(slot, vehicle);
+
+        List<Enum<?>> values = attributesOf(vehicle);
+        for (Enum<?> value : values) {
+            bitmapFor(value).set(slot);
+        }
+        indexedValues.set(slot, values);
+        available.set(slot, vehicle.isAvailable());
+        registered.set(slot);
+
+        size = slot + 1;
+    }
+
+    /**
+     * Re-reads the vehicle's attributes after it was reconfigured
+     * (e.g. ride mode or brakes changed).
+     */
+    synchronized void reindex(Vehicle vehicle) {
+        int slot = slotOf(vehicle);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Vehicle is not registered: " + vehicle.getId());
+        }
+        for (Enum<?> old : indexedValues.get(slot)) {
+            bitmapFor(old).clear(slot);
+        }
+        List<Enum<?>> values = attributesOf(vehicle);
+        for (Enum<?> value : values) {
+            bitmapFor(value).set(slot);
+        }
+        indexedValues.set(slot, values);
+    }
+
+    /**
+     * Records a change of availability. Callers hold the vehicle's booking lock.
+     */
+    void setAvailable(Vehicle vehicle, boolean isAvailable) {
+        int slot = slotOf(vehicle);
+        if (slot >= 0) {
+            available.set(slot, isAvailable);
+        }
+    }
+
+    /**
+     * @return the vehicle's slot in this index, or -1 if not registered here
+     */
+    int slotOf(Vehicle vehicle) {
+        int slot = vehicle.getFleetIndex();
+        return slot >= 0 && vehicles.get(slot) == vehicle ? slot : -1;
+    }
+
+    FleetBatteryStore batteries() {
+        return batteries;
+    }
+
+    /** Number of slots assigned so far. */
+    int size() {
+        return size;
+    }
+
+    /* =========================================================
+       Queries
+       ========================================================= */
+
+    /**
+     * Evaluates a conjunction of clauses, each clause matching any of its
+     * values.
+     *
+     * @param clauses       attribute clauses (AND between, OR within)
+     * @param availableOnly whether to keep only available vehicles
+     * @return result bitmap, one bit per slot
+     */
+    long[] evaluate(List<Enum<?>[]> clauses, boolean availableOnly) {
+        long[] result = new long[(size + 63) >>> 6];
+        registered.orInto(result);
+        if (availableOnly) {
+            available.andInto(result);
+        }
+        long[] clause = new long[result.length];
+        for (Enum<?>[] values : clauses) {
+            Arrays.fill(clause, 0L);
+            for (Enum<?> value : values) {
+                ConcurrentBitmap bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    bitmap.orInto(clause);
+                }
+            }
+            for (int i = 0; i < result.length; i++) {
+                result[i] &= clause[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Maps the set bits of a result bitmap back to vehicles.
+     */
+    List<Vehicle> vehiclesOf(long[] bits) {
+        List<Vehicle> result = new ArrayList<>(count(bits));
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                result.add(vehicles.get(slot));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /* =========================================================
+       Helpers
+       ========================================================= */
+
+    private ConcurrentBitmap bitmapFor(Enum<?> value) {
+        return bitmaps.computeIfAbsent(value, v -> new ConcurrentBitmap());
+    }
+
+    /**
+     * Collects the indexed enum attributes of a vehicle (null values are skipped).
+     */
+    static List<Enum<?>> attributesOf(Vehicle vehicle) {
+        List<Enum<?>> values = new ArrayList<>(9);
+        addIfPresent(values, vehicle.getKind());
+        if (vehicle instanceof ElectricVehicle ev) {
+            addIfPresent(values, ev.getRideMode());
+            addIfPresent(values, ev.getMotorType());
+            addIfPresent(values, ev.getPasType());
+            Battery battery = ev.getBattery();
+            if (battery != null) {
+                addIfPresent(values, battery.getChemistry());
+            }
+        }
+        if (vehicle instanceof EBike bike) {
+            addIfPresent(values, bike.getBrakeType());
+            addIfPresent(values, bike.getFrameType());
+            addIfPresent(values, bike.getSuspensionType());
+        } else if (vehicle instanceof EScooter scooter) {
+            addIfPresent(values, scooter.getScooterType());
+        }
+        return values;
+    }
+
+    private static void addIfPresent(List<Enum<?>> values, Enum<?> value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+}
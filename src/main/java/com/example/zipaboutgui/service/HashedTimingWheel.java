@@ -0,0 +1,248 @@
+package com.example.zipaboutgui.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: runs an expiry callback for many timeouts with one
+ * background thread and O(1) work per schedule, cancel and expiry.
+ *
+ * <p>The wheel is a ring of buckets, one per tick. A timeout due in
+ * {@code n} ticks goes into bucket {@code (now + n) mod size} with
+ * {@code n / size} remaining rounds; each tick the thread visits a single
+ * bucket, expiring the timeouts whose rounds are used up. Precision is
+ * one tick, which suits timeouts of seconds to minutes.</p>
+ *
+ * <p>Scheduling and cancelling only enqueue the timeout on a lock-free
+ * queue; the bucket lists are touched by the wheel thread alone. The
+ * thread is started with the first timeout and stopped by
+ * {@link #close()}.</p>
+ *
+ * @param <T> item a timeout is for
+ */
+final class HashedTimingWheel<T> {
+
+    /** Most pending timeouts moved into buckets per tick, so a burst cannot stall expiry. */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final String name;
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout<T>[] buckets;     // list heads (wheel thread only)
+    private final Consumer<? super T> onExpiry;
+
+    private final Queue<Timeout<T>> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile Thread worker;
+    private volatile boolean closed;
+    private volatile long startNanos;
+    private long tick;                      // wheel thread only
+
+    /**
+     * A scheduled expiry; {@link #cancel()} it when the item is done early.
+     */
+    static final class Timeout<T> {
+
+        private final HashedTimingWheel<T> wheel;
+        private final T item;
+        private final long deadlineNanos;   // relative to the wheel's start
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        // --- bucket list (wheel thread only) ---
+        private long remainingRounds;
+        private int bucket = -1;
+        private Timeout<T> next;
+        private Timeout<T> prev;
+
+        private Timeout(HashedTimingWheel<T> wheel, T item, long deadlineNanos) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Stops the timeout from firing.
+         *
+         * @return false if it has already fired or been cancelled
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+            wheel.pending.decrementAndGet();
+            wheel.cancelled.add(this);
+            return true;
+        }
+    }
+
+    /**
+     * @param name      name of the wheel thread
+     * @param tick      duration of one tick (the timing precision)
+     * @param unit      unit of {@code tick}
+     * @param size      number of buckets (rounded up to a power of two)
+     * @param onExpiry  called on the wheel thread for each expired timeout
+     */
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(String name, long tick, TimeUnit unit, int size, Consumer<? super T> onExpiry) {
+        if (tick <= 0 || size <= 0) {
+            throw new IllegalArgumentException("Tick and size must be positive");
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.name = name;
+        this.tickNanos = unit.toNanos(tick);
+        this.mask = buckets - 1;
+        this.buckets = (Timeout<T>[]) new Timeout<?>[buckets];
+        this.onExpiry = onExpiry;
+    }
+
+    /**
+     * Schedules {@code item} to expire after {@code delay}. After
+     * {@link #close()} the timeout is accepted but never fires.
+     */
+    Timeout<T> schedule(T item, long delay, TimeUnit unit) {
+        startIfNeeded();
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startNanos;
+        Timeout<T> timeout = new Timeout<>(this, item, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /** Number of timeouts scheduled and neither expired nor cancelled. */
+    int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the wheel thread, waiting briefly for a running callback to
+     * finish. Pending timeouts are dropped without firing.
+     */
+    void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = worker;
+        }
+        if (thread == null || thread == Thread.currentThread()) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startIfNeeded() {
+        if (worker != null || closed) {
+            return;
+        }
+        synchronized (this) {
+            if (worker == null && !closed) {
+                startNanos = System.nanoTime();
+                Thread thread = new Thread(this::run, name);
+                thread.setDaemon(true);
+                thread.start();
+                worker = thread;
+            }
+        }
+    }
+
+    /* -------------------------------
+       Wheel thread
+     -------------------------------- */
+
+    private void run() {
+        while (!closed) {
+            long deadline = startNanos + tickNanos * (tick + 1);
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+                if (closed) {
+                    return;
+                }
+            }
+            removeCancelled();
+            transferAdded();
+            expire((int) (tick & mask));
+            tick++;
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout<T> timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket >= 0) {
+                unlink(timeout);
+            }
+        }
+    }
+
+    private void transferAdded() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout<T> timeout = added.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != WAITING) {
+                continue;   // cancelled before it reached a bucket
+            }
+            long dueTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = Math.max(0, dueTick - tick) / buckets.length;
+            int bucket = (int) (Math.max(dueTick, tick) & mask);   // overdue: expire this tick
+            timeout.bucket = bucket;
+            timeout.next = buckets[bucket];
+            if (timeout.next != null) {
+                timeout.next.prev = timeout;
+            }
+            buckets[bucket] = timeout;
+        }
+    }
+
+    private void expire(int bucket) {
+        Timeout<T> timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                unlink(timeout);
+                if (timeout.state.compareAndSet(WAITING, EXPIRED)) {
+                    pending.decrementAndGet();
+                    try {
+                        onExpiry.accept(timeout.item);
+                    } catch (RuntimeException e) {
+                        // A failing callback must not stop the wheel
+                        EventLog.warn("timer.failed", "Expiry callback on {} failed: {}", name, e.toString());
+                    }
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (buckets[timeout.bucket] == timeout) {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.next = null;
+        timeout.prev = null;
+        timeout.bucket = -1;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of recent bookings and releases by idempotency key,
+ * so a client that retries after a timeout gets the first outcome back
+ * instead of running the operation again.
+ *
+ * <p>Keys are kept for a fixed time and at most {@code capacity} of them
+ * at once; the oldest go first. All keys live equally long, so insertion
+ * order is also expiry order and a FIFO queue is enough to find them.
+ * Old keys are dropped when new ones are added. A key whose operation is
+ * still running is never dropped: eviction stops at it until it finishes,
+ * so the cache can briefly hold more than {@code capacity} keys.</p>
+ *
+ * <p>A key is claimed before the operation runs. A retry that arrives
+ * while the first attempt is still in progress waits for its outcome
+ * rather than racing it. If the operation throws, the key is released
+ * and the next attempt runs it afresh.</p>
+ */
+final class IdempotencyCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    private volatile long ttlNanos;
+    private volatile int capacity;
+
+    IdempotencyCache(Duration ttl, int capacity) {
+        configure(ttl, capacity);
+    }
+
+    void configure(Duration ttl, int capacity) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Key lifetime must be positive: " + ttl);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.capacity = capacity;
+    }
+
+    /**
+     * Runs an operation once per key.
+     *
+     * @param key       client-chosen idempotency key
+     * @param operation {@code book} or {@code release}
+     * @param action    the operation itself; runs only if the key is new
+     * @return the outcome of the first request with this key, marked as
+     *         replayed if it was not produced by this call
+     * @throws IllegalArgumentException if the key was used for a different
+     *                                  operation, user or vehicle
+     */
+    RentalResult execute(String key, String operation, User user, Vehicle vehicle,
+                         Supplier<RentalResult> action) {
+        while (true) {
+            long now = System.nanoTime();
+            Entry entry = entries.get(key);
+            if (entry != null && entry.outcome.isDone() && now - entry.createdAt > ttlNanos) {
+                entries.remove(key, entry);
+                entry = null;
+            }
+
+            if (entry == null) {
+                Entry claimed = new Entry(key, operation, user, vehicle, now);
+                if (entries.putIfAbsent(key, claimed) != null) {
+                    continue;   // another request took the key first
+                }
+                order.add(claimed);
+                evict(now);
+                return run(claimed, action);
+            }
+
+            if (!entry.matches(operation, user, vehicle)) {
+                throw new IllegalArgumentException(
+                        "Idempotency key " + key + " was already used for another request");
+            }
+            try {
+                return entry.outcome.join().asReplay();
+            } catch (CompletionException e) {
+                // The first attempt failed and released the key; try again
+            }
+        }
+    }
+
+    private RentalResult run(Entry claimed, Supplier<RentalResult> action) {
+        try {
+            RentalResult result = action.get();
+            claimed.outcome.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            entries.remove(claimed.key, claimed);
+            claimed.outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops expired keys and, if still over capacity, the oldest ones,
+     * stopping at the oldest key whose operation has not finished.
+     */
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = order.peek()) != null && oldest.outcome.isDone()
+                && (now - oldest.createdAt > ttlNanos || entries.size() > capacity)) {
+            if (order.remove(oldest)) {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    /** Number of keys currently remembered. */
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        final String key;
+        final String operation;
+        final User user;
+        final Vehicle vehicle;
+        final long createdAt;
+        final CompletableFuture<RentalResult> outcome = new CompletableFuture<>();
+
+        Entry(String key, String operation, User user, Vehicle vehicle, long createdAt) {
+            this.key = key;
+            this.operation = operation;
+            this.user = user;
+            this.vehicle = vehicle;
+            this.createdAt = createdAt;
+        }
+
+        boolean matches(String operation, User user, Vehicle vehicle) {
+            return this.operation.equals(operation) && this.user == user && this.vehicle == vehicle;
+        }
+    }
+}
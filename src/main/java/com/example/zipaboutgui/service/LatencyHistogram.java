@@ -0,0 +1,160 @@
+package com.example.zipaboutgui.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram.
+ *
+ * <p>Values (nanoseconds) are counted in log-linear buckets: 16 linear
+ * sub-buckets per power of two, so any reported percentile is within
+ * about 6% of the true value, over the full {@code long} range, in a fixed
+ * amount of memory.</p>
+ *
+ * <p>Recording is a handful of instructions and never blocks. Bucket
+ * counts are striped across a few arrays chosen by thread id, so threads
+ * recording similar latencies do not all contend on the same counter.
+ * Readers merge the stripes into a {@link Summary}; a summary taken while
+ * values are being recorded may be off by the in-flight values.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR = SUB_COUNT * 2;
+    private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB_COUNT;
+
+    private static final int STRIPES =
+            Math.min(8, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())));
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos duration in nanoseconds (negative values count as 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1));
+        stripes[stripe].incrementAndGet(indexOf(value));
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} (from {@link System#nanoTime()}).
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /* =========================================================
+       Reading
+       ========================================================= */
+
+    /**
+     * Point-in-time view of a histogram. All latencies are in nanoseconds.
+     *
+     * @param count     number of recorded values
+     * @param meanNanos arithmetic mean (0 if empty)
+     */
+    public record Summary(long count, double meanNanos, long p50, long p90,
+                          long p99, long p999, long max) {
+
+        /** One-line description in microseconds, for dumps and reports. */
+        public String format() {
+            return String.format("n=%d  mean %s  p50 %s  p90 %s  p99 %s  p99.9 %s  max %s",
+                    count, micros(meanNanos), micros(p50), micros(p90),
+                    micros(p99), micros(p999), micros(max));
+        }
+
+        private static String micros(double nanos) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+    }
+
+    /**
+     * Merges the stripes and computes the usual percentiles in one pass.
+     */
+    public Summary summary() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = stripe.get(i);
+                counts[i] += c;
+                total += c;
+            }
+        }
+        long maxValue = max.get();
+        if (total == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new Summary(total, (double) sum.sum() / total,
+                percentile(counts, total, 50, maxValue),
+                percentile(counts, total, 90, maxValue),
+                percentile(counts, total, 99, maxValue),
+                percentile(counts, total, 99.9, maxValue),
+                maxValue);
+    }
+
+    /** Number of recorded values. */
+    public long getCount() {
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                total += stripe.get(i);
+            }
+        }
+        return total;
+    }
+
+    private static long percentile(long[] counts, long total, double p, long maxValue) {
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /* =========================================================
+       Bucket layout
+       ========================================================= */
+
+    private static int indexOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_COUNT;
+        return LINEAR + (magnitude - SUB_BITS - 1) * SUB_COUNT + sub;
+    }
+
+    /** Highest value that falls into the bucket. */
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int magnitude = (index - LINEAR) / SUB_COUNT + SUB_BITS + 1;
+        int sub = (index - LINEAR) % SUB_COUNT;
+        int shift = magnitude - SUB_BITS;
+        return ((long) (SUB_COUNT + sub + 1) << shift) - 1;
+    }
+}
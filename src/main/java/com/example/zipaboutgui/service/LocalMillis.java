@@ -0,0 +1,106 @@
+package com.example.zipaboutgui.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Wall-clock date-times as {@code long} milliseconds, the way rentals
+ * store their times.
+ *
+ * <p>A value counts milliseconds since 1970-01-01T00:00 <em>local</em>
+ * time: a {@link LocalDateTime} is encoded as if it were UTC. That keeps
+ * the conversion exact in both directions (no time-zone or daylight
+ * saving rules involved), keeps local day boundaries at multiples of
+ * {@link #MILLIS_PER_DAY}, and lets durations and formatting be computed
+ * with plain arithmetic.</p>
+ */
+public final class LocalMillis {
+
+    /** Marks a time that is not set (e.g. the end of an active rental). */
+    public static final long NONE = Long.MIN_VALUE;
+
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private LocalMillis() {
+    }
+
+    /**
+     * @return the current local time, in milliseconds
+     */
+    public static long now() {
+        return of(LocalDateTime.now());
+    }
+
+    /**
+     * @return {@code time} in milliseconds, or {@link #NONE} for null
+     */
+    public static long of(LocalDateTime time) {
+        return time == null ? NONE : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * @return the date-time for {@code millis}, or null for {@link #NONE}
+     */
+    public static LocalDateTime toLocalDateTime(long millis) {
+        if (millis == NONE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the local day, as {@link java.time.LocalDate#toEpochDay()}
+     */
+    public static long epochDay(long millis) {
+        return Math.floorDiv(millis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * @return whole minutes from {@code start} to {@code end}
+     */
+    public static long minutesBetween(long start, long end) {
+        return (end - start) / MILLIS_PER_MINUTE;
+    }
+
+    /**
+     * Appends {@code millis} as {@code yyyy-MM-dd HH:mm}, computing the
+     * calendar fields directly (no temporal objects or formatter).
+     */
+    public static StringBuilder appendDateTime(StringBuilder sb, long millis) {
+        long days = epochDay(millis);
+        int minuteOfDay = (int) (Math.floorMod(millis, MILLIS_PER_DAY) / MILLIS_PER_MINUTE);
+
+        // Civil date from day count (proleptic Gregorian, March-based years)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year >= 0 && year < 1000) {
+            sb.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+        }
+        sb.append(year).append('-');
+        appendTwoDigits(sb, month).append('-');
+        appendTwoDigits(sb, day).append(' ');
+        appendTwoDigits(sb, minuteOfDay / 60).append(':');
+        return appendTwoDigits(sb, minuteOfDay % 60);
+    }
+
+    /**
+     * @return {@code millis} as {@code yyyy-MM-dd HH:mm}
+     */
+    public static String format(long millis) {
+        return appendDateTime(new StringBuilder(16), millis).toString();
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.zipaboutgui.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by hashing, used to make booking
+ * operations atomic per user and per vehicle without a global lock.
+ *
+ * <p>Two unrelated objects usually map to different stripes, so bookings
+ * for different users and vehicles proceed in parallel. When an operation
+ * needs two stripes they are always taken in ascending index order, which
+ * rules out deadlocks between concurrent bookings.</p>
+ */
+class LockStripes {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Creates a lock set sized for the number of available processors.
+     */
+    LockStripes() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    /**
+     * Creates a lock set with at least the given number of stripes
+     * (rounded up to a power of two).
+     *
+     * @param minStripes minimum number of stripes
+     */
+    LockStripes(int minStripes) {
+        int size = Integer.highestOneBit(Math.max(2, minStripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the stripe index for the given object.
+     */
+    int indexFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    /**
+     * Locks the single stripe guarding {@code key}.
+     *
+     * @return the stripe index, to be passed to {@link #unlock(int)}
+     */
+    int lock(Object key) {
+        int i = indexFor(key);
+        locks[i].lock();
+        return i;
+    }
+
+    void unlock(int index) {
+        locks[index].unlock();
+    }
+
+    /**
+     * Locks the stripes guarding both keys, in ascending index order.
+     *
+     * @return both stripe indexes packed into a long, to be passed
+     *         to {@link #unlockBoth(long)}
+     */
+    long lockBoth(Object first, Object second) {
+        int a = indexFor(first);
+        int b = indexFor(second);
+        int lo = Math.min(a, b);
+        int hi = Math.max(a, b);
+
+        locks[lo].lock();
+        if (hi != lo) {
+            locks[hi].lock();
+        }
+        return ((long) lo << 32) | (hi & 0xFFFFFFFFL);
+    }
+
+    void unlockBoth(long packed) {
+        int lo = (int) (packed >>> 32);
+        int hi = (int) packed;
+        if (hi != lo) {
+            locks[hi].unlock();
+        }
+        locks[lo].unlock();
+    }
+
+    /**
+     * Locks every stripe in ascending order, pausing all bookings and
+     * releases (used to capture a consistent snapshot).
+     */
+    void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.zipaboutgui.service;
+
+/**
+ * Severity of an {@link EventLog} event, in increasing order.
+ * {@link #OFF} as threshold disables logging entirely.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+}
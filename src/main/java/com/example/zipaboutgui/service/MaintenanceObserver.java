@@ -3,14 +3,15 @@ package com.example.zipaboutgui.service;
 //import main.java.roehampton.msayyid.zipabout.domain.vehicle.Vehicle;
 import com.example.zipaboutgui.domain.vehicle.Vehicle;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Observer that tracks how many times each vehicle has been rented.
  * <p>
  * When a vehicle reaches a configured number of completed rentals, this observer
- * prints a maintenance reminder. It implements the {@link RentalObserver} interface
+ * logs a maintenance reminder. It implements the {@link RentalObserver} interface
  * and is notified by {@link RentalService} whenever a rental is completed.
  */
 public class MaintenanceObserver implements RentalObserver {
@@ -21,30 +22,51 @@ public class MaintenanceObserver implements RentalObserver {
     private static final int SERVICE_THRESHOLD = 10;
 
     /**
-     * Tracks the number of completed rentals per vehicle (keyed by vehicle ID).
+     * Completed-rental counters indexed by {@link Vehicle#getFleetIndex()}.
+     * Each counter is created on a vehicle's first completion and then
+     * incremented atomically, so releases on several threads never hash
+     * or compare vehicle ids.
      */
-    private final Map<String, Integer> usageCountByVehicleId = new HashMap<>();
+    private final SlotTable<UsageCounter> usageByFleetIndex = new SlotTable<>();
+    private final AtomicInteger highestFleetIndex = new AtomicInteger(-1);
+
+    /**
+     * Counters for vehicles without a fleet index (rentals of vehicles never
+     * registered with a service), keyed by vehicle id.
+     */
+    private final Map<String, UsageCounter> unregisteredUsage = new ConcurrentHashMap<>();
+
+    /** Completed-rental count for one vehicle. */
+    private static final class UsageCounter {
+        final Vehicle vehicle;
+        final AtomicInteger completed = new AtomicInteger();
+
+        UsageCounter(Vehicle vehicle) {
+            this.vehicle = vehicle;
+        }
+    }
 
     @Override
     public void onRentalCompleted(Rental rental) {
         Vehicle vehicle = rental.getVehicle();
-        String vehicleId = vehicle.getId();
+        int fleetIndex = vehicle.getFleetIndex();
 
-        int newCount = usageCountByVehicleId.getOrDefault(vehicleId, 0) + 1;
-        usageCountByVehicleId.put(vehicleId, newCount);
+        UsageCounter usage;
+        if (fleetIndex >= 0) {
+            usage = usageByFleetIndex.computeIfAbsent(fleetIndex, i -> new UsageCounter(vehicle));
+            highestFleetIndex.accumulateAndGet(fleetIndex, Math::max);
+        } else {
+            usage = unregisteredUsage.computeIfAbsent(vehicle.getId(), id -> new UsageCounter(vehicle));
+        }
+        int newCount = usage.completed.incrementAndGet();
 
-        System.out.println(
-                "[MAINTENANCE] " + vehicle.getVehicleType() + " " + vehicle.getModel()
-                        + " now has " + newCount + " completed rentals."
-        );
+        EventLog.info("maintenance.usage", "{} {} now has {} completed rentals.",
+                vehicle.getVehicleType(), vehicle.getModel(), newCount);
 
         if (newCount == SERVICE_THRESHOLD) {
-            System.out.println(
-                    "[MAINTENANCE] Vehicle "
-                            + (vehicle.getAssetCode() != null ? vehicle.getAssetCode() + " " : "")
-                            + "(" + vehicle.getModel() + ") has reached "
-                            + SERVICE_THRESHOLD + " rentals. Schedule a maintenance check."
-            );
+            EventLog.warn("maintenance.due", "Vehicle {} ({}) has reached {} rentals. Schedule a maintenance check.",
+                    vehicle.getAssetCode() != null ? vehicle.getAssetCode() : "-",
+                    vehicle.getModel(), SERVICE_THRESHOLD);
         }
     }
 
@@ -54,16 +76,25 @@ public class MaintenanceObserver implements RentalObserver {
      */
     public void printUsageSummary() {
         System.out.println("\n=== Maintenance Usage Summary ===");
-        if (usageCountByVehicleId.isEmpty()) {
+        int highest = highestFleetIndex.get();
+        if (highest < 0 && unregisteredUsage.isEmpty()) {
             System.out.println("No completed rentals yet.");
             return;
         }
-        for (Map.Entry<String, Integer> entry : usageCountByVehicleId.entrySet()) {
-            String vehicleId = entry.getKey();
-            int count = entry.getValue();
-            System.out.println("- Vehicle ID: " + vehicleId
-                    + " | Completed rentals: " + count);
+        for (int i = 0; i <= highest; i++) {
+            UsageCounter usage = usageByFleetIndex.get(i);
+            if (usage != null) {
+                printUsage(usage);
+            }
+        }
+        for (UsageCounter usage : unregisteredUsage.values()) {
+            printUsage(usage);
         }
         System.out.println("----------------------------------------");
     }
+
+    private static void printUsage(UsageCounter usage) {
+        System.out.println("- Vehicle ID: " + usage.vehicle.getId()
+                + " | Completed rentals: " + usage.completed.get());
+    }
 }
@@ -1,7 +1,5 @@
 package com.example.zipaboutgui.service;
 
-import java.time.format.DateTimeFormatter;
-
 /**
  * Observer that sends a simple console notification when a rental is completed.
  * <p>
@@ -11,21 +9,18 @@ import java.time.format.DateTimeFormatter;
  */
 public class NotificationObserver implements RentalObserver {
 
-    private static final DateTimeFormatter FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
     @Override
     public void onRentalCompleted(Rental rental) {
-        String endTimeText = rental.getEndTime() != null
-                ? rental.getEndTime().format(FORMATTER)
+        // The end time and display id are formatted here, so skip them when nobody reads the line
+        if (!EventLog.isEnabled(LogLevel.INFO)) {
+            return;
+        }
+        String endTimeText = rental.getEndMillis() != LocalMillis.NONE
+                ? rental.formatEndTime()
                 : "now";
 
-        System.out.println(
-                "\n[NOTIFICATION] Dear " + rental.getUser().getName()
-                        + ", your rental " + rental.getId()
-                        + " of " + rental.getVehicle().getVehicleType() + ": "
-                        + rental.getVehicle().getModel()
-                        + " has been completed at " + endTimeText + "."
-        );
+        EventLog.info("notification.sent", "Dear {}, your rental {} of {}: {} has been completed at {}.",
+                rental.getUser().getName(), rental.getId(), rental.getVehicle().getVehicleType(),
+                rental.getVehicle().getModel(), endTimeText);
     }
 }
@@ -0,0 +1,15 @@
+package com.example.zipaboutgui.service;
+
+/**
+ * What the overdue-rental sweeper does with a rental that has been active
+ * longer than the maximum duration (see
+ * {@link RentalService#scheduleRentalTimeouts}).
+ */
+public enum OverdueRentalAction {
+
+    /** Complete the rental as if the rider had released the vehicle. */
+    COMPLETE,
+
+    /** Leave the rental active; log a warning and count it once. */
+    FLAG
+}
@@ -0,0 +1,18 @@
+package com.example.zipaboutgui.service;
+
+import java.util.List;
+
+/**
+ * One page of a paged query result.
+ *
+ * @param items      the items on this page, in the query's sort order
+ * @param total      number of items matching the query, across all pages
+ * @param nextCursor cursor for the following page, or null if this is the last
+ * @param <T>        item type
+ */
+public record Page<T>(List<T> items, int total, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.zipaboutgui.service;
+
+/**
+ * Why {@link RentalService} refused a booking or release.
+ *
+ * <p>Each reason belongs to one operation and is counted separately in
+ * {@link ServiceMetrics}, under {@code <operation>.rejected.<reason>}.</p>
+ */
+public enum RejectionReason {
+
+    VEHICLE_NOT_REGISTERED("book"),
+    USER_HAS_ACTIVE_RENTAL("book"),
+    VEHICLE_ALREADY_BOOKED("book"),
+    BATTERY_TOO_LOW("book"),
+    VEHICLE_RESERVED("book"),
+    USER_HAS_RESERVATION("book"),
+
+    NO_ACTIVE_RENTAL("release"),
+    NOT_RENTAL_OWNER("release");
+
+    private final String operation;
+
+    RejectionReason(String operation) {
+        this.operation = operation;
+    }
+
+    /** Name of the operation that reports this reason ({@code book}, {@code release}). */
+    public String getOperation() {
+        return operation;
+    }
+
+    /** Metric name, e.g. {@code book.rejected.vehicle_already_booked}. */
+    public String metricName() {
+        return operation + ".rejected." + name().toLowerCase();
+    }
+}
@@ -7,9 +7,7 @@ import com.example.zipaboutgui.domain.enums.*;
 import com.example.zipaboutgui.domain.user.*;
 import com.example.zipaboutgui.domain.vehicle.*;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a single rental of a vehicle by a user.
@@ -17,19 +15,31 @@ import java.time.format.DateTimeFormatter;
  * A {@code Rental} links one {@link User} to one {@link Vehicle} for a period of time.
  * It tracks start/end timestamps and a {@link RentalStatus} (ACTIVE, COMPLETED, CANCELLED),
  * and is responsible for updating the vehicle's booking state.
+ * <p>
+ * Every rental ever booked stays in memory, so the state is kept compact:
+ * times are {@link LocalMillis} {@code long}s and the status is a byte.
+ * {@link #getStartTime()} and {@link #getEndTime()} build a
+ * {@link LocalDateTime} on each call; durations, ordering and formatting
+ * ({@link #getStartMillis()}, {@link #getDurationMinutes()},
+ * {@link #formatStartTime()}) work on the numbers directly.
  */
 public class Rental {
 
-    private static final DateTimeFormatter FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final RentalStatus[] STATUSES = RentalStatus.values();
+    private static final byte ACTIVE = (byte) RentalStatus.ACTIVE.ordinal();
+    private static final byte COMPLETED = (byte) RentalStatus.COMPLETED.ordinal();
+    private static final byte CANCELLED = (byte) RentalStatus.CANCELLED.ordinal();
 
-    private final String id;
+    /** Compact identifier; 0 when the rental was created with an explicit string id. */
+    private final long numericId;
+    /** Display id, built from {@link #numericId} on first use. */
+    private String id;
     private final User user;
     private final Vehicle vehicle;
 
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
-    private RentalStatus status;
+    private final long startMillis;
+    private volatile long endMillis = LocalMillis.NONE;
+    private volatile byte status;
 
     /**
      * Creates a new rental and marks the vehicle as booked by the user.
@@ -40,18 +50,103 @@ public class Rental {
      * @param vehicle the vehicle being rented
      */
     public Rental(String id, User user, Vehicle vehicle) {
+        this(0L, id, user, vehicle);
+    }
+
+    /**
+     * Creates a new rental identified by a compact numeric id.
+     * The display id ({@code "R-<n>"}) is only formatted when
+     * {@link #getId()} is called.
+     *
+     * @param numericId unique numeric identifier for this rental
+     * @param user      the user renting the vehicle
+     * @param vehicle   the vehicle being rented
+     */
+    public Rental(long numericId, User user, Vehicle vehicle) {
+        this(numericId, null, user, vehicle);
+    }
+
+    private Rental(long numericId, String id, User user, Vehicle vehicle) {
+        this.numericId = numericId;
         this.id = id;
         this.user = user;
         this.vehicle = vehicle;
-        this.startTime = LocalDateTime.now();
-        this.status = RentalStatus.ACTIVE;
+        this.startMillis = LocalMillis.now();
+        this.status = ACTIVE;
 
         // Mark the vehicle as no longer available
         vehicle.markAsBooked(user);
     }
 
+    /**
+     * Creates a new ACTIVE rental starting at the given time and marks the
+     * vehicle as booked. Used by {@link RentalService}, whose clock never
+     * goes backwards.
+     *
+     * @param startMillis start time in {@link LocalMillis}
+     */
+    static Rental startAt(long numericId, User user, Vehicle vehicle, long startMillis) {
+        Rental rental = new Rental(numericId, user, vehicle, startMillis);
+        rental.status = ACTIVE;
+        vehicle.markAsBooked(user);
+        return rental;
+    }
+
+    /**
+     * Rebuilds a rental from persisted state (journal or snapshot).
+     * <p>
+     * Unlike the public constructors this does not start the rental "now":
+     * the recorded times and status are used as-is, and the vehicle is only
+     * marked as booked if the rental is still ACTIVE.
+     *
+     * @param numericId numeric id the rental was created with
+     * @param user      the renting user
+     * @param vehicle   the rented vehicle
+     * @param startMillis recorded start time in {@link LocalMillis}
+     * @param endMillis   recorded end time, or {@link LocalMillis#NONE} if still active
+     * @param status      recorded status
+     * @return the restored rental
+     */
+    static Rental restore(long numericId, User user, Vehicle vehicle,
+                          long startMillis, long endMillis, RentalStatus status) {
+        Rental rental = new Rental(numericId, user, vehicle, startMillis);
+        rental.endMillis = endMillis;
+        rental.status = (byte) status.ordinal();
+        if (status == RentalStatus.ACTIVE) {
+            vehicle.markAsBooked(user);
+        }
+        return rental;
+    }
+
+    private Rental(long numericId, User user, Vehicle vehicle, long startMillis) {
+        this.numericId = numericId;
+        this.user = user;
+        this.vehicle = vehicle;
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Returns the display identifier of this rental (e.g. {@code "R-42"}).
+     *
+     * @return rental id
+     */
     public String getId() {
-        return id;
+        String text = id;
+        if (text == null) {
+            // Benign race: concurrent callers build equal strings
+            text = "R-" + numericId;
+            id = text;
+        }
+        return text;
+    }
+
+    /**
+     * Returns the compact numeric identifier of this rental.
+     *
+     * @return numeric id, or 0 if this rental was created with a string id
+     */
+    public long getNumericId() {
+        return numericId;
     }
 
     public User getUser() {
@@ -63,15 +158,48 @@ public class Rental {
     }
 
     public RentalStatus getStatus() {
-        return status;
+        return STATUSES[status];
     }
 
     public LocalDateTime getStartTime() {
-        return startTime;
+        return LocalMillis.toLocalDateTime(startMillis);
     }
 
+    /**
+     * @return end time, or null while the rental is active
+     */
     public LocalDateTime getEndTime() {
-        return endTime;
+        return LocalMillis.toLocalDateTime(endMillis);
+    }
+
+    /**
+     * @return start time in {@link LocalMillis}
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return end time in {@link LocalMillis}, or {@link LocalMillis#NONE}
+     *         while the rental is active
+     */
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * @return start time as {@code yyyy-MM-dd HH:mm}
+     */
+    public String formatStartTime() {
+        return LocalMillis.format(startMillis);
+    }
+
+    /**
+     * @return end time as {@code yyyy-MM-dd HH:mm}, or null while the rental is active
+     */
+    public String formatEndTime() {
+        long end = endMillis;
+        return end == LocalMillis.NONE ? null : LocalMillis.format(end);
     }
 
     /**
@@ -80,7 +208,7 @@ public class Rental {
      * @return true if status is ACTIVE, false otherwise
      */
     public boolean isActive() {
-        return status == RentalStatus.ACTIVE;
+        return status == ACTIVE;
     }
 
     /**
@@ -91,11 +219,19 @@ public class Rental {
      * If the rental is not ACTIVE, this method does nothing.
      */
     public void complete() {
-        if (status != RentalStatus.ACTIVE) {
+        complete(LocalMillis.now());
+    }
+
+    /**
+     * Completes this rental at the given time in {@link LocalMillis}
+     * (the service's clock, or a recorded end time when replaying history).
+     */
+    void complete(long atMillis) {
+        if (status != ACTIVE) {
             return; // already completed or cancelled
         }
-        this.status = RentalStatus.COMPLETED;
-        this.endTime = LocalDateTime.now();
+        this.endMillis = atMillis;
+        this.status = COMPLETED;
         vehicle.markAsReleased();
     }
 
@@ -107,11 +243,19 @@ public class Rental {
      * If the rental is not ACTIVE, this method does nothing.
      */
     public void cancel() {
-        if (status != RentalStatus.ACTIVE) {
+        cancel(LocalMillis.now());
+    }
+
+    /**
+     * Cancels this rental at the given time in {@link LocalMillis}
+     * (the service's clock, or a recorded end time when replaying history).
+     */
+    void cancel(long atMillis) {
+        if (status != ACTIVE) {
             return;
         }
-        this.status = RentalStatus.CANCELLED;
-        this.endTime = LocalDateTime.now();
+        this.endMillis = atMillis;
+        this.status = CANCELLED;
         vehicle.markAsReleased();
     }
 
@@ -121,14 +265,15 @@ public class Rental {
      * @return the duration in minutes, or -1 if the rental is not yet finished
      */
     public long getDurationMinutes() {
-        if (startTime == null || endTime == null) {
+        long end = endMillis;
+        if (end == LocalMillis.NONE) {
             return -1;
         }
-        return Duration.between(startTime, endTime).toMinutes();
+        return LocalMillis.minutesBetween(startMillis, end);
     }
 
-    private String formatTime(LocalDateTime time) {
-        return time == null ? "n/a" : time.format(FORMATTER);
+    private static String formatTime(long millis) {
+        return millis == LocalMillis.NONE ? "n/a" : LocalMillis.format(millis);
     }
 
     /**
@@ -136,12 +281,12 @@ public class Rental {
      */
     public void printDetails() {
         long mins = getDurationMinutes();
-        System.out.println("Rental ID: " + id);
+        System.out.println("Rental ID: " + getId());
         System.out.println("User: " + user.getName());
         System.out.println("Vehicle: " + vehicle.getVehicleType() + " - " + vehicle.getModel());
-        System.out.println("Status: " + status);
-        System.out.println("Start: " + formatTime(startTime));
-        System.out.println("End: " + formatTime(endTime));
+        System.out.println("Status: " + getStatus());
+        System.out.println("Start: " + formatTime(startMillis));
+        System.out.println("End: " + formatTime(endMillis));
         if (mins >= 0) {
             System.out.println("Duration: " + mins + " min");
         }
@@ -0,0 +1,40 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+/**
+ * One change to the state of a {@link RentalService}, as delivered to
+ * {@link RentalChangeListener}s.
+ *
+ * <p>Fields that do not apply to the type are {@code null}: user events
+ * carry only the user, {@link Type#VEHICLE_REGISTERED} only the vehicle.
+ * Rental events carry all three, since starting or ending a rental also
+ * changes the vehicle's status and the user's active rental. Reservation
+ * events carry the user and the held vehicle.</p>
+ *
+ * @param type    what happened
+ * @param user    affected user, or null
+ * @param vehicle affected vehicle, or null
+ * @param rental  affected rental, or null
+ */
+public record RentalChange(Type type, User user, Vehicle vehicle, Rental rental) {
+
+    public enum Type {
+        USER_REGISTERED,
+        USER_REMOVED,
+        VEHICLE_REGISTERED,
+        RENTAL_STARTED,
+        RENTAL_ENDED,
+        RESERVATION_STARTED,
+        RESERVATION_ENDED
+    }
+
+    /**
+     * @return true if the vehicle's availability changed with this event
+     */
+    public boolean changesVehicleStatus() {
+        return type == Type.RENTAL_STARTED || type == Type.RENTAL_ENDED
+                || type == Type.RESERVATION_STARTED || type == Type.RESERVATION_ENDED;
+    }
+}
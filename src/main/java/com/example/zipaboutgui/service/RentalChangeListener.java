@@ -0,0 +1,21 @@
+package com.example.zipaboutgui.service;
+
+/**
+ * Listener for the change feed of a {@link RentalService}: registrations,
+ * removals, and rentals starting or ending.
+ *
+ * <p>Unlike {@link RentalObserver}, which reacts to completed rentals with
+ * business logic, this feed exists so that views can apply the change to
+ * what they show instead of reloading everything.</p>
+ *
+ * <p>Listeners are called on the thread that made the change, after the
+ * service has released its locks, so they must return quickly - typically
+ * by handing the change to another thread.</p>
+ */
+public interface RentalChangeListener {
+
+    /**
+     * @param change the change that was just applied
+     */
+    void onChange(RentalChange change);
+}
@@ -0,0 +1,280 @@
+package com.example.zipaboutgui.service;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Rentals of one user or one vehicle, in booking order.
+ *
+ * <p>The rentals themselves live in the service's {@link RentalLog}; a
+ * history only records where. It is tiered:</p>
+ * <ul>
+ *   <li>a small <b>hot window</b> holds the newest rentals (by default
+ *       {@value #DEFAULT_HOT_WINDOW}, see {@code zipabout.history.hot}) as
+ *       plain references, so the active rental and recent history are one
+ *       array read away;</li>
+ *   <li>older rentals are moved to an <b>archive</b> of segments that
+ *       store each rental's log position as a variable-length delta from
+ *       the previous one, usually a single byte instead of a reference.
+ *       Reading them back decodes the segment and looks the rentals up in
+ *       the log.</li>
+ * </ul>
+ *
+ * <p>Each history has a single writer at a time - bookings append while
+ * holding the user's (or vehicle's) lock stripe. Reads synchronize on the
+ * history, which only contends with a booking of the same user or
+ * vehicle.</p>
+ *
+ * <p>A user or vehicle has at most one active rental, which is always
+ * its newest one, and start times grow with booking order. Paged queries
+ * ({@link RentalQuery}) rely on both to work on index ranges instead of
+ * scanning the history.</p>
+ *
+ * <p><b>Memory is not bounded by the hot window.</b> The archive only
+ * shrinks the history's own references: every {@link Rental} stays
+ * reachable from the {@code RentalLog}, so memory still grows with the
+ * total number of rentals. Archiving the rental data itself and building
+ * rentals only when a page is read would make archived rentals copies,
+ * while the service, {@link StateView} lists and UI rows rely on a
+ * rental being one object whose status they can re-read.</p>
+ */
+final class RentalHistory {
+
+    private static final int DEFAULT_HOT_WINDOW = 32;
+    private static final int HOT_WINDOW =
+            Math.max(2, Integer.getInteger("zipabout.history.hot", DEFAULT_HOT_WINDOW));
+    private static final int INITIAL_HOT_CAPACITY = Math.min(4, HOT_WINDOW);
+    private static final int SEGMENT_SIZE = 256;
+
+    private final RentalLog log;
+
+    // --- hot window (ring buffer, oldest at hotStart) ---
+    private Rental[] hot = new Rental[0];
+    private int[] hotPositions = new int[0];
+    private int hotStart;
+    private int hotCount;
+
+    // --- archive (all segments full except the last) ---
+    private final List<Segment> segments = new ArrayList<>();
+    private int archived;
+
+    /**
+     * Log positions of up to {@link #SEGMENT_SIZE} archived rentals: the
+     * first one, then varint-encoded gaps to each following one.
+     */
+    private static final class Segment {
+        final int first;
+        int last;
+        int count = 1;
+        byte[] gaps = new byte[16];
+        int length;
+
+        Segment(int first) {
+            this.first = first;
+            this.last = first;
+        }
+
+        void add(int position) {
+            int gap = position - last;
+            if (length + 5 > gaps.length) {
+                gaps = Arrays.copyOf(gaps, gaps.length * 2);
+            }
+            while ((gap & ~0x7F) != 0) {
+                gaps[length++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            gaps[length++] = (byte) gap;
+            last = position;
+            count++;
+        }
+
+        void seal() {
+            gaps = Arrays.copyOf(gaps, length);
+        }
+    }
+
+    /**
+     * @param log the log the recorded positions refer to
+     */
+    RentalHistory(RentalLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Appends a rental. Callers must hold the lock that guards this history.
+     *
+     * @param rental   the new, newest rental
+     * @param position its index in the rental log
+     */
+    synchronized void append(Rental rental, int position) {
+        if (hotCount == hot.length) {
+            if (hot.length < HOT_WINDOW) {
+                // Still filling up: nothing has wrapped around yet
+                int capacity = Math.min(HOT_WINDOW, Math.max(INITIAL_HOT_CAPACITY, hot.length * 2));
+                hot = Arrays.copyOf(hot, capacity);
+                hotPositions = Arrays.copyOf(hotPositions, capacity);
+            } else {
+                archive(hotPositions[hotStart]);
+                hot[hotStart] = null;
+                hotStart = (hotStart + 1) % hot.length;
+                hotCount--;
+            }
+        }
+        int slot = (hotStart + hotCount) % hot.length;
+        hot[slot] = rental;
+        hotPositions[slot] = position;
+        hotCount++;
+    }
+
+    private void archive(int position) {
+        Segment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (tail == null || tail.count == SEGMENT_SIZE) {
+            if (tail != null) {
+                tail.seal();
+            }
+            segments.add(new Segment(position));
+        } else {
+            tail.add(position);
+        }
+        archived++;
+    }
+
+    synchronized int size() {
+        return archived + hotCount;
+    }
+
+    /**
+     * @return the rental at {@code index} (0 = oldest)
+     */
+    synchronized Rental get(int index) {
+        if (index < 0 || index >= archived + hotCount) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + (archived + hotCount));
+        }
+        if (index >= archived) {
+            return hot[(hotStart + index - archived) % hot.length];
+        }
+        List<Rental> one = new ArrayList<>(1);
+        copyRange(index, index + 1, one);
+        return one.get(0);
+    }
+
+    /**
+     * Adds the rentals in {@code [from, to)} to {@code out}, oldest first,
+     * decoding each archive segment once.
+     */
+    synchronized void copyRange(int from, int to, List<Rental> out) {
+        int i = from;
+        while (i < to && i < archived) {
+            Segment segment = segments.get(i / SEGMENT_SIZE);
+            int index = i % SEGMENT_SIZE;
+            int position = segment.first;
+            int offset = 0;
+            for (int k = 0; k < segment.count && i < to; k++) {
+                if (k > 0) {
+                    int gap = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = segment.gaps[offset++];
+                        gap |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    position += gap;
+                }
+                if (k >= index) {
+                    out.add(log.get(position));
+                    i++;
+                }
+            }
+        }
+        for (; i < to; i++) {
+            out.add(hot[(hotStart + i - archived) % hot.length]);
+        }
+    }
+
+    /**
+     * Binary search on start time. Rentals are appended in booking order,
+     * which is also start-time order because the service's rental clock
+     * never goes backwards.
+     *
+     * @return index of the first rental in {@code [0, size)} that started at
+     *         or after {@code time} ({@code size} if none)
+     */
+    synchronized int firstStartedAtOrAfter(int size, LocalDateTime time) {
+        long millis = LocalMillis.of(time);
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (get(mid).getStartMillis() < millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return a read-only list view of this history, oldest first; archived
+     *         rentals are decoded as they are read
+     */
+    List<Rental> asList() {
+        return new View();
+    }
+
+    private final class View extends AbstractList<Rental> {
+
+        @Override
+        public Rental get(int index) {
+            return RentalHistory.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return RentalHistory.this.size();
+        }
+
+        @Override
+        public Iterator<Rental> iterator() {
+            return new PagedIterator();
+        }
+    }
+
+    /**
+     * Iterates a segment's worth of rentals at a time, so walking a long
+     * history never holds more than one page of it.
+     */
+    private final class PagedIterator implements Iterator<Rental> {
+
+        private final List<Rental> page = new ArrayList<>();
+        private int pageIndex;
+        private int next;        // history index of the first rental after the page
+        private final int end = size();
+
+        @Override
+        public boolean hasNext() {
+            return pageIndex < page.size() || next < end;
+        }
+
+        @Override
+        public Rental next() {
+            if (pageIndex == page.size()) {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                page.clear();
+                pageIndex = 0;
+                int to = Math.min(end, next + SEGMENT_SIZE);
+                copyRange(next, to, page);
+                next = to;
+            }
+            return page.get(pageIndex++);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.zipaboutgui.service;
+
+/**
+ * Strategy for assigning rental identifiers.
+ * <p>
+ * Identifiers are compact {@code long} values. The human-readable form
+ * (e.g. {@code "R-42"}) is only built when {@link Rental#getId()} is first
+ * called, so booking does not allocate a string per rental.
+ * Implementations must be thread-safe and never return the same value twice.
+ */
+public interface RentalIdGenerator {
+
+    /**
+     * Returns the next unique rental identifier (always positive).
+     *
+     * @return new rental id
+     */
+    long nextId();
+
+    /**
+     * Moves the generator past an identifier that was issued earlier,
+     * for example one restored from persisted state.
+     *
+     * @param issuedId an identifier that must not be handed out again
+     */
+    void advancePast(long issuedId);
+}
@@ -0,0 +1,824 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.RentalStatus;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of {@link RentalService} domain events.
+ *
+ * <p>Every state change (user registered or removed, vehicle registered,
+ * rental booked, completed or cancelled) is appended as one record:</p>
+ * <pre>
+ *   int length | int crc32(payload) | payload (type byte + fields)
+ * </pre>
+ * <p>Rental times are written as the rental's own {@link LocalMillis}
+ * values, so replay restores them exactly, whatever the time zone.</p>
+ *
+ * <p><b>Segments.</b> Records are stored in segment files named
+ * {@code <file>.<base position>}, each starting with a header:</p>
+ * <pre>
+ *   int magic | int version | long base position
+ * </pre>
+ * <p>Positions (tickets, snapshot positions) count record bytes across all
+ * segments, so they keep growing when a new segment is started. After a
+ * snapshot the service {@linkplain #roll() starts a new segment} and
+ * {@linkplain #deleteSegmentsBefore(long) deletes} the ones the snapshot
+ * covers, which keeps the journal short. Segments are read through a
+ * fixed-size window, so their size is not limited by what can be mapped
+ * at once.</p>
+ *
+ * <p><b>Group commit.</b> Callers only copy their record into an in-memory
+ * batch and receive a ticket (the journal position just after the record).
+ * A single flusher thread writes the whole batch through a
+ * {@link FileChannel} and calls {@code force()} once for all of it, then
+ * wakes every caller whose ticket is covered. While one fsync is running,
+ * new records pile up in the next batch, so under concurrent load the cost
+ * of an fsync is shared by many bookings.</p>
+ *
+ * <p>On startup the journal is {@linkplain #replay(RentalService, long) replayed}
+ * to rebuild the service. A torn record at the end of the file (crash
+ * during a write) is detected by its length or checksum and cut off.</p>
+ */
+public class RentalJournal implements AutoCloseable {
+
+    /* -------------------------------
+       Record types
+     -------------------------------- */
+    static final byte USER_REGISTERED = 1;
+    static final byte USER_REMOVED = 2;
+    static final byte VEHICLE_REGISTERED = 3;
+    static final byte RENTAL_BOOKED = 4;
+    static final byte RENTAL_COMPLETED = 5;
+    static final byte RENTAL_CANCELLED = 6;
+
+    private static final int HEADER_BYTES = 8;
+
+    private static final int MAGIC = 0x5A414A4E; // "ZAJN"
+    private static final int VERSION = 3;
+    private static final int SEGMENT_HEADER_BYTES = 16;
+
+    /** Bytes read from a segment at a time; a longer record gets a larger buffer. */
+    private static final int WINDOW_BYTES = 1 << 20;
+
+    /** Per-thread scratch buffer, so records are encoded outside the lock. */
+    private static final ThreadLocal<BinaryEncoder> SCRATCH =
+            ThreadLocal.withInitial(BinaryEncoder::new);
+
+    private final Path file;
+    private final boolean fsync;
+
+    // --- Current segment (written by the flusher thread only) ---
+    private FileChannel channel;
+    private long segmentBase;
+
+    // --- Group commit state (guarded by lock) ---
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    private BinaryEncoder pending = new BinaryEncoder(64 * 1024);
+    private BinaryEncoder spare = new BinaryEncoder(64 * 1024);
+    private long appendedPosition;
+    private IOException failure;
+    private boolean closed;
+    private long rollsRequested;
+    private long rollsDone;
+
+    private volatile long durablePosition;
+    private final Thread flusher;
+
+    // --- Metrics ---
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+
+    private RentalJournal(Path file, FileChannel channel, long segmentBase, long validEnd, boolean fsync) {
+        this.file = file;
+        this.channel = channel;
+        this.segmentBase = segmentBase;
+        this.fsync = fsync;
+        this.appendedPosition = validEnd;
+        this.durablePosition = validEnd;
+        this.flusher = new Thread(this::flushLoop, "rental-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens (or creates) a journal that fsyncs every commit.
+     *
+     * @param file journal file (segments are stored next to it)
+     * @return the opened journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static RentalJournal open(Path file) throws IOException {
+        return open(file, true);
+    }
+
+    /**
+     * Opens (or creates) a journal.
+     *
+     * @param file  journal file
+     * @param fsync whether each commit is forced to the storage device;
+     *              {@code false} only hands data to the OS (faster, not crash-safe)
+     * @return the opened journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static RentalJournal open(Path file, boolean fsync) throws IOException {
+        return open(file, fsync, 0L);
+    }
+
+    /**
+     * Opens (or creates) a journal whose first {@code trustedEnd} bytes are
+     * already known to be intact, e.g. because a snapshot covers them. Only
+     * the records after that position are checksummed, so opening does not
+     * read the whole history.
+     *
+     * @param file       journal file
+     * @param fsync      whether each commit is forced to the storage device
+     * @param trustedEnd journal position up to which records are not re-verified
+     * @return the opened journal
+     * @throws IOException if the file cannot be opened, or is shorter than
+     *                     {@code trustedEnd}
+     */
+    public static RentalJournal open(Path file, boolean fsync, long trustedEnd) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        List<Segment> segments = listSegments(file);
+        if (segments.isEmpty()) {
+            if (trustedEnd > 0) {
+                throw new IOException("Journal " + file + " is missing; the snapshot expects "
+                        + trustedEnd + " bytes");
+            }
+            createSegment(file, 0L).close();
+            segments = listSegments(file);
+        }
+        if (trustedEnd < segments.get(0).base()) {
+            throw new IOException("Journal " + file + " has no records before position "
+                    + segments.get(0).base() + ", but the snapshot starts at " + trustedEnd);
+        }
+
+        // Check every segment the snapshot does not cover; cut off a torn
+        // tail left by a crash and continue appending after it
+        long end = segments.get(0).base();
+        int last = segments.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            Segment segment = segments.get(i);
+            if (segment.base() != end) {
+                throw new IOException("Journal " + file + " is missing records before " + segment.path());
+            }
+            if (i == last && Files.size(segment.path()) < SEGMENT_HEADER_BYTES) {
+                // Crashed while starting this segment; start it again
+                EventLog.warn("journal.truncated", "Journal: recreating incomplete segment {}", segment.path());
+                Files.delete(segment.path());
+                createSegment(file, segment.base()).close();
+            }
+            try (FileChannel in = FileChannel.open(segment.path(),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                checkHeader(in, segment);
+                long segmentEnd = segment.base() + in.size() - SEGMENT_HEADER_BYTES;
+                long validEnd = trustedEnd >= segmentEnd ? segmentEnd
+                        : scanValidEnd(in, segment.base(), Math.max(trustedEnd, segment.base()), segmentEnd);
+                end = validEnd;
+                if (validEnd < segmentEnd) {
+                    EventLog.warn("journal.truncated", "Journal: discarding {} bytes of incomplete records",
+                            segmentEnd - validEnd);
+                    in.truncate(validEnd - segment.base() + SEGMENT_HEADER_BYTES);
+                    // Later segments cannot continue from the cut
+                    for (Segment later : segments.subList(i + 1, segments.size())) {
+                        EventLog.warn("journal.truncated", "Journal: discarding segment {}", later.path());
+                        Files.delete(later.path());
+                    }
+                    last = i;
+                }
+            }
+        }
+        if (trustedEnd > end) {
+            throw new IOException("Journal " + file + " is shorter (" + end
+                    + " bytes) than the snapshot position " + trustedEnd);
+        }
+
+        Segment current = segments.get(last);
+        FileChannel channel = FileChannel.open(current.path(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return new RentalJournal(file, channel, current.base(), end, fsync);
+    }
+
+    /* =========================================================
+       Appending events
+       ========================================================= */
+
+    public long recordUserRegistered(User user) {
+        BinaryEncoder out = begin(USER_REGISTERED);
+        StateCodec.encodeUser(out, user);
+        return append(out);
+    }
+
+    public long recordUserRemoved(User user) {
+        BinaryEncoder out = begin(USER_REMOVED);
+        out.putString(user.getId());
+        return append(out);
+    }
+
+    public long recordVehicleRegistered(Vehicle vehicle) {
+        BinaryEncoder out = begin(VEHICLE_REGISTERED);
+        StateCodec.encodeVehicle(out, vehicle);
+        return append(out);
+    }
+
+    public long recordRentalBooked(Rental rental) {
+        BinaryEncoder out = begin(RENTAL_BOOKED);
+        out.putLong(rental.getNumericId());
+        out.putString(rental.getUser().getId());
+        out.putString(rental.getVehicle().getId());
+        out.putLong(rental.getStartMillis());
+        return append(out);
+    }
+
+    /**
+     * Records a completion. Must be called after the loyalty rewards were
+     * applied, under the rider's stripe: the record carries the rider's
+     * completed-rental count, which tells replay whether a snapshot
+     * already includes the rewards.
+     */
+    public long recordRentalCompleted(Rental rental) {
+        BinaryEncoder out = recordRentalEnded(RENTAL_COMPLETED, rental);
+        out.putInt(rental.getUser().getTotalCompletedRentals());
+        return append(out);
+    }
+
+    public long recordRentalCancelled(Rental rental) {
+        return append(recordRentalEnded(RENTAL_CANCELLED, rental));
+    }
+
+    private static BinaryEncoder recordRentalEnded(byte type, Rental rental) {
+        BinaryEncoder out = begin(type);
+        out.putLong(rental.getNumericId());
+        out.putLong(rental.getEndMillis());
+        return out;
+    }
+
+    private static BinaryEncoder begin(byte type) {
+        BinaryEncoder out = SCRATCH.get();
+        out.reset();
+        out.putInt(0); // length, patched in append()
+        out.putInt(0); // crc, patched in append()
+        out.putByte(type);
+        return out;
+    }
+
+    /**
+     * Seals the record in {@code out} and adds it to the current batch.
+     *
+     * @return ticket to pass to {@link #awaitDurable(long)}
+     */
+    private long append(BinaryEncoder out) {
+        int payloadLength = out.size() - HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), HEADER_BYTES, payloadLength);
+        out.putIntAt(0, payloadLength);
+        out.putIntAt(4, (int) crc.getValue());
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed: " + file);
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Journal write failed: " + file, failure);
+            }
+            pending.putBytes(out.array(), 0, out.size());
+            appendedPosition += out.size();
+            records.incrementAndGet();
+            workAvailable.signal();
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record identified by {@code ticket} (and everything
+     * appended before it) has been written and, if enabled, fsynced.
+     *
+     * @param ticket value returned by one of the {@code record...} methods
+     * @throws UncheckedIOException if the flusher failed to write the batch
+     */
+    public void awaitDurable(long ticket) {
+        if (durablePosition >= ticket) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durablePosition < ticket && failure == null) {
+                durableAdvanced.awaitUninterruptibly();
+            }
+            if (durablePosition < ticket) {
+                throw new UncheckedIOException("Journal write failed: " + file, failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            BinaryEncoder batch;
+            long target;
+
+            long roll;
+
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed && rollsDone == rollsRequested) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                roll = rollsRequested;
+                if (pending.size() == 0 && roll == rollsDone) {
+                    return; // closed and nothing left to write
+                }
+                batch = pending;
+                pending = spare;
+                spare = null;
+                target = appendedPosition;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                if (batch.size() > 0) {
+                    ByteBuffer buffer = batch.toByteBuffer();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    if (fsync) {
+                        channel.force(false);
+                    }
+                    commits.incrementAndGet();
+                }
+                if (roll != rollsDone && target > segmentBase) {
+                    FileChannel next = createSegment(file, target);
+                    channel.close();
+                    channel = next;
+                    segmentBase = target;
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            batch.reset();
+
+            lock.lock();
+            try {
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durablePosition = target;
+                    rollsDone = roll;
+                }
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                EventLog.warn("journal.failed", "Journal write to {} failed: {}", file, error.toString());
+                return;
+            }
+        }
+    }
+
+    /* =========================================================
+       Replay
+       ========================================================= */
+
+    /**
+     * Replays the whole journal into the service.
+     *
+     * @param service service to rebuild
+     * @return number of records applied
+     * @throws IOException if the file cannot be read
+     */
+    public long replay(RentalService service) throws IOException {
+        return replay(service, 0L);
+    }
+
+    /**
+     * Replays records starting at the given journal position (e.g. the position
+     * recorded by a snapshot) into the service. Users, vehicles and active
+     * rentals already present in the service are resolved by id, and
+     * registrations already present are skipped. Because a snapshot may
+     * be slightly newer than its position, ends of rentals that are no
+     * longer active and rewards already counted are skipped as well.
+     *
+     * @param service      service to rebuild
+     * @param fromPosition journal position of the first record to apply
+     * @return number of records applied
+     * @throws IOException if the file cannot be read
+     */
+    public long replay(RentalService service, long fromPosition) throws IOException {
+        long end = durablePosition;
+        if (fromPosition >= end) {
+            return 0;
+        }
+
+        Map<String, User> usersById = new HashMap<>();
+        for (User u : service.getUsers()) {
+            usersById.put(u.getId(), u);
+        }
+        Map<String, Vehicle> vehiclesById = new HashMap<>();
+        for (Vehicle v : service.getVehicles()) {
+            vehiclesById.put(v.getId(), v);
+        }
+        Map<Long, Rental> activeById = new HashMap<>();
+        for (Rental r : service.getActiveRentals()) {
+            activeById.put(r.getNumericId(), r);
+        }
+        Set<Long> skippedBookings = new HashSet<>();
+
+        long applied = 0;
+        long skipped = 0;
+
+        List<Segment> segments = listSegments(file);
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            long segmentEnd = i + 1 < segments.size() ? Math.min(segments.get(i + 1).base(), end) : end;
+            if (segmentEnd <= fromPosition || segment.base() >= end) {
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                // Records were checksummed when the journal was opened or written
+                SegmentReader reader = new SegmentReader(in, segment.base(),
+                        Math.max(fromPosition, segment.base()), segmentEnd);
+                ByteBuffer record;
+                while ((record = reader.next(false)) != null) {
+                    if (apply(service, record, usersById, vehiclesById, activeById, skippedBookings)) {
+                        applied++;
+                    } else {
+                        skipped++;
+                    }
+                }
+                if (reader.position() != segmentEnd) {
+                    throw new IOException("Journal segment " + segment.path() + " ends early at "
+                            + reader.position() + ", expected " + segmentEnd);
+                }
+            }
+        }
+
+        if (skipped > 0) {
+            EventLog.warn("journal.skipped", "Journal: skipped {} rental records referring to "
+                    + "unknown users, vehicles or rentals", skipped);
+        }
+        return applied;
+    }
+
+    /**
+     * Applies one record to the service.
+     *
+     * @return false if the record referred to an unknown user, vehicle or rental
+     */
+    private boolean apply(RentalService service, ByteBuffer record, Map<String, User> usersById,
+                          Map<String, Vehicle> vehiclesById, Map<Long, Rental> activeById,
+                          Set<Long> skippedBookings) throws IOException {
+        byte type = record.get();
+        switch (type) {
+            case USER_REGISTERED -> {
+                User user = StateCodec.decodeUser(record);
+                if (usersById.putIfAbsent(user.getId(), user) == null) {
+                    service.restoreUser(user);
+                }
+            }
+            case USER_REMOVED -> {
+                User user = usersById.remove(BinaryEncoder.getString(record));
+                if (user != null) {
+                    service.restoreUserRemoval(user);
+                }
+            }
+            case VEHICLE_REGISTERED -> {
+                Vehicle vehicle = StateCodec.decodeVehicle(record);
+                if (vehiclesById.putIfAbsent(vehicle.getId(), vehicle) == null) {
+                    service.restoreVehicle(vehicle);
+                }
+            }
+            case RENTAL_BOOKED -> {
+                long rentalId = record.getLong();
+                User user = usersById.get(BinaryEncoder.getString(record));
+                Vehicle vehicle = vehiclesById.get(BinaryEncoder.getString(record));
+                long start = record.getLong();
+                if (user == null || vehicle == null || activeById.containsKey(rentalId)) {
+                    skippedBookings.add(rentalId);
+                    return false;
+                }
+                Rental rental = service.restoreRental(
+                        rentalId, user, vehicle, start, LocalMillis.NONE, RentalStatus.ACTIVE);
+                activeById.put(rentalId, rental);
+            }
+            case RENTAL_COMPLETED, RENTAL_CANCELLED -> {
+                long rentalId = record.getLong();
+                long endTime = record.getLong();
+                int completedAfter = type == RENTAL_COMPLETED ? record.getInt() : 0;
+                Rental rental = activeById.remove(rentalId);
+                if (rental == null) {
+                    // Unless its booking was skipped, the snapshot already has it ended
+                    return !skippedBookings.contains(rentalId);
+                }
+                service.restoreRentalEnd(rental, endTime, type == RENTAL_COMPLETED, completedAfter);
+            }
+            default -> throw new IOException("Unknown journal record type " + type
+                    + " in " + file);
+        }
+        return true;
+    }
+
+    /**
+     * Walks records from {@code from} and returns the end of the last
+     * complete record whose checksum matches (positions as in tickets).
+     */
+    private static long scanValidEnd(FileChannel channel, long base, long from, long end) throws IOException {
+        SegmentReader reader = new SegmentReader(channel, base, from, end);
+        while (reader.next(true) != null) {
+            // advance to the first torn or corrupt record
+        }
+        return reader.position();
+    }
+
+    /* =========================================================
+       Segments
+       ========================================================= */
+
+    /**
+     * A segment file and the position of its first record.
+     */
+    private record Segment(Path path, long base) {
+    }
+
+    private static Path segmentPath(Path file, long base) {
+        return file.resolveSibling(file.getFileName() + "." + String.format("%019d", base));
+    }
+
+    /**
+     * @return the segments of {@code file}, oldest first
+     */
+    private static List<Segment> listSegments(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        String prefix = file.getFileName() + ".";
+        List<Segment> segments = new ArrayList<>();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                String suffix = name.substring(Math.min(prefix.length(), name.length()));
+                if (name.startsWith(prefix) && suffix.length() == 19 && suffix.chars().allMatch(Character::isDigit)) {
+                    segments.add(new Segment(path, Long.parseLong(suffix)));
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(Segment::base));
+        return segments;
+    }
+
+    /**
+     * Creates an empty segment whose first record will have position
+     * {@code base}, and returns it open for appending.
+     */
+    private static FileChannel createSegment(Path file, long base) throws IOException {
+        FileChannel out = FileChannel.open(segmentPath(file, base), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(base).flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+        out.force(true);
+        return out;
+    }
+
+    private static void checkHeader(FileChannel in, Segment segment) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        while (header.hasRemaining() && in.read(header, header.position()) > 0) {
+            // read the whole header
+        }
+        header.flip();
+        if (header.remaining() < SEGMENT_HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException(segment.path() + " is not a rental journal segment");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + " in " + segment.path());
+        }
+        if (header.getLong() != segment.base()) {
+            throw new IOException("Journal segment " + segment.path() + " does not match its name");
+        }
+    }
+
+    /**
+     * Starts a new segment; records appended from now on go into it. Waits
+     * until the records appended so far are durable and the segment exists.
+     * Does nothing if the current segment is still empty.
+     */
+    void roll() {
+        lock.lock();
+        try {
+            long target = ++rollsRequested;
+            workAvailable.signal();
+            while (rollsDone < target && failure == null && !closed) {
+                durableAdvanced.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Journal write failed: " + file, failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments whose records all lie before {@code position},
+     * e.g. once a snapshot covering them has been written. The current
+     * segment is never deleted.
+     *
+     * @return number of segments deleted
+     */
+    int deleteSegmentsBefore(long position) throws IOException {
+        List<Segment> segments = listSegments(file);
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size() && segments.get(i + 1).base() <= position; i++) {
+            Files.delete(segments.get(i).path());
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Reads the records of a segment in order through a fixed-size buffer.
+     * A record that straddles the end of the buffer is moved to its start
+     * before the next read.
+     */
+    private static final class SegmentReader {
+
+        private final FileChannel channel;
+        private final long base;
+        private final long end;
+        private long position;
+        private ByteBuffer window = ByteBuffer.allocate(WINDOW_BYTES).limit(0);
+
+        /**
+         * @param base  position of the segment's first record
+         * @param from  position of the first record to read
+         * @param end   position to stop at
+         */
+        SegmentReader(FileChannel channel, long base, long from, long end) {
+            this.channel = channel;
+            this.base = base;
+            this.position = from;
+            this.end = end;
+        }
+
+        /**
+         * @param verify whether to check the record's checksum
+         * @return the next record's payload (valid until the next call), or
+         *         null at the end or at a torn or corrupt record
+         */
+        ByteBuffer next(boolean verify) throws IOException {
+            if (!fill(HEADER_BYTES)) {
+                return null;
+            }
+            int at = window.position();
+            int length = window.getInt(at);
+            int expectedCrc = window.getInt(at + 4);
+            if (length <= 0 || length > end - position - HEADER_BYTES || !fill(HEADER_BYTES + length)) {
+                return null;
+            }
+            at = window.position();
+            ByteBuffer payload = window.slice(at + HEADER_BYTES, length);
+            if (verify) {
+                CRC32 crc = new CRC32();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expectedCrc) {
+                    return null;
+                }
+            }
+            window.position(at + HEADER_BYTES + length);
+            position += HEADER_BYTES + length;
+            return payload;
+        }
+
+        /** Position just after the last record returned. */
+        long position() {
+            return position;
+        }
+
+        /**
+         * Makes at least {@code bytes} unread bytes available in the window.
+         *
+         * @return false if the segment ends first
+         */
+        private boolean fill(int bytes) throws IOException {
+            if (window.remaining() >= bytes) {
+                return true;
+            }
+            if (end - position < bytes) {
+                return false;
+            }
+            if (bytes > window.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(bytes);
+                larger.put(window);
+                window = larger;
+            } else {
+                window.compact();
+            }
+            window.limit((int) Math.min(window.capacity(), end - position));
+            long readAt = position - base + SEGMENT_HEADER_BYTES + window.position();
+            while (window.position() < bytes) {
+                int read = channel.read(window, readAt);
+                if (read < 0) {
+                    break;
+                }
+                readAt += read;
+            }
+            window.flip();
+            return window.remaining() >= bytes;
+        }
+    }
+
+    /* =========================================================
+       Lifecycle & metrics
+       ========================================================= */
+
+    /**
+     * Returns the journal position up to which records are durable.
+     */
+    public long getDurablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * Returns the journal position just after the last appended record, whether
+     * or not it is durable yet.
+     */
+    public long getAppendedPosition() {
+        lock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the number of records appended since the journal was opened. */
+    public long getRecordCount() {
+        return records.get();
+    }
+
+    /** Returns the number of batched writes (one fsync each) since opening. */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Flushes all pending records and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
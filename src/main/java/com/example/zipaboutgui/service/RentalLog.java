@@ -0,0 +1,117 @@
+package com.example.zipaboutgui.service;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of all rentals, in booking order.
+ *
+ * <p>Rentals are stored in fixed-size segments that are never moved or
+ * overwritten, so any prefix of the log is immutable once published. A
+ * {@linkplain #snapshot() snapshot} is therefore just the segment table
+ * and a length, taken in O(1) without blocking writers.</p>
+ *
+ * <p>Appends from several threads (bookings on different lock stripes)
+ * each claim an index atomically, store the rental, and then publish in
+ * index order: an append waits only for concurrent appends with a lower
+ * index to finish their store, a few nanoseconds at most. Readers see
+ * exactly the published prefix.</p>
+ */
+final class RentalLog {
+
+    private static final int SEGMENT_BITS = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private volatile Rental[][] segments = new Rental[0][];
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * Appends a rental and makes it visible to readers.
+     *
+     * @return the rental's position in the log
+     */
+    int append(Rental rental) {
+        long index = claimed.getAndIncrement();
+        segmentFor(index)[(int) (index & SEGMENT_MASK)] = rental;
+
+        // Publish in index order; the volatile write makes the store above visible
+        while (!published.compareAndSet(index, index + 1)) {
+            Thread.onSpinWait();
+        }
+        return (int) index;
+    }
+
+    private Rental[] segmentFor(long index) {
+        int segment = (int) (index >>> SEGMENT_BITS);
+        Rental[][] current = segments;
+        if (segment < current.length) {
+            return current[segment];
+        }
+        synchronized (this) {
+            current = segments;
+            if (segment >= current.length) {
+                Rental[][] grown = Arrays.copyOf(current, Math.max(segment + 1, current.length * 2));
+                for (int i = current.length; i < grown.length; i++) {
+                    grown[i] = new Rental[SEGMENT_SIZE];
+                }
+                segments = grown;
+                current = grown;
+            }
+            return current[segment];
+        }
+    }
+
+    /** Number of published rentals. */
+    int size() {
+        return (int) published.get();
+    }
+
+    /**
+     * @return the rental at a position returned by {@link #append(Rental)}
+     */
+    Rental get(int index) {
+        return segments[index >>> SEGMENT_BITS][index & SEGMENT_MASK];
+    }
+
+    /**
+     * @return the rentals published so far, as an unmodifiable list that
+     *         does not change when more rentals are appended
+     */
+    List<Rental> snapshot() {
+        // Read the size first: every segment it covers is already in the table
+        int size = size();
+        return new View(segments, size);
+    }
+
+    /**
+     * Fixed-length, read-only view over the segment table.
+     */
+    private static final class View extends AbstractList<Rental> implements RandomAccess {
+
+        private final Rental[][] segments;
+        private final int size;
+
+        View(Rental[][] segments, int size) {
+            this.segments = segments;
+            this.size = size;
+        }
+
+        @Override
+        public Rental get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            }
+            return segments[index >>> SEGMENT_BITS][index & SEGMENT_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -5,7 +5,7 @@ package com.example.zipaboutgui.service;
  * <p>
  * Classes that implement this interface can be registered with
  * {@link RentalService} and will be notified whenever a rental
- * is completed.
+ * is completed, and optionally when a reservation hold runs out.
  */
 public interface RentalObserver {
 
@@ -15,4 +15,14 @@ public interface RentalObserver {
      * @param rental the rental that has just been completed
      */
     void onRentalCompleted(Rental rental);
+
+    /**
+     * Called by {@link RentalService} when a reservation hold has expired
+     * and its vehicle has been released. Runs on the service's expiry
+     * thread. Does nothing by default.
+     *
+     * @param reservation the hold that has just expired
+     */
+    default void onReservationExpired(Reservation reservation) {
+    }
 }
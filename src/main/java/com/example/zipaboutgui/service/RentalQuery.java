@@ -0,0 +1,232 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Paged query over the rental history of one user or one vehicle.
+ *
+ * <p>Example: a user's completed rentals of the last 30 days, newest first,
+ * 50 at a time</p>
+ * <pre>
+ *   RentalQuery query = rentalService.queryRentals()
+ *           .forUser(user)
+ *           .completedOnly()
+ *           .startedBetween(LocalDateTime.now().minusDays(30), null)
+ *           .newestFirst();
+ *   Page&lt;Rental&gt; page = query.first(50);
+ *   while (page.hasMore()) {
+ *       page = query.after(page.nextCursor(), 50);
+ *   }
+ * </pre>
+ *
+ * <p>Queries run on the per-user and per-vehicle histories kept by
+ * {@link RentalService}, which are in booking (start time) order. A time
+ * range is found by binary search and a page is copied out of it, so the
+ * cost depends on the page size, not on the length of the history.
+ * Pages reaching into a history's archive decode it a segment at a time.</p>
+ *
+ * <p><b>Offset or cursor.</b> {@link #page(int, int)} addresses pages by
+ * number, like a pager control. {@link #first(int)} / {@link #after(String, int)}
+ * continue from the last rental returned, so new bookings arriving
+ * between calls never shift rentals onto the next page twice. A cursor is
+ * only valid for the query (user or vehicle, order) that produced it.</p>
+ */
+public final class RentalQuery {
+
+    private final RentalService service;
+    private RentalHistory history;
+    private boolean completedOnly;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private boolean newestFirst;
+
+    RentalQuery(RentalService service) {
+        this.service = service;
+    }
+
+    /**
+     * Queries the rentals of a user.
+     */
+    public RentalQuery forUser(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User must not be null");
+        }
+        this.history = service.historyOf(user);
+        return this;
+    }
+
+    /**
+     * Queries the rentals of a vehicle.
+     */
+    public RentalQuery forVehicle(Vehicle vehicle) {
+        if (vehicle == null) {
+            throw new IllegalArgumentException("Vehicle must not be null");
+        }
+        this.history = service.historyOf(vehicle);
+        return this;
+    }
+
+    /**
+     * Leaves out the active rental (completed and cancelled ones remain).
+     */
+    public RentalQuery completedOnly() {
+        this.completedOnly = true;
+        return this;
+    }
+
+    /**
+     * Keeps rentals that started in {@code [from, to)}; either bound may be
+     * null for an open range.
+     */
+    public RentalQuery startedBetween(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end is before its start");
+        }
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Sorts by start time, newest first. The default is oldest first.
+     */
+    public RentalQuery newestFirst() {
+        this.newestFirst = true;
+        return this;
+    }
+
+    public RentalQuery oldestFirst() {
+        this.newestFirst = false;
+        return this;
+    }
+
+    /**
+     * @return number of matching rentals (no list is built)
+     */
+    public int count() {
+        Range range = range();
+        return range.end - range.start;
+    }
+
+    /**
+     * Returns the page with the given number.
+     *
+     * @param pageNumber zero-based page number
+     * @param pageSize   maximum number of rentals per page
+     */
+    public Page<Rental> page(int pageNumber, int pageSize) {
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page number must not be negative");
+        }
+        checkPageSize(pageSize);
+        Range range = range();
+        long offset = (long) pageNumber * pageSize;
+        int total = range.end - range.start;
+        if (offset >= total) {
+            return new Page<>(List.of(), total, null);
+        }
+        int position = newestFirst ? range.end - 1 - (int) offset : range.start + (int) offset;
+        return collect(range, position, pageSize);
+    }
+
+    /**
+     * Returns the first page, for cursor-based paging.
+     */
+    public Page<Rental> first(int pageSize) {
+        return page(0, pageSize);
+    }
+
+    /**
+     * Returns the page following the one that returned {@code cursor}.
+     *
+     * @param cursor     {@link Page#nextCursor()} of the previous page, or
+     *                   null for the first page
+     * @param pageSize   maximum number of rentals per page
+     */
+    public Page<Rental> after(String cursor, int pageSize) {
+        if (cursor == null) {
+            return first(pageSize);
+        }
+        checkPageSize(pageSize);
+        int position = decodeCursor(cursor);
+        Range range = range();
+        // A cursor from an older, larger range must not point past this one
+        position = newestFirst ? Math.min(position, range.end - 1) : Math.max(position, range.start);
+        return collect(range, position, pageSize);
+    }
+
+    /* -------------------------------
+       Internals
+     -------------------------------- */
+
+    /**
+     * Matching rentals as {@code [start, end)} of the history.
+     */
+    private record Range(int start, int end) {
+    }
+
+    private Range range() {
+        if (history == null) {
+            throw new IllegalStateException("Call forUser or forVehicle first");
+        }
+        int size = history.size();
+
+        int start = from == null ? 0 : history.firstStartedAtOrAfter(size, from);
+        int end = to == null ? size : history.firstStartedAtOrAfter(size, to);
+
+        // Only the newest rental can be active
+        if (completedOnly && end > start && history.get(end - 1).isActive()) {
+            end--;
+        }
+        return new Range(start, Math.max(start, end));
+    }
+
+    private Page<Rental> collect(Range range, int position, int pageSize) {
+        int total = range.end - range.start;
+        if (position < range.start || position >= range.end) {
+            return new Page<>(List.of(), total, null);
+        }
+        // Copy the page oldest first (one pass over the archive), then order it
+        int lo;
+        int hi;
+        if (newestFirst) {
+            hi = position + 1;
+            lo = Math.max(range.start, hi - pageSize);
+        } else {
+            lo = position;
+            hi = (int) Math.min(range.end, (long) lo + pageSize);
+        }
+        List<Rental> page = new ArrayList<>(hi - lo);
+        history.copyRange(lo, hi, page);
+        if (newestFirst) {
+            Collections.reverse(page);
+        }
+        int next = newestFirst ? lo - 1 : hi;
+        boolean more = next >= range.start && next < range.end;
+        return new Page<>(List.copyOf(page), total, more ? encodeCursor(next) : null);
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+    }
+
+    private static String encodeCursor(int position) {
+        return Integer.toString(position, 36);
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            return Integer.parseInt(cursor, 36);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
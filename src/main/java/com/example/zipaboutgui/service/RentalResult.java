@@ -0,0 +1,44 @@
+package com.example.zipaboutgui.service;
+
+/**
+ * Outcome of a booking or release requested through
+ * {@link RentalService#bookVehicle(String, com.example.zipaboutgui.domain.user.User,
+ * com.example.zipaboutgui.domain.vehicle.Vehicle)} or its release counterpart.
+ *
+ * @param rental   the rental booked or released, or null if refused
+ * @param reason   why the operation was refused, or null if it succeeded
+ * @param replayed true if this is the stored outcome of an earlier request
+ *                 with the same idempotency key; nothing was re-run
+ */
+public record RentalResult(Rental rental, RejectionReason reason, boolean replayed) {
+
+    private static final RentalResult[] REJECTED;
+
+    static {
+        RejectionReason[] reasons = RejectionReason.values();
+        REJECTED = new RentalResult[reasons.length];
+        for (RejectionReason reason : reasons) {
+            REJECTED[reason.ordinal()] = new RentalResult(null, reason, false);
+        }
+    }
+
+    static RentalResult succeeded(Rental rental) {
+        return new RentalResult(rental, null, false);
+    }
+
+    /** Shared instance per reason, so refusals do not allocate. */
+    static RentalResult rejected(RejectionReason reason) {
+        return REJECTED[reason.ordinal()];
+    }
+
+    public boolean isSuccess() {
+        return reason == null;
+    }
+
+    /**
+     * @return this outcome, marked as returned from the dedup cache
+     */
+    RentalResult asReplay() {
+        return replayed ? this : new RentalResult(rental, reason, true);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.zipaboutgui.domain.enums.*;
 import com.example.zipaboutgui.domain.equipment.Equipment;
 import com.example.zipaboutgui.domain.parts.Battery;
 import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.FleetBatteryStore;
 import com.example.zipaboutgui.domain.parts.Motor;
 import com.example.zipaboutgui.domain.user.User;
 import com.example.zipaboutgui.domain.vehicle.*;
@@ -11,9 +12,23 @@ import com.example.zipaboutgui.domain.vehicle.electric.EBike;
 import com.example.zipaboutgui.domain.vehicle.electric.EScooter;
 import com.example.zipaboutgui.domain.vehicle.non_electric.Bike;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Central booking and management service for the ZipAbout system.
@@ -27,275 +42,1537 @@ import java.util.List;
  *
  * <p>All business rules are enforced here.
  * Controllers NEVER modify domain state directly.</p>
+ *
+ * <p>The service is safe to use from many threads at once. Booking and
+ * release lock only the stripes guarding the user and vehicle involved
+ * (see {@link LockStripes}), so a vehicle can never be claimed twice and
+ * a user can never hold two active rentals, while unrelated bookings run
+ * in parallel.</p>
  */
 public class RentalService {
 
     /**
-     * Formatter used for CLI/debug output.
+     * Formatter used for CLI/debug output.
+     */
+    private static final DateTimeFormatter RENTAL_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /** File names used inside a persistence data directory. */
+    public static final String JOURNAL_FILE = "rentals.journal";
+    public static final String SNAPSHOT_FILE = "rentals.snapshot";
+
+    /** Shared, never written: the history of a user or vehicle without rentals. */
+    private static final RentalHistory NO_HISTORY = new RentalHistory(null);
+
+    /* -------------------------------
+       Singleton instance
+     -------------------------------- */
+    private static volatile RentalService rentalService;
+
+    /* -------------------------------
+       Domain collections
+       (copy-on-write registries and an append-only rental
+       log, so readers can take O(1) snapshots, see #snapshot())
+     -------------------------------- */
+    private final SnapshotList<User> users;
+    private final SnapshotList<Vehicle> vehicles;
+    private final RentalLog rentals;
+    private final LongAdder stateVersion;
+    private volatile RentalIdGenerator rentalIdGenerator;
+
+    /* -------------------------------
+       Rental clock
+       (start and end times never go backwards, see #nextTimestamp())
+     -------------------------------- */
+    private final AtomicLong lastTimestamp = new AtomicLong(Long.MIN_VALUE);
+
+    /* -------------------------------
+       Active rental indexes
+       (kept in sync with booking/release so lookups
+       do not depend on rental history size)
+     -------------------------------- */
+    private final Map<User, Rental> activeRentalsByUser;
+    private final SlotTable<Rental> activeRentalsByVehicle;  // indexed by Vehicle#getFleetIndex()
+
+    /* -------------------------------
+       Active rentals by start time (for the overdue-rental sweeper)
+     -------------------------------- */
+    private final ActiveRentalTimeline activeByStart;
+    private ScheduledExecutorService timeoutSweeper;    // guarded by this
+    private final Object sweepLock = new Object();
+    private long flaggedBefore = Long.MIN_VALUE;        // guarded by sweepLock: overdue rentals reported so far
+
+    /* -------------------------------
+       Reservation holds
+       (expired by a timing wheel, one thread for all holds)
+     -------------------------------- */
+    private static final Duration DEFAULT_RESERVATION_HOLD = Duration.ofMinutes(10);
+    private final Map<User, Reservation> reservationsByUser;
+    private final SlotTable<Reservation> reservationsByVehicle;  // indexed by Vehicle#getFleetIndex()
+    private final HashedTimingWheel<Reservation> reservationExpiry;
+    private volatile Duration reservationHold = DEFAULT_RESERVATION_HOLD;
+
+    /* -------------------------------
+       Recent idempotency keys and their outcomes
+       (so retried bookings and releases are not run twice)
+     -------------------------------- */
+    private final IdempotencyCache idempotency;
+
+    /* -------------------------------
+       Per-user / per-vehicle history (for paged queries)
+     -------------------------------- */
+    private final Map<User, RentalHistory> historyByUser;
+    private final SlotTable<RentalHistory> historyByVehicle;  // indexed by Vehicle#getFleetIndex()
+
+    /* -------------------------------
+       Finished rentals by start / end time (for time-range queries)
+     -------------------------------- */
+    private final CompletedRentalIndex finishedRentals;
+
+    /* -------------------------------
+       Fleet search index
+     -------------------------------- */
+    private final FleetIndex fleetIndex;
+    private final FleetBatteryStore batteryStore;
+    private volatile double minimumBookingCharge;   // 0 = no charge check
+
+    /* -------------------------------
+       Observer pattern
+     -------------------------------- */
+    private final List<ObserverRegistration> observers;
+
+    /** An observer plus the histogram timing its notification. */
+    private record ObserverRegistration(RentalObserver observer, LatencyHistogram latency) {
+    }
+
+    /** Change feed for views (see {@link RentalChangeListener}). */
+    private final List<RentalChangeListener> changeListeners;
+
+    /* -------------------------------
+       Concurrency
+     -------------------------------- */
+    private final LockStripes stripes;
+
+    /* -------------------------------
+       Metrics (resolved once, recorded lock-free)
+     -------------------------------- */
+    private final ServiceMetrics metrics;
+    private final LatencyHistogram bookLatency;
+    private final LatencyHistogram releaseLatency;
+    private final LatencyHistogram registerUserLatency;
+    private final LatencyHistogram registerVehicleLatency;
+    private final LatencyHistogram removeUserLatency;
+    private final LatencyHistogram[] rejectionLatency;  // indexed by RejectionReason ordinal
+    private final LongAdder bookingsSucceeded;
+    private final LongAdder bookingsRejected;
+    private final LongAdder releasesSucceeded;
+    private final LongAdder releasesRejected;
+    private final LongAdder cancelsSucceeded;
+    private final LongAdder timeoutsCompleted;
+    private final LongAdder timeoutsFlagged;
+    private final LatencyHistogram sweepLatency;
+    private final LongAdder reservationsHeld;
+    private final LongAdder reservationsRejected;
+    private final LongAdder reservationsConverted;
+    private final LongAdder reservationsCancelled;
+    private final LongAdder reservationsExpired;
+    private final LongAdder idempotentReplays;
+
+    /* -------------------------------
+       Durability (optional)
+     -------------------------------- */
+    private volatile RentalJournal journal;
+    private volatile Path snapshotFile;
+    private ScheduledExecutorService snapshotScheduler;
+
+    /**
+     * Private constructor to enforce Singleton usage.
+     */
+    private RentalService() {
+        this.users = new SnapshotList<>();
+        this.vehicles = new SnapshotList<>();
+        this.rentals = new RentalLog();
+        this.stateVersion = new LongAdder();
+        this.rentalIdGenerator = new SequentialRentalIdGenerator();
+        this.activeRentalsByUser = new ConcurrentHashMap<>();
+        this.activeRentalsByVehicle = new SlotTable<>();
+        this.activeByStart = new ActiveRentalTimeline();
+        this.reservationsByUser = new ConcurrentHashMap<>();
+        this.reservationsByVehicle = new SlotTable<>();
+        this.reservationExpiry = new HashedTimingWheel<>("reservation-expiry", 1, TimeUnit.SECONDS, 512,
+                this::expireReservation);
+        this.idempotency = new IdempotencyCache(Duration.ofMinutes(10), 100_000);
+        this.historyByUser = new ConcurrentHashMap<>();
+        this.historyByVehicle = new SlotTable<>();
+        this.finishedRentals = new CompletedRentalIndex();
+        this.batteryStore = new FleetBatteryStore();
+        this.fleetIndex = new FleetIndex(batteryStore);
+        this.observers = new CopyOnWriteArrayList<>();
+        this.changeListeners = new CopyOnWriteArrayList<>();
+        this.stripes = new LockStripes();
+
+        this.metrics = new ServiceMetrics();
+        this.bookLatency = metrics.histogram("book");
+        this.releaseLatency = metrics.histogram("release");
+        this.registerUserLatency = metrics.histogram("registerUser");
+        this.registerVehicleLatency = metrics.histogram("registerVehicle");
+        this.removeUserLatency = metrics.histogram("removeUser");
+        RejectionReason[] reasons = RejectionReason.values();
+        this.rejectionLatency = new LatencyHistogram[reasons.length];
+        for (RejectionReason reason : reasons) {
+            rejectionLatency[reason.ordinal()] = metrics.histogram(reason.metricName());
+        }
+        this.bookingsSucceeded = metrics.counter("book.succeeded");
+        this.bookingsRejected = metrics.counter("book.rejected");
+        this.releasesSucceeded = metrics.counter("release.succeeded");
+        this.releasesRejected = metrics.counter("release.rejected");
+        this.cancelsSucceeded = metrics.counter("cancel.succeeded");
+        this.timeoutsCompleted = metrics.counter("timeout.completed");
+        this.timeoutsFlagged = metrics.counter("timeout.flagged");
+        this.sweepLatency = metrics.histogram("timeout.sweep");
+        this.reservationsHeld = metrics.counter("reserve.succeeded");
+        this.reservationsRejected = metrics.counter("reserve.rejected");
+        this.reservationsConverted = metrics.counter("reserve.converted");
+        this.reservationsCancelled = metrics.counter("reserve.cancelled");
+        this.reservationsExpired = metrics.counter("reserve.expired");
+        this.idempotentReplays = metrics.counter("idempotency.replayed");
+    }
+
+    /**
+     * Creates an independent service that is NOT the shared singleton.
+     * Intended for tools such as benchmarks that need several isolated
+     * instances in one JVM; the application itself uses {@link #getInstance()}.
+     *
+     * @return a new, empty service
+     */
+    public static RentalService newInstance() {
+        return new RentalService();
+    }
+
+    /**
+     * Returns the single shared instance of RentalService.
+     *
+     * @return singleton instance
+     */
+    public static RentalService getInstance() {
+        RentalService instance = rentalService;
+        if (instance == null) {
+            synchronized (RentalService.class) {
+                instance = rentalService;
+                if (instance == null) {
+                    instance = new RentalService();
+                    rentalService = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /* =========================================================
+       Observer registration
+       ========================================================= */
+
+    /**
+     * Registers an observer interested in rental completion events.
+     *
+     * @param observer observer to register
+     */
+    public void addObserver(RentalObserver observer) {
+        observers.add(new ObserverRegistration(observer, observerHistogram(observer.getClass().getSimpleName())));
+    }
+
+    /**
+     * Registers an observer that is notified on a background thread.
+     *
+     * <p>Events are placed in a bounded per-observer queue, so the observer's
+     * own latency is no longer part of {@link #releaseVehicle}. The returned
+     * wrapper exposes lag metrics and should be closed on shutdown to flush
+     * queued events.</p>
+     *
+     * @param observer observer to register
+     * @param capacity maximum number of queued events for this observer
+     * @param policy   what to do when the queue is full
+     * @return the asynchronous wrapper that was registered
+     */
+    public AsyncRentalObserver addAsyncObserver(RentalObserver observer,
+                                                int capacity,
+                                                BackpressurePolicy policy) {
+        String name = observer.getClass().getSimpleName();
+        AsyncRentalObserver async = new AsyncRentalObserver(observer, capacity, policy,
+                metrics.histogram("observer." + name + ".delivery"));
+        observers.add(new ObserverRegistration(async, observerHistogram(name)));
+        return async;
+    }
+
+    /**
+     * Flushes and stops all asynchronously dispatched observers.
+     * Observers registered afterwards, or synchronous ones, are unaffected.
+     */
+    public void closeAsyncObservers() {
+        for (ObserverRegistration registration : observers) {
+            if (registration.observer() instanceof AsyncRentalObserver async) {
+                async.close();
+            }
+        }
+    }
+
+    /**
+     * Notifies all observers when a rental is completed.
+     *
+     * @param rental completed rental
+     */
+    private void notifyRentalCompleted(Rental rental) {
+        for (ObserverRegistration registration : observers) {
+            long start = System.nanoTime();
+            registration.observer().onRentalCompleted(rental);
+            registration.latency().recordSince(start);
+        }
+    }
+
+    private LatencyHistogram observerHistogram(String observerName) {
+        return metrics.histogram("observer." + observerName);
+    }
+
+    /**
+     * Subscribes to the change feed (see {@link RentalChangeListener}).
+     *
+     * @param listener listener to add
+     */
+    public void addChangeListener(RentalChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(RentalChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Publishes a change to the feed; nothing is allocated while no one listens.
+     */
+    private void fireChange(RentalChange.Type type, User user, Vehicle vehicle, Rental rental) {
+        if (changeListeners.isEmpty()) {
+            return;
+        }
+        RentalChange change = new RentalChange(type, user, vehicle, rental);
+        for (RentalChangeListener listener : changeListeners) {
+            listener.onChange(change);
+        }
+    }
+
+    /* =========================================================
+       Configuration
+       ========================================================= */
+
+    /**
+     * Replaces the strategy used to assign rental ids.
+     *
+     * <p>Should be called before bookings start. The default is a
+     * {@link SequentialRentalIdGenerator}; use a
+     * {@link ShardedRentalIdGenerator} for heavily parallel booking.</p>
+     *
+     * @param generator id generator to use for new rentals
+     */
+    public void setRentalIdGenerator(RentalIdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("Rental id generator must not be null");
+        }
+        this.rentalIdGenerator = generator;
+    }
+
+    /**
+     * Makes the service durable by journaling every state change to a file.
+     *
+     * <p>Existing records in the file are replayed first, rebuilding users,
+     * vehicles, rentals and loyalty counters as they were before the last
+     * shutdown. From then on each registration, booking and release returns
+     * only after its record is on disk (with group commit, see
+     * {@link RentalJournal}).</p>
+     *
+     * @param file journal file (created if missing)
+     * @return the opened journal
+     * @throws IOException if the journal cannot be opened or read
+     */
+    public RentalJournal enableJournal(Path file) throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("Journal already enabled: " + journal.getFile());
+        }
+        RentalJournal opened = RentalJournal.open(file);
+        long applied = opened.replay(this);
+        EventLog.info("journal.replayed", "Journal replayed: {} events from {}", applied, file);
+        journal = opened;
+        return opened;
+    }
+
+    /**
+     * Makes the service durable using a data directory holding a snapshot
+     * ({@value #SNAPSHOT_FILE}) and a journal ({@value #JOURNAL_FILE}).
+     *
+     * <p>If a snapshot exists it is memory-mapped and loaded first, and only
+     * the journal records written after it are replayed, so startup time
+     * depends on the size of the state rather than on the length of its
+     * history. A corrupt snapshot is ignored and the whole journal is
+     * replayed instead.</p>
+     *
+     * @param dataDir directory for the snapshot and journal (created if missing)
+     * @param fsync   whether journal commits are forced to the storage device
+     * @throws IOException if the journal cannot be opened or read
+     */
+    public void enablePersistence(Path dataDir, boolean fsync) throws IOException {
+        if (journal != null) {
+            throw new IllegalStateException("Journal already enabled: " + journal.getFile());
+        }
+        Path snapshot = dataDir.resolve(SNAPSHOT_FILE);
+        Path journalFile = dataDir.resolve(JOURNAL_FILE);
+
+        long replayFrom = 0;
+        if (Files.exists(snapshot)) {
+            try {
+                RentalSnapshot loaded = RentalSnapshot.read(snapshot);
+                replayFrom = loaded.applyTo(this);
+                EventLog.info("snapshot.loaded", "Snapshot loaded: {} users, {} vehicles, {} rentals",
+                        loaded.getUserCount(), loaded.getVehicleCount(), loaded.getRentalCount());
+            } catch (IOException e) {
+                // Nothing was applied yet, so fall back to a full journal replay
+                EventLog.warn("snapshot.unreadable", "Ignoring unreadable snapshot {}: {}",
+                        snapshot, e.toString());
+            }
+        }
+
+        RentalJournal opened = RentalJournal.open(journalFile, fsync, replayFrom);
+        long applied = opened.replay(this, replayFrom);
+        EventLog.info("journal.replayed", "Journal replayed: {} events from {}", applied, journalFile);
+        journal = opened;
+        snapshotFile = snapshot;
+    }
+
+    /**
+     * Same as {@link #enablePersistence(Path, boolean)} with fsync enabled.
+     */
+    public void enablePersistence(Path dataDir) throws IOException {
+        enablePersistence(dataDir, true);
+    }
+
+    /**
+     * Writes a snapshot to the data directory given to
+     * {@link #enablePersistence(Path, boolean)}, then deletes the journal
+     * segments it covers.
+     *
+     * <p>A new journal segment is started first, so the snapshot covers
+     * every older segment and the journal stays about as long as the
+     * records written between two snapshots.</p>
+     *
+     * @return size of the snapshot file in bytes
+     * @throws IOException if the snapshot cannot be written
+     */
+    public long writeSnapshot() throws IOException {
+        Path file = snapshotFile;
+        if (file == null) {
+            throw new IllegalStateException("Persistence is not enabled");
+        }
+        RentalJournal current = journal;
+        if (current != null) {
+            current.roll();
+        }
+        RentalSnapshot snapshot = captureSnapshot(current);
+        long size = snapshot.writeTo(file);
+        if (current != null) {
+            current.deleteSegmentsBefore(snapshot.getJournalPosition());
+        }
+        return size;
+    }
+
+    /**
+     * Writes a consistent snapshot of all users, vehicles and rentals.
+     *
+     * <p>Bookings and releases are paused only while the journal position
+     * and the O(1) views of users, vehicles and rentals are taken; copying
+     * counters and rental status, encoding and writing happen afterwards.
+     * The snapshot records the journal position it covers and is written
+     * only once that position is durable. Replaying the journal tail from
+     * there never misses an event, and skips the ones the snapshot already
+     * picked up while it was being copied.</p>
+     *
+     * @param file destination (replaced atomically)
+     * @return size of the snapshot file in bytes
+     * @throws IOException if the snapshot cannot be written
+     */
+    public long writeSnapshot(Path file) throws IOException {
+        return captureSnapshot(journal).writeTo(file);
+    }
+
+    /**
+     * Captures the state and waits until the journal position it covers is
+     * durable.
+     */
+    private RentalSnapshot captureSnapshot(RentalJournal current) {
+        long position;
+        List<User> userView;
+        List<Vehicle> vehicleView;
+        List<Rental> rentalView;
+
+        // Only the O(1) views are taken under the locks; copying the
+        // counters and rental status happens after (see RentalSnapshot.capture)
+        stripes.lockAll();
+        try {
+            position = current != null ? current.getAppendedPosition() : 0L;
+            userView = users.snapshot();
+            vehicleView = vehicles.snapshot();
+            rentalView = rentals.snapshot();
+        } finally {
+            stripes.unlockAll();
+        }
+
+        RentalSnapshot snapshot = RentalSnapshot.capture(userView, vehicleView, rentalView, position, stripes);
+        if (current != null) {
+            current.awaitDurable(position);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes a snapshot periodically on a background thread, keeping the
+     * journal tail (and therefore restart time) short.
+     *
+     * @param interval time between snapshots
+     */
+    public synchronized void scheduleSnapshots(Duration interval) {
+        if (snapshotFile == null) {
+            throw new IllegalStateException("Persistence is not enabled");
+        }
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rental-snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                writeSnapshot();
+            } catch (IOException | RuntimeException e) {
+                EventLog.warn("snapshot.failed", "Scheduled snapshot failed: {}", e.toString());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic snapshots (if scheduled), then flushes and closes the
+     * journal. Callers wanting a final snapshot write it before this.
+     */
+    public void closePersistence() {
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdown();
+                try {
+                    snapshotScheduler.awaitTermination(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                snapshotScheduler = null;
+            }
+        }
+        snapshotFile = null;
+        closeJournal();
+    }
+
+    /**
+     * Flushes and closes the journal, if one is enabled.
+     */
+    public void closeJournal() {
+        RentalJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        journal = null;
+        try {
+            current.close();
+        } catch (IOException e) {
+            EventLog.warn("journal.close.failed", "Closing journal {} failed: {}",
+                    current.getFile(), e.toString());
+        }
+    }
+
+    /**
+     * Waits until a journal record is durable. No-op without a journal.
+     *
+     * @param ticket value returned when the record was appended (0 = none)
+     */
+    private void awaitDurable(long ticket) {
+        RentalJournal current = journal;
+        if (current != null && ticket > 0) {
+            current.awaitDurable(ticket);
+        }
+    }
+
+    /* =========================================================
+       User & vehicle registration
+       ========================================================= */
+
+    /**
+     * Registers a new user.
+     *
+     * @param user user to register
+     */
+    public void registerUser(User user) {
+        long start = System.nanoTime();
+        long ticket = 0;
+
+        // Journaled under the user's stripe: a booking by this user cannot
+        // be appended before the registration it depends on
+        int locked = stripes.lock(user);
+        try {
+            users.add(user);
+            stateVersion.increment();
+            RentalJournal current = journal;
+            if (current != null) {
+                ticket = current.recordUserRegistered(user);
+            }
+        } finally {
+            stripes.unlock(locked);
+        }
+        awaitDurable(ticket);
+        registerUserLatency.recordSince(start);
+        fireChange(RentalChange.Type.USER_REGISTERED, user, null, null);
+        EventLog.info("user.registered", "User registered: {}", user.getName());
+    }
+
+    /**
+     * Registers a new vehicle.
+     *
+     * @param vehicle vehicle to register
+     */
+    public void registerVehicle(Vehicle vehicle) {
+        long start = System.nanoTime();
+        addVehicle(vehicle);
+        registerVehicleLatency.recordSince(start);
+        EventLog.info("vehicle.registered", "{} registered: {}",
+                vehicle.getVehicleType(), vehicle.getModel());
+    }
+
+    /**
+     * Adds a vehicle to the fleet and journals it, under the vehicle's
+     * stripe so no booking of it is journaled ahead of the registration.
+     */
+    private void addVehicle(Vehicle vehicle) {
+        long ticket = 0;
+        int locked = stripes.lock(vehicle);
+        try {
+            vehicles.add(vehicle);
+            fleetIndex.add(vehicle);
+            stateVersion.increment();
+            RentalJournal current = journal;
+            if (current != null) {
+                ticket = current.recordVehicleRegistered(vehicle);
+            }
+        } finally {
+            stripes.unlock(locked);
+        }
+        awaitDurable(ticket);
+        fireChange(RentalChange.Type.VEHICLE_REGISTERED, null, vehicle, null);
+    }
+
+    /* =========================================================
+       Booking logic
+       ========================================================= */
+
+    /**
+     * Books a vehicle for a user.
+     *
+     * Rules:
+     * - Vehicle must be registered with this service
+     * - User can have only ONE active rental
+     * - Vehicle must be available, or held by this user (the hold is converted)
+     * - A user holding a vehicle can only book that vehicle
+     * - Battery must hold at least the minimum booking charge (if configured)
+     *
+     * @param user user booking
+     * @param vehicle vehicle to book
+     * @return created Rental or null if booking fails
+     * @see #bookVehicle(String, User, Vehicle)
+     */
+    public Rental bookVehicle(User user, Vehicle vehicle) {
+        return book(user, vehicle).rental();
+    }
+
+    /**
+     * Books a vehicle, at most once per idempotency key.
+     *
+     * <p>A client that timed out can retry with the same key: while the
+     * key is remembered (see {@link #setIdempotencyWindow(Duration, int)})
+     * the retry returns the first outcome, marked as replayed, without
+     * checking the rules again. A retry that arrives while the first
+     * attempt is still running waits for it.</p>
+     *
+     * @param idempotencyKey key chosen by the client for this request, or
+     *                       null to book without deduplication
+     * @param user           user booking
+     * @param vehicle        vehicle to book
+     * @return the booked rental, or why the booking was refused
+     * @throws IllegalArgumentException if the key was already used for
+     *                                  another request
+     */
+    public RentalResult bookVehicle(String idempotencyKey, User user, Vehicle vehicle) {
+        if (idempotencyKey == null) {
+            return book(user, vehicle);
+        }
+        return countReplay(idempotency.execute(idempotencyKey, "book", user, vehicle,
+                () -> book(user, vehicle)));
+    }
+
+    private RentalResult book(User user, Vehicle vehicle) {
+
+        long start = System.nanoTime();
+        Rental rental;
+        Reservation hold;
+        long ticket = 0;
+
+        if (fleetIndex.slotOf(vehicle) < 0) {
+            EventLog.info("book.rejected", "Vehicle is not registered.");
+            return reject(RejectionReason.VEHICLE_NOT_REGISTERED, start);
+        }
+
+        // Check-then-act must be atomic for both the user and the vehicle
+        long locked = stripes.lockBoth(user, vehicle);
+        try {
+            if (userHasActiveRental(user)) {
+                EventLog.info("book.rejected", "User already has an active rental.");
+                return reject(RejectionReason.USER_HAS_ACTIVE_RENTAL, start);
+            }
+
+            hold = reservationsByUser.get(user);
+            if (hold != null && hold.getVehicle() != vehicle) {
+                EventLog.info("book.rejected", "User is holding another vehicle: {}",
+                        hold.getVehicle().getModel());
+                return reject(RejectionReason.USER_HAS_RESERVATION, start);
+            }
+
+            if (hold == null) {
+                RejectionReason refused = checkBookable(vehicle, "book.rejected");
+                if (refused != null) {
+                    return reject(refused, start);
+                }
+            } else {
+                // The vehicle was checked and set aside for this user when it was held
+                endReservation(hold, Reservation.State.CONVERTED);
+            }
+
+            rental = Rental.startAt(rentalIdGenerator.nextId(), user, vehicle, nextTimestamp());
+
+            recordHistory(rental, rentals.append(rental));
+            trackActiveRental(rental);
+            stateVersion.increment();
+
+            // Appended under the locks so events for a vehicle stay in order
+            RentalJournal current = journal;
+            if (current != null) {
+                ticket = current.recordRentalBooked(rental);
+            }
+        } finally {
+            stripes.unlockBoth(locked);
+        }
+
+        // Wait for the group commit outside the locks
+        awaitDurable(ticket);
+        bookLatency.recordSince(start);
+        bookingsSucceeded.increment();
+        if (hold != null) {
+            reservationsConverted.increment();
+        }
+        fireChange(RentalChange.Type.RENTAL_STARTED, user, vehicle, rental);
+
+        EventLog.info("rental.booked", "{} booked {}", user.getName(), vehicle.getModel());
+
+        return RentalResult.succeeded(rental);
+    }
+
+    /**
+     * Releases a vehicle.
+     *
+     * Rules:
+     * - Only the booking user can release
+     * - Loyalty & VIP logic applies
+     * - Observers are notified
+     *
+     * @param user user releasing
+     * @param vehicle vehicle being released
+     * @see #releaseVehicle(String, User, Vehicle)
+     */
+    public void releaseVehicle(User user, Vehicle vehicle) {
+        release(user, vehicle);
+    }
+
+    /**
+     * Releases a vehicle, at most once per idempotency key. Retries behave
+     * as for {@link #bookVehicle(String, User, Vehicle)}.
+     *
+     * @param idempotencyKey key chosen by the client for this request, or
+     *                       null to release without deduplication
+     * @param user           user releasing
+     * @param vehicle        vehicle being released
+     * @return the completed rental, or why the release was refused
+     * @throws IllegalArgumentException if the key was already used for
+     *                                  another request
+     */
+    public RentalResult releaseVehicle(String idempotencyKey, User user, Vehicle vehicle) {
+        if (idempotencyKey == null) {
+            return release(user, vehicle);
+        }
+        return countReplay(idempotency.execute(idempotencyKey, "release", user, vehicle,
+                () -> release(user, vehicle)));
+    }
+
+    private RentalResult release(User user, Vehicle vehicle) {
+
+        long start = System.nanoTime();
+        Rental r;
+        long ticket = 0;
+
+        long locked = stripes.lockBoth(user, vehicle);
+        try {
+            r = getActiveRentalForVehicle(vehicle);
+
+            if (r == null) {
+                EventLog.info("release.rejected", "No active rental found for this vehicle.");
+                return reject(RejectionReason.NO_ACTIVE_RENTAL, start);
+            }
+
+            // Prevent releasing someone else's rental
+            if (!r.getUser().equals(user)) {
+                EventLog.info("release.rejected", "Cannot release vehicle booked by another user.");
+                return reject(RejectionReason.NOT_RENTAL_OWNER, start);
+            }
+
+            r.complete(nextTimestamp());
+            untrackActiveRental(r);
+            stateVersion.increment();
+
+            // Loyalty system (user stripe is held, so updates are serialized per user)
+            applyCompletionRewards(user);
+
+            RentalJournal current = journal;
+            if (current != null) {
+                ticket = current.recordRentalCompleted(r);
+            }
+        } finally {
+            stripes.unlockBoth(locked);
+        }
+
+        awaitDurable(ticket);
+
+        // Observer notification happens outside the locks so a slow
+        // observer never blocks other bookings on the same stripes
+        notifyRentalCompleted(r);
+        releaseLatency.recordSince(start);
+        releasesSucceeded.increment();
+        fireChange(RentalChange.Type.RENTAL_ENDED, user, vehicle, r);
+
+        EventLog.info("rental.completed", "Vehicle released: {}", vehicle.getModel());
+
+        return RentalResult.succeeded(r);
+    }
+
+    /**
+     * Sets how long idempotency keys are remembered and how many at most
+     * (default 10 minutes and 100,000 keys). When full, the oldest keys
+     * are forgotten first; a retry after that runs the operation again.
+     */
+    public void setIdempotencyWindow(Duration keyLifetime, int maxKeys) {
+        idempotency.configure(keyLifetime, maxKeys);
+    }
+
+    private RentalResult countReplay(RentalResult result) {
+        if (result.replayed()) {
+            idempotentReplays.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Cancels an active rental, e.g. when the rider could not unlock the
+     * vehicle. The vehicle becomes available again; no loyalty points are
+     * awarded and completion observers are not notified.
+     *
+     * @param rental rental to cancel
+     * @return false if the rental is no longer active
+     */
+    public boolean cancelRental(Rental rental) {
+        if (rental == null || !endRental(rental, false)) {
+            return false;
+        }
+        cancelsSucceeded.increment();
+        EventLog.info("rental.cancelled", "Rental {} cancelled", rental.getId());
+        return true;
+    }
+
+    /**
+     * Completes or cancels an active rental on behalf of the service
+     * (cancellation, overdue sweep). A completion is handled exactly like
+     * a release by the rider, so journal replay gives the same result.
+     *
+     * @return false if the rental was not active
+     */
+    private boolean endRental(Rental rental, boolean complete) {
+        User user = rental.getUser();
+        Vehicle vehicle = rental.getVehicle();
+        long ticket = 0;
+
+        long locked = stripes.lockBoth(user, vehicle);
+        try {
+            if (activeOrEvict(activeRentalsByUser.get(user)) != rental) {
+                return false;
+            }
+            if (complete) {
+                rental.complete(nextTimestamp());
+            } else {
+                rental.cancel(nextTimestamp());
+            }
+            untrackActiveRental(rental);
+            stateVersion.increment();
+            if (complete) {
+                applyCompletionRewards(user);
+            }
+
+            RentalJournal current = journal;
+            if (current != null) {
+                ticket = complete ? current.recordRentalCompleted(rental) : current.recordRentalCancelled(rental);
+            }
+        } finally {
+            stripes.unlockBoth(locked);
+        }
+
+        awaitDurable(ticket);
+        if (complete) {
+            notifyRentalCompleted(rental);
+        }
+        fireChange(RentalChange.Type.RENTAL_ENDED, user, vehicle, rental);
+        return true;
+    }
+
+    /* =========================================================
+       Overdue rentals
+       ========================================================= */
+
+    /**
+     * Returns active rentals that started more than {@code maxDuration}
+     * ago, oldest first. Found from the start-time index of active
+     * rentals, so the cost depends on the number of overdue rentals.
+     * Rentals cancelled directly on the {@link Rental} but not yet evicted
+     * from the index are left out.
+     */
+    public List<Rental> getOverdueRentals(Duration maxDuration) {
+        List<Rental> overdue = activeByStart.startedBefore(LocalMillis.now() - maxDuration.toMillis());
+        overdue.removeIf(rental -> !rental.isActive());
+        return overdue;
+    }
+
+    /**
+     * Sweeps for abandoned rentals periodically on a background thread,
+     * so they do not lock vehicles out of the fleet forever. Replaces an
+     * earlier schedule.
+     *
+     * <p>Reclaimed rentals are counted in the {@code timeout.completed} /
+     * {@code timeout.flagged} metrics; each sweep is timed in
+     * {@code timeout.sweep}.</p>
+     *
+     * @param maxDuration how long a rental may stay active
+     * @param action      what to do with overdue rentals
+     * @param interval    time between sweeps
+     */
+    public synchronized void scheduleRentalTimeouts(Duration maxDuration, OverdueRentalAction action,
+                                                    Duration interval) {
+        if (maxDuration == null || maxDuration.isNegative() || maxDuration.isZero()) {
+            throw new IllegalArgumentException("Maximum rental duration must be positive: " + maxDuration);
+        }
+        if (action == null) {
+            throw new IllegalArgumentException("Overdue action must not be null");
+        }
+        stopRentalTimeouts();
+        synchronized (sweepLock) {
+            flaggedBefore = Long.MIN_VALUE;
+        }
+        timeoutSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rental-timeout-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        timeoutSweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweepOverdueRentals(maxDuration, action);
+            } catch (RuntimeException e) {
+                EventLog.warn("timeout.failed", "Overdue rental sweep failed: {}", e.toString());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic sweep, if scheduled.
+     */
+    public synchronized void stopRentalTimeouts() {
+        if (timeoutSweeper != null) {
+            timeoutSweeper.shutdownNow();
+            timeoutSweeper = null;
+        }
+    }
+
+    /**
+     * Runs one sweep now (the scheduled sweeper calls this).
+     *
+     * <p>With {@link OverdueRentalAction#COMPLETE} every overdue rental is
+     * completed. With {@link OverdueRentalAction#FLAG} only rentals that
+     * became overdue since the previous sweep are reported, so each one is
+     * flagged once.</p>
+     *
+     * @return number of rentals completed or flagged
+     */
+    public int sweepOverdueRentals(Duration maxDuration, OverdueRentalAction action) {
+        synchronized (sweepLock) {
+            return sweep(maxDuration, action);
+        }
+    }
+
+    private int sweep(Duration maxDuration, OverdueRentalAction action) {
+        long start = System.nanoTime();
+        long cutoff = LocalMillis.now() - maxDuration.toMillis();
+        int reclaimed = 0;
+
+        if (action == OverdueRentalAction.COMPLETE) {
+            for (Rental rental : activeByStart.startedBefore(cutoff)) {
+                if (endRental(rental, true)) {
+                    reclaimed++;
+                    EventLog.warn("rental.timeout", "Rental {} of {} completed after {} min",
+                            rental.getId(), rental.getUser().getName(), rental.getDurationMinutes());
+                }
+            }
+            timeoutsCompleted.add(reclaimed);
+        } else {
+            for (Rental rental : activeByStart.startedBetween(flaggedBefore, cutoff)) {
+                if (!rental.isActive()) {
+                    continue;   // cancelled directly on the Rental, not yet evicted
+                }
+                reclaimed++;
+                EventLog.warn("rental.overdue", "Rental {} of {} active since {}",
+                        rental.getId(), rental.getUser().getName(), rental.formatStartTime());
+            }
+            flaggedBefore = Math.max(flaggedBefore, cutoff);
+            timeoutsFlagged.add(reclaimed);
+        }
+        sweepLatency.recordSince(start);
+        return reclaimed;
+    }
+
+    /* =========================================================
+       Reservation holds
+       ========================================================= */
+
+    /**
+     * Holds a vehicle for a user for the default hold time (see
+     * {@link #setReservationHold(Duration)}).
+     *
+     * @return the hold, or null if it was refused
+     */
+    public Reservation reserveVehicle(User user, Vehicle vehicle) {
+        return reserveVehicle(user, vehicle, reservationHold);
+    }
+
+    /**
+     * Holds a vehicle for a user, e.g. while they walk to it.
+     *
+     * Rules:
+     * - The same checks as booking apply (registered, available, battery)
+     * - A user can hold one vehicle, and only without an active rental
+     * - Booking the held vehicle converts the hold into a rental
+     * - Otherwise the vehicle is released when the hold runs out, and
+     *   observers are notified
+     *
+     * @param user    user placing the hold
+     * @param vehicle vehicle to hold
+     * @param hold    how long to hold it
+     * @return the hold, or null if it was refused
+     */
+    public Reservation reserveVehicle(User user, Vehicle vehicle, Duration hold) {
+        if (hold == null || hold.isNegative() || hold.isZero()) {
+            throw new IllegalArgumentException("Hold time must be positive: " + hold);
+        }
+        if (fleetIndex.slotOf(vehicle) < 0) {
+            EventLog.info("reserve.rejected", "Vehicle is not registered.");
+            reservationsRejected.increment();
+            return null;
+        }
+
+        Reservation reservation;
+        long locked = stripes.lockBoth(user, vehicle);
+        try {
+            if (userHasActiveRental(user)) {
+                EventLog.info("reserve.rejected", "User already has an active rental.");
+                reservationsRejected.increment();
+                return null;
+            }
+            if (reservationsByUser.containsKey(user)) {
+                EventLog.info("reserve.rejected", "User is already holding a vehicle.");
+                reservationsRejected.increment();
+                return null;
+            }
+            if (checkBookable(vehicle, "reserve.rejected") != null) {
+                reservationsRejected.increment();
+                return null;
+            }
+
+            long now = LocalMillis.now();
+            reservation = new Reservation(user, vehicle, now, now + hold.toMillis());
+            reservationsByUser.put(user, reservation);
+            reservationsByVehicle.set(vehicle.getFleetIndex(), reservation);
+            vehicle.markAsBooked(user);
+            fleetIndex.setAvailable(vehicle, false);
+            stateVersion.increment();
+
+            // Fires on the wheel thread, which then waits for these locks
+            reservation.timeout = reservationExpiry.schedule(reservation, hold.toMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            stripes.unlockBoth(locked);
+        }
+
+        reservationsHeld.increment();
+        fireChange(RentalChange.Type.RESERVATION_STARTED, user, vehicle, null);
+        EventLog.info("reservation.held", "{} is holding {} for {} s",
+                user.getName(), vehicle.getModel(), hold.toSeconds());
+        return reservation;
+    }
+
+    /**
+     * Cancels the user's hold and makes the vehicle available again.
+     *
+     * @return false if the user was not holding a vehicle
      */
-    private static final DateTimeFormatter RENTAL_TIME_FORMAT =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    public boolean cancelReservation(User user) {
+        Reservation hold = reservationsByUser.get(user);
+        if (hold == null) {
+            return false;
+        }
+        long locked = stripes.lockBoth(user, hold.getVehicle());
+        try {
+            if (reservationsByUser.get(user) != hold) {
+                return false;   // converted or expired meanwhile
+            }
+            endReservation(hold, Reservation.State.CANCELLED);
+        } finally {
+            stripes.unlockBoth(locked);
+        }
+        reservationsCancelled.increment();
+        fireChange(RentalChange.Type.RESERVATION_ENDED, user, hold.getVehicle(), null);
+        EventLog.info("reservation.cancelled", "{} cancelled the hold on {}",
+                user.getName(), hold.getVehicle().getModel());
+        return true;
+    }
 
-    /* -------------------------------
-       Singleton instance
-     -------------------------------- */
-    private static RentalService rentalService;
+    /**
+     * Returns the vehicle hold of a user.
+     *
+     * @return the hold, or null if the user is not holding a vehicle
+     */
+    public Reservation getReservation(User user) {
+        return reservationsByUser.get(user);
+    }
 
-    /* -------------------------------
-       Domain collections
-     -------------------------------- */
-    private final List<User> users;
-    private final List<Vehicle> vehicles;
-    private final List<Rental> rentals;
+    /**
+     * Returns the hold on a vehicle.
+     *
+     * @return the hold, or null if the vehicle is not held
+     */
+    public Reservation getReservationForVehicle(Vehicle vehicle) {
+        int slot = fleetIndex.slotOf(vehicle);
+        return slot < 0 ? null : reservationsByVehicle.get(slot);
+    }
 
-    /* -------------------------------
-       Observer pattern
-     -------------------------------- */
-    private final List<RentalObserver> observers;
+    /**
+     * @return number of vehicles currently held
+     */
+    public int getHeldReservationCount() {
+        return reservationsByUser.size();
+    }
 
     /**
-     * Private constructor to enforce Singleton usage.
+     * Sets the hold time used by {@link #reserveVehicle(User, Vehicle)}
+     * (default 10 minutes). Holds are expired with one-second precision.
      */
-    private RentalService() {
-        this.users = new ArrayList<>();
-        this.vehicles = new ArrayList<>();
-        this.rentals = new ArrayList<>();
-        this.observers = new ArrayList<>();
+    public void setReservationHold(Duration hold) {
+        if (hold == null || hold.isNegative() || hold.isZero()) {
+            throw new IllegalArgumentException("Hold time must be positive: " + hold);
+        }
+        this.reservationHold = hold;
     }
 
     /**
-     * Returns the single shared instance of RentalService.
-     *
-     * @return singleton instance
+     * Stops the thread that expires holds; call on shutdown. Holds that
+     * are still open (or placed afterwards) no longer expire.
      */
-    public static RentalService getInstance() {
-        if (rentalService == null) {
-            rentalService = new RentalService();
+    public void stopReservationExpiry() {
+        reservationExpiry.close();
+    }
+
+    /**
+     * Called on the timing-wheel thread when a hold runs out.
+     */
+    private void expireReservation(Reservation hold) {
+        User user = hold.getUser();
+        Vehicle vehicle = hold.getVehicle();
+        long locked = stripes.lockBoth(user, vehicle);
+        try {
+            if (reservationsByUser.get(user) != hold) {
+                return;   // converted or cancelled while the timer fired
+            }
+            endReservation(hold, Reservation.State.EXPIRED);
+        } finally {
+            stripes.unlockBoth(locked);
+        }
+        reservationsExpired.increment();
+        for (ObserverRegistration registration : observers) {
+            long start = System.nanoTime();
+            registration.observer().onReservationExpired(hold);
+            registration.latency().recordSince(start);
         }
-        return rentalService;
+        fireChange(RentalChange.Type.RESERVATION_ENDED, user, vehicle, null);
+        EventLog.info("reservation.expired", "Hold of {} on {} expired", user.getName(), vehicle.getModel());
     }
 
-    /* =========================================================
-       Observer registration
-       ========================================================= */
+    /**
+     * Removes a hold from the indexes. Unless it became a rental, the
+     * vehicle is released. Callers hold the user's and vehicle's stripes.
+     */
+    private void endReservation(Reservation hold, Reservation.State outcome) {
+        Vehicle vehicle = hold.getVehicle();
+        reservationsByUser.remove(hold.getUser(), hold);
+        reservationsByVehicle.compareAndSet(vehicle.getFleetIndex(), hold, null);
+        hold.end(outcome);
+        if (outcome != Reservation.State.EXPIRED) {
+            hold.timeout.cancel();
+        }
+        if (outcome != Reservation.State.CONVERTED) {
+            vehicle.markAsReleased();
+            fleetIndex.setAvailable(vehicle, true);
+        }
+        stateVersion.increment();
+    }
 
     /**
-     * Registers an observer interested in rental completion events.
+     * Checks that a free vehicle can be booked or held, logging why not.
+     * Callers hold the vehicle's stripe.
      *
-     * @param observer observer to register
+     * @param event log event for a refusal
+     * @return why the vehicle cannot be taken, or null if it can
      */
-    public void addObserver(RentalObserver observer) {
-        observers.add(observer);
+    private RejectionReason checkBookable(Vehicle vehicle, String event) {
+        if (!vehicle.isAvailable()) {
+            User holder = vehicle.getCurrentUser();
+            String holderName = holder != null ? holder.getName() : "another user";
+            if (reservationsByVehicle.get(vehicle.getFleetIndex()) != null) {
+                EventLog.info(event, "Vehicle is held by: {}", holderName);
+                return RejectionReason.VEHICLE_RESERVED;
+            }
+            EventLog.info(event, "Vehicle already booked by: {}", holderName);
+            return RejectionReason.VEHICLE_ALREADY_BOOKED;
+        }
+
+        // Lock-free read of the latest telemetry (NaN for vehicles without a battery)
+        double charge = batteryStore.levelOfVehicle(vehicle.getFleetIndex());
+        if (charge < minimumBookingCharge) {
+            EventLog.info(event, "Battery too low to book: {}%", Math.round(charge));
+            return RejectionReason.BATTERY_TOO_LOW;
+        }
+        return null;
     }
 
     /**
-     * Notifies all observers when a rental is completed.
+     * Records a refused booking or release.
      *
-     * @param rental completed rental
+     * @param reason why the operation was refused
+     * @param start  {@link System#nanoTime()} at the start of the operation
+     * @return the shared result for the reason
      */
-    private void notifyRentalCompleted(Rental rental) {
-        for (RentalObserver obs : observers) {
-            obs.onRentalCompleted(rental);
+    private RentalResult reject(RejectionReason reason, long start) {
+        rejectionLatency[reason.ordinal()].recordSince(start);
+        if (reason.getOperation().equals("book")) {
+            bookingsRejected.increment();
+        } else {
+            releasesRejected.increment();
         }
+        return RentalResult.rejected(reason);
     }
 
-    /* =========================================================
-       User & vehicle registration
-       ========================================================= */
+    /**
+     * Returns the time for a booking, completion or cancellation: the
+     * current local time, but never earlier than a time returned before.
+     *
+     * <p>Histories are kept in booking order and searched by start time,
+     * and durations subtract start from end, so a wall clock stepped back
+     * (end of daylight saving time, an NTP correction) must not produce a
+     * time earlier than the last one. While the clock is behind, new
+     * rentals get the last time handed out.</p>
+     */
+    private long nextTimestamp() {
+        return lastTimestamp.accumulateAndGet(LocalMillis.now(), Math::max);
+    }
 
     /**
-     * Registers a new user.
+     * Applies loyalty points and VIP status for a completed rental.
      *
-     * @param user user to register
+     * @param user user whose rental was completed
      */
-    public void registerUser(User user) {
-        users.add(user);
-        System.out.println("User registered: " + user.getName());
+    private void applyCompletionRewards(User user) {
+        user.incrementCompletedRentals();
+
+        if (user.getTotalCompletedRentals() > 3) {
+            user.addLoyaltyPoints(1);
+        }
+
+        user.checkAndUpdateVipStatus();
     }
 
     /**
-     * Registers a new vehicle.
+     * Adds a freshly booked rental to the active indexes.
      *
-     * @param vehicle vehicle to register
+     * @param rental rental that has just become ACTIVE
      */
-    public void registerVehicle(Vehicle vehicle) {
-        vehicles.add(vehicle);
-        System.out.println(
-                vehicle.getVehicleType() + " registered: " + vehicle.getModel()
-        );
+    private void trackActiveRental(Rental rental) {
+        activeRentalsByUser.put(rental.getUser(), rental);
+        rental.getUser().incrementActiveRentals();
+        activeRentalsByVehicle.set(rental.getVehicle().getFleetIndex(), rental);
+        fleetIndex.setAvailable(rental.getVehicle(), false);
+        activeByStart.add(rental);
     }
 
-    /* =========================================================
-       Booking logic
-       ========================================================= */
+    /**
+     * Removes a rental that is no longer ACTIVE from the active indexes
+     * and adds it to the finished-rental index. Entries are only removed
+     * if they still point at this rental, so it is indexed once however
+     * often this is called.
+     *
+     * @param rental rental that has been completed or cancelled
+     */
+    private void untrackActiveRental(Rental rental) {
+        if (activeRentalsByUser.remove(rental.getUser(), rental)) {
+            rental.getUser().decrementActiveRentals();
+            activeByStart.remove(rental);
+            finishedRentals.add(rental);
+        }
+        if (activeRentalsByVehicle.compareAndSet(rental.getVehicle().getFleetIndex(), rental, null)) {
+            fleetIndex.setAvailable(rental.getVehicle(), true);
+        }
+    }
 
     /**
-     * Books a vehicle for a user.
+     * Returns the indexed rental if it is still ACTIVE.
      *
-     * Rules:
-     * - User can have only ONE active rental
-     * - Vehicle must be available
+     * <p>{@link Rental#cancel()} can be called directly on a rental,
+     * bypassing this service. Such entries are dropped here the next
+     * time they are looked up, so the indexes never report a stale
+     * rental as active.</p>
      *
-     * @param user user booking
-     * @param vehicle vehicle to book
-     * @return created Rental or null if booking fails
+     * @param rental indexed rental (may be null)
+     * @return the rental if active, otherwise null
      */
-    public Rental bookVehicle(User user, Vehicle vehicle) {
-
-        if (userHasActiveRental(user)) {
-            System.out.println("User already has an active rental.");
+    private Rental activeOrEvict(Rental rental) {
+        if (rental == null) {
             return null;
         }
-
-        if (!vehicle.isAvailable()) {
-            System.out.println(
-                    "Vehicle already booked by: " +
-                            vehicle.getCurrentUser().getName()
-            );
+        if (!rental.isActive()) {
+            untrackActiveRental(rental);
             return null;
         }
-
-        String rentalId = "R-" + (rentals.size() + 1);
-        Rental rental = new Rental(rentalId, user, vehicle);
-
-        rentals.add(rental);
-        user.addRental(rental);
-
-        System.out.println(
-                user.getName() + " booked " + vehicle.getModel()
-        );
-
         return rental;
     }
 
+    /* =========================================================
+       Rental queries (GUI support)
+       ========================================================= */
+
     /**
-     * Releases a vehicle.
+     * Starts a fleet search answered from the attribute bitmap index,
+     * e.g. {@code queryVehicles().availableOnly().with(VehicleKind.E_SCOOTER).list()}.
      *
-     * Rules:
-     * - Only the booking user can release
-     * - Loyalty & VIP logic applies
-     * - Observers are notified
-     *
-     * @param user user releasing
-     * @param vehicle vehicle being released
+     * @return a new query over all registered vehicles
      */
-    public void releaseVehicle(User user, Vehicle vehicle) {
-
-        for (Rental r : rentals) {
-
-            // Correct user + correct vehicle + active rental
-            if (r.isActive()
-                    && r.getUser().equals(user)
-                    && r.getVehicle().equals(vehicle)) {
-
-                r.complete();
-
-                // Observer notification
-                notifyRentalCompleted(r);
-
-                // Loyalty system
-                user.incrementCompletedRentals();
+    public VehicleQuery queryVehicles() {
+        return new VehicleQuery(fleetIndex);
+    }
 
-                if (user.getTotalCompletedRentals() > 3) {
-                    user.addLoyaltyPoints(1);
-                }
+    /**
+     * Refreshes the search index after a registered vehicle's attributes
+     * (ride mode, brakes, battery, ...) were changed.
+     *
+     * @param vehicle registered vehicle that was reconfigured
+     */
+    public void reindexVehicle(Vehicle vehicle) {
+        fleetIndex.reindex(vehicle);
+    }
 
-                user.checkAndUpdateVipStatus();
+    /**
+     * Returns the column store holding the battery state of all registered
+     * electric vehicles, indexed by {@link Vehicle#getFleetIndex()}.
+     * Telemetry feeds use it for bulk updates.
+     */
+    public FleetBatteryStore getBatteryStore() {
+        return batteryStore;
+    }
 
-                System.out.println(
-                        "Vehicle released: " + vehicle.getModel()
-                );
-                return;
-            }
+    /**
+     * Returns the latency histograms and counters of this service
+     * (see {@link ServiceMetrics} for the metric names).
+     */
+    public ServiceMetrics getMetrics() {
+        return metrics;
+    }
 
-            // Prevent releasing someone else's rental
-            if (r.isActive()
-                    && r.getVehicle().equals(vehicle)
-                    && !r.getUser().equals(user)) {
-
-                System.out.println(
-                        "Cannot release vehicle booked by another user."
-                );
-                return;
-            }
+    /**
+     * Sets the charge an electric vehicle needs before it can be booked.
+     *
+     * @param percent minimum battery level (0–100); 0 disables the check
+     */
+    public void setMinimumBookingCharge(double percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Minimum charge must be between 0 and 100");
         }
-
-        System.out.println("No active rental found for this vehicle.");
+        this.minimumBookingCharge = percent;
     }
 
-    /* =========================================================
-       Rental queries (GUI support)
-       ========================================================= */
-
     /**
      * Returns all active rentals.
      */
     public List<Rental> getActiveRentals() {
-        return rentals.stream()
-                .filter(Rental::isActive)
-                .toList();
+        List<Rental> active = new ArrayList<>();
+        for (int slot = 0, n = fleetIndex.size(); slot < n; slot++) {
+            Rental rental = activeRentalsByVehicle.get(slot);
+            if (rental != null && rental.isActive()) {
+                active.add(rental);
+            }
+        }
+        return active;
     }
 
     /**
      * Checks if a user has an active rental.
      */
     public boolean userHasActiveRental(User user) {
-        return rentals.stream()
-                .anyMatch(r -> r.isActive() && r.getUser().equals(user));
+        return activeOrEvict(activeRentalsByUser.get(user)) != null;
     }
 
     /**
      * Returns active rental for a vehicle.
      */
     public Rental getActiveRentalForVehicle(Vehicle vehicle) {
-        for (Rental r : rentals) {
-            if (r.isActive() && r.getVehicle().equals(vehicle)) {
-                return r;
-            }
-        }
-        return null;
+        int slot = fleetIndex.slotOf(vehicle);
+        return slot < 0 ? null : activeOrEvict(activeRentalsByVehicle.get(slot));
     }
 
     /**
-     * Returns all rentals for a user.
+     * Returns all rentals for a user, in booking order.
+     * Use {@link #queryRentals()} to page through long histories.
      */
     public List<Rental> getRentalsForUser(User user) {
-        return rentals.stream()
-                .filter(r -> r.getUser().equals(user))
-                .toList();
+        return queryRentals().forUser(user).first(Integer.MAX_VALUE).items();
     }
 
     /**
      * Returns active rentals for a user.
      */
     public List<Rental> getActiveRentalsForUser(User user) {
-        List<Rental> result = new ArrayList<>();
-        for (Rental r : rentals) {
-            if (r.isActive() && r.getUser().equals(user)) {
-                result.add(r);
-            }
-        }
-        return result;
+        Rental active = activeOrEvict(activeRentalsByUser.get(user));
+        return active == null ? List.of() : List.of(active);
     }
 
     /**
      * Returns completed rentals for a user.
      */
     public List<Rental> getPastRentalsForUser(User user) {
-        return rentals.stream()
-                .filter(r -> !r.isActive())
-                .filter(r -> r.getUser().equals(user))
-                .toList();
+        return queryRentals().forUser(user).completedOnly().first(Integer.MAX_VALUE).items();
     }
 
     /**
      * Returns completed rentals for a vehicle.
      */
     public List<Rental> getPastRentalsForVehicle(Vehicle vehicle) {
-        return rentals.stream()
-                .filter(r -> !r.isActive())
-                .filter(r -> r.getVehicle().equals(vehicle))
-                .toList();
+        return queryRentals().forVehicle(vehicle).completedOnly().first(Integer.MAX_VALUE).items();
+    }
+
+    /**
+     * Starts a paged query over the rental history of a user or vehicle
+     * (see {@link RentalQuery}).
+     */
+    public RentalQuery queryRentals() {
+        return new RentalQuery(this);
+    }
+
+    /**
+     * Returns finished (completed or cancelled) rentals of all users that
+     * started in {@code [from, to)}, oldest first. Either bound may be null
+     * for an open range. Found in O(log n) plus the number of rentals
+     * returned.
+     */
+    public List<Rental> getRentalsStartedBetween(LocalDateTime from, LocalDateTime to) {
+        checkRange(from, to);
+        return finishedRentals.startedBetween(from, to);
+    }
+
+    /**
+     * Returns finished rentals of all users that ended in {@code [from, to)},
+     * oldest first.
+     */
+    public List<Rental> getRentalsEndedBetween(LocalDateTime from, LocalDateTime to) {
+        checkRange(from, to);
+        return finishedRentals.endedBetween(from, to);
+    }
+
+    /**
+     * Returns the totals of finished rentals per start day, for each day in
+     * {@code [from, to]} (inclusive) that had any, in date order.
+     */
+    public List<RentalStats> getDailyRentalStats(LocalDate from, LocalDate to) {
+        return finishedRentals.daily(from, to);
+    }
+
+    /**
+     * Returns the totals of finished rentals that started on any day in
+     * {@code [from, to]} (inclusive), e.g. a week or a month. Costs one
+     * step per day, not per rental.
+     */
+    public RentalStats getRentalStats(LocalDate from, LocalDate to) {
+        return finishedRentals.total(from, to);
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end is before its start");
+        }
+    }
+
+    RentalHistory historyOf(User user) {
+        return historyByUser.getOrDefault(user, NO_HISTORY);
+    }
+
+    RentalHistory historyOf(Vehicle vehicle) {
+        int slot = fleetIndex.slotOf(vehicle);
+        RentalHistory history = slot < 0 ? null : historyByVehicle.get(slot);
+        return history != null ? history : NO_HISTORY;
+    }
+
+    /**
+     * Adds a new rental to its user's and vehicle's history. Callers hold
+     * both lock stripes (or restore state single-threaded).
+     *
+     * @param position the rental's index in the rental log
+     */
+    private void recordHistory(Rental rental, int position) {
+        historyByUser.computeIfAbsent(rental.getUser(), this::newUserHistory).append(rental, position);
+        historyByVehicle.computeIfAbsent(rental.getVehicle().getFleetIndex(), slot -> new RentalHistory(rentals))
+                .append(rental, position);
+    }
+
+    private RentalHistory newUserHistory(User user) {
+        RentalHistory history = new RentalHistory(rentals);
+        user.setRentalHistory(history.asList());
+        return history;
     }
 
     /* =========================================================
@@ -307,7 +1584,7 @@ public class RentalService {
      *
      * Rules:
      * - Cannot remove admins
-     * - Cannot remove users with active rentals
+     * - Cannot remove users with active rentals or vehicle holds
      */
     public boolean removeUser(User user) {
 
@@ -315,12 +1592,27 @@ public class RentalService {
 
         if (user.getRole() == Role.ADMIN) return false;
 
-        boolean hasActiveRental = rentals.stream()
-                .anyMatch(r -> r.isActive() && r.getUser().equals(user));
+        long start = System.nanoTime();
+        long ticket = 0;
+        int locked = stripes.lock(user);
+        try {
+            if (userHasActiveRental(user)) return false;
+            if (reservationsByUser.containsKey(user)) return false;
 
-        if (hasActiveRental) return false;
+            if (!users.remove(user)) return false;
+            historyByUser.remove(user);
+            stateVersion.increment();
 
-        users.remove(user);
+            RentalJournal current = journal;
+            if (current != null) {
+                ticket = current.recordUserRemoved(user);
+            }
+        } finally {
+            stripes.unlock(locked);
+        }
+        awaitDurable(ticket);
+        removeUserLatency.recordSince(start);
+        fireChange(RentalChange.Type.USER_REMOVED, user, null, null);
         return true;
     }
 
@@ -328,12 +1620,43 @@ public class RentalService {
        Data access & seeding
        ========================================================= */
 
+    /**
+     * Returns the registered users as an unmodifiable snapshot (O(1),
+     * not affected by later registrations or removals).
+     */
     public List<User> getUsers() {
-        return users;
+        return users.snapshot();
     }
 
+    /**
+     * Returns the registered vehicles as an unmodifiable snapshot.
+     */
     public List<Vehicle> getVehicles() {
-        return vehicles;
+        return vehicles.snapshot();
+    }
+
+    /**
+     * Returns a read-only view of users, vehicles and rentals (see
+     * {@link StateView}). Every change runs under a booking stripe, so the
+     * version and the three O(1) list views are taken while all stripes
+     * are held; bookings pause only for that moment.
+     */
+    public StateView snapshot() {
+        stripes.lockAll();
+        try {
+            return new StateView(stateVersion.sum(), users.snapshot(), vehicles.snapshot(), rentals.snapshot());
+        } finally {
+            stripes.unlockAll();
+        }
+    }
+
+    /**
+     * Returns a counter that grows with every registration, removal,
+     * booking and release. A {@link StateView} with a lower
+     * {@link StateView#getVersion()} is out of date.
+     */
+    public long getStateVersion() {
+        return stateVersion.sum();
     }
 
     /**
@@ -343,7 +1666,7 @@ public class RentalService {
     public void seedVehiclesIfEmpty() {
         if (!vehicles.isEmpty()) return;
 
-        vehicles.add(new EBike(
+        addVehicle(new EBike(
                 "Trek", "FX+ 2",
                 new Equipment[]{},
                 new Battery(400, 100, true, BatteryChemistry.LI_ION),
@@ -351,7 +1674,7 @@ public class RentalService {
                 new Controller("v1.0")
         ));
 
-        vehicles.add(new EScooter(
+        addVehicle(new EScooter(
                 "Xiaomi", "Pro 2",
                 new Equipment[]{},
                 new Battery(474, 85, false),
@@ -361,9 +1684,107 @@ public class RentalService {
                 RideMode.NORMAL
         ));
 
-        vehicles.add(new Bike(
+        addVehicle(new Bike(
                 "Giant", "Escape 3",
                 new Equipment[]{}
         ));
     }
+
+    /* =========================================================
+       Restoring persisted state (journal replay / snapshots)
+       ========================================================= */
+
+    /**
+     * Adds a user rebuilt from persisted state, without journaling it again.
+     */
+    void restoreUser(User user) {
+        users.add(user);
+        stateVersion.increment();
+    }
+
+    /**
+     * Adds users rebuilt from a snapshot in one step (the user list is
+     * copy-on-write, so adding them one by one would be quadratic).
+     */
+    void restoreUsers(List<User> restored) {
+        users.addAll(restored);
+        stateVersion.increment();
+    }
+
+    /**
+     * Removes a user whose removal was journaled.
+     */
+    void restoreUserRemoval(User user) {
+        users.remove(user);
+        historyByUser.remove(user);
+        stateVersion.increment();
+    }
+
+    /**
+     * Adds a vehicle rebuilt from persisted state, without journaling it again.
+     */
+    void restoreVehicle(Vehicle vehicle) {
+        vehicles.add(vehicle);
+        fleetIndex.add(vehicle);
+        stateVersion.increment();
+    }
+
+    /**
+     * Adds vehicles rebuilt from a snapshot in one step.
+     */
+    void restoreVehicles(List<Vehicle> restored) {
+        vehicles.addAll(restored);
+        for (Vehicle vehicle : restored) {
+            fleetIndex.add(vehicle);
+        }
+        stateVersion.increment();
+    }
+
+    /**
+     * Re-creates a rental from persisted state and links it to its user,
+     * vehicle and (if ACTIVE) the active indexes.
+     *
+     * @return the restored rental
+     */
+    Rental restoreRental(long rentalId, User user, Vehicle vehicle,
+                         long start, long end, RentalStatus status) {
+        Rental rental = Rental.restore(rentalId, user, vehicle, start, end, status);
+        lastTimestamp.accumulateAndGet(Math.max(rental.getStartMillis(), rental.getEndMillis()), Math::max);
+        recordHistory(rental, rentals.append(rental));
+        stateVersion.increment();
+        if (rental.isActive()) {
+            trackActiveRental(rental);
+        } else {
+            finishedRentals.add(rental);
+        }
+        rentalIdGenerator.advancePast(rentalId);
+        return rental;
+    }
+
+    /**
+     * Ends a restored ACTIVE rental as it was recorded in the journal.
+     * Observers are not notified again.
+     *
+     * <p>Loyalty rewards are re-applied for completions unless the rider
+     * already has {@code completedAfter} completed rentals: a snapshot
+     * copies counters after the position it covers, so it may already
+     * include the rewards of a completion in the replayed tail.</p>
+     *
+     * @param completed      true for a completion, false for a cancellation
+     * @param completedAfter rider's completed-rental count recorded after
+     *                       the rewards (ignored for cancellations)
+     */
+    void restoreRentalEnd(Rental rental, long end, boolean completed, int completedAfter) {
+        if (completed) {
+            rental.complete(end);
+        } else {
+            rental.cancel(end);
+        }
+        lastTimestamp.accumulateAndGet(rental.getEndMillis(), Math::max);
+        untrackActiveRental(rental);
+        if (completed && rental.getUser().getTotalCompletedRentals() < completedAfter) {
+            applyCompletionRewards(rental.getUser());
+        }
+        stateVersion.increment();
+    }
 }
@@ -0,0 +1,344 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.RentalStatus;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Point-in-time binary image of all {@link RentalService} state: users with
+ * their loyalty counters, vehicles with parts and equipment, and the full
+ * rental history.
+ *
+ * <p>File layout (big-endian):</p>
+ * <pre>
+ *   int magic | int version | long journalPosition
+ *   int userCount    | users    (user fields, loyalty, detached flag)
+ *   int vehicleCount | vehicles (vehicle fields, detached flag)
+ *   int rentalCount  | rentals  (id, user index, vehicle index, start, end, status)
+ *   int crc32(everything above)
+ * </pre>
+ *
+ * <p>Rental start and end are {@link LocalMillis} values
+ * ({@link LocalMillis#NONE} for the end of an active rental).
+ * Rentals refer to users and vehicles by their position in the file
+ * instead of repeating string ids. Users that were removed but still appear
+ * in rental history are stored as <i>detached</i>: they are linked to their
+ * rentals on load but not re-added to the user list.</p>
+ *
+ * <p>{@code journalPosition} is the {@link RentalJournal} position the image
+ * corresponds to; on startup only the journal records after it are
+ * replayed.</p>
+ */
+final class RentalSnapshot {
+
+    private static final int MAGIC = 0x5A41534E; // "ZASN"
+    private static final int VERSION = 2;
+
+    private final long journalPosition;
+
+    // --- Users (parallel arrays) ---
+    private User[] users;
+    private int[] loyaltyPoints;
+    private int[] completedRentals;
+    private boolean[] vip;
+    private boolean[] detachedUsers;
+
+    // --- Vehicles ---
+    private Vehicle[] vehicles;
+    private boolean[] detachedVehicles;
+
+    // --- Rentals (parallel arrays, in booking order) ---
+    private long[] rentalIds;
+    private int[] rentalUsers;
+    private int[] rentalVehicles;
+    private long[] rentalStarts;
+    private long[] rentalEnds;
+    private RentalStatus[] rentalStatuses;
+
+    private RentalSnapshot(long journalPosition) {
+        this.journalPosition = journalPosition;
+    }
+
+    private void allocateUsers(int count) {
+        users = new User[count];
+        loyaltyPoints = new int[count];
+        completedRentals = new int[count];
+        vip = new boolean[count];
+        detachedUsers = new boolean[count];
+    }
+
+    private void allocateVehicles(int count) {
+        vehicles = new Vehicle[count];
+        detachedVehicles = new boolean[count];
+    }
+
+    private void allocateRentals(int count) {
+        rentalIds = new long[count];
+        rentalUsers = new int[count];
+        rentalVehicles = new int[count];
+        rentalStarts = new long[count];
+        rentalEnds = new long[count];
+        rentalStatuses = new RentalStatus[count];
+    }
+
+    /* =========================================================
+       Capturing
+       ========================================================= */
+
+    /**
+     * Copies the mutable parts of the service state (loyalty counters and
+     * rental status/times) into primitive arrays, for encoding later.
+     *
+     * <p>The lists must be views taken together with {@code journalPosition}
+     * while every booking lock was held, so they contain exactly the users,
+     * vehicles and rentals created before it. This method runs without
+     * those locks: a rental may already be ended and its rider's counters
+     * already updated by a record after {@code journalPosition}. Replaying
+     * the journal from there skips ends that are already in the snapshot
+     * and rewards already counted (see {@link RentalJournal}). Rental status
+     * is read before the rider's counters, and each rider's counters are
+     * read under that rider's stripe, so they are never older than the
+     * status and never half-updated.</p>
+     */
+    static RentalSnapshot capture(List<User> userList, List<Vehicle> vehicleList,
+                                  Collection<Rental> rentalLog, long journalPosition,
+                                  LockStripes stripes) {
+        Map<User, Integer> userIndex = new IdentityHashMap<>();
+        for (User u : userList) {
+            userIndex.putIfAbsent(u, userIndex.size());
+        }
+        Map<Vehicle, Integer> vehicleIndex = new IdentityHashMap<>();
+        for (Vehicle v : vehicleList) {
+            vehicleIndex.putIfAbsent(v, vehicleIndex.size());
+        }
+        int registeredUsers = userIndex.size();
+        int registeredVehicles = vehicleIndex.size();
+
+        // Rentals may reference removed users, which get indexes after the registered ones
+        RentalSnapshot snapshot = new RentalSnapshot(journalPosition);
+        snapshot.allocateRentals(rentalLog.size());
+        int n = 0;
+        for (Rental r : rentalLog) {
+            snapshot.rentalIds[n] = r.getNumericId();
+            snapshot.rentalUsers[n] = userIndex.computeIfAbsent(r.getUser(), u -> userIndex.size());
+            snapshot.rentalVehicles[n] = vehicleIndex.computeIfAbsent(r.getVehicle(), v -> vehicleIndex.size());
+            // Status first: an ended status guarantees the end time is set
+            RentalStatus status = r.getStatus();
+            snapshot.rentalStatuses[n] = status;
+            snapshot.rentalStarts[n] = r.getStartMillis();
+            snapshot.rentalEnds[n] = status == RentalStatus.ACTIVE ? LocalMillis.NONE : r.getEndMillis();
+            n++;
+        }
+
+        snapshot.allocateUsers(userIndex.size());
+        for (Map.Entry<User, Integer> e : userIndex.entrySet()) {
+            int i = e.getValue();
+            User u = e.getKey();
+            snapshot.users[i] = u;
+            int stripe = stripes.lock(u);
+            try {
+                snapshot.loyaltyPoints[i] = u.getLoyaltyPoints();
+                snapshot.completedRentals[i] = u.getTotalCompletedRentals();
+                snapshot.vip[i] = u.isVip();
+            } finally {
+                stripes.unlock(stripe);
+            }
+            snapshot.detachedUsers[i] = i >= registeredUsers;
+        }
+        snapshot.allocateVehicles(vehicleIndex.size());
+        for (Map.Entry<Vehicle, Integer> e : vehicleIndex.entrySet()) {
+            int i = e.getValue();
+            snapshot.vehicles[i] = e.getKey();
+            snapshot.detachedVehicles[i] = i >= registeredVehicles;
+        }
+        return snapshot;
+    }
+
+    /* =========================================================
+       Writing
+       ========================================================= */
+
+    /**
+     * Writes the snapshot to a temporary file next to {@code file}, forces
+     * it to disk and atomically renames it over {@code file}, so a crash
+     * never leaves a half-written snapshot behind.
+     *
+     * @return size of the written file in bytes
+     */
+    long writeTo(Path file) throws IOException {
+        BinaryEncoder out = new BinaryEncoder(64 + users.length * 64
+                + vehicles.length * 160 + rentalIds.length * 36);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(journalPosition);
+
+        out.putInt(users.length);
+        for (int i = 0; i < users.length; i++) {
+            StateCodec.encodeUser(out, users[i]);
+            out.putInt(loyaltyPoints[i]);
+            out.putInt(completedRentals[i]);
+            out.putBoolean(vip[i]);
+            out.putBoolean(detachedUsers[i]);
+        }
+
+        out.putInt(vehicles.length);
+        for (int i = 0; i < vehicles.length; i++) {
+            StateCodec.encodeVehicle(out, vehicles[i]);
+            out.putBoolean(detachedVehicles[i]);
+        }
+
+        out.putInt(rentalIds.length);
+        for (int i = 0; i < rentalIds.length; i++) {
+            out.putLong(rentalIds[i]);
+            out.putInt(rentalUsers[i]);
+            out.putInt(rentalVehicles[i]);
+            out.putLong(rentalStarts[i]);
+            out.putLong(rentalEnds[i]);
+            out.putEnum(rentalStatuses[i]);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.size());
+        out.putInt((int) crc.getValue());
+
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = out.toByteBuffer();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return out.size();
+    }
+
+    /* =========================================================
+       Loading
+       ========================================================= */
+
+    /**
+     * Maps a snapshot file into memory and decodes it. Nothing is applied
+     * to a service yet, so a corrupt file leaves the service untouched.
+     *
+     * @throws IOException if the file cannot be read or fails validation
+     */
+    static RentalSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 20 || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " has invalid size " + size);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int bodyLength = (int) size - 4;
+            CRC32 crc = new CRC32();
+            crc.update(map.slice(0, bodyLength));
+            if ((int) crc.getValue() != map.getInt(bodyLength)) {
+                throw new IOException("Snapshot " + file + " failed checksum");
+            }
+            if (map.getInt() != MAGIC) {
+                throw new IOException(file + " is not a rental snapshot");
+            }
+            int version = map.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+            RentalSnapshot snapshot = new RentalSnapshot(map.getLong());
+
+            snapshot.allocateUsers(map.getInt());
+            for (int i = 0; i < snapshot.users.length; i++) {
+                snapshot.users[i] = StateCodec.decodeUser(map);
+                snapshot.loyaltyPoints[i] = map.getInt();
+                snapshot.completedRentals[i] = map.getInt();
+                snapshot.vip[i] = BinaryEncoder.getBoolean(map);
+                snapshot.detachedUsers[i] = BinaryEncoder.getBoolean(map);
+            }
+
+            snapshot.allocateVehicles(map.getInt());
+            for (int i = 0; i < snapshot.vehicles.length; i++) {
+                snapshot.vehicles[i] = StateCodec.decodeVehicle(map);
+                snapshot.detachedVehicles[i] = BinaryEncoder.getBoolean(map);
+            }
+
+            snapshot.allocateRentals(map.getInt());
+            for (int i = 0; i < snapshot.rentalIds.length; i++) {
+                snapshot.rentalIds[i] = map.getLong();
+                snapshot.rentalUsers[i] = map.getInt();
+                snapshot.rentalVehicles[i] = map.getInt();
+                snapshot.rentalStarts[i] = map.getLong();
+                snapshot.rentalEnds[i] = map.getLong();
+                snapshot.rentalStatuses[i] = BinaryEncoder.getEnum(map, RentalStatus.values());
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            // Out-of-range indexes or lengths in a file that passed the checksum
+            throw new IOException("Snapshot " + file + " is malformed", e);
+        }
+    }
+
+    /**
+     * Loads the decoded state into an empty service.
+     *
+     * @return the journal position to resume replay from
+     */
+    long applyTo(RentalService service) {
+        List<User> registeredUsers = new ArrayList<>(users.length);
+        for (int i = 0; i < users.length; i++) {
+            users[i].restoreLoyaltyState(loyaltyPoints[i], completedRentals[i], vip[i]);
+            if (!detachedUsers[i]) {
+                registeredUsers.add(users[i]);
+            }
+        }
+        service.restoreUsers(registeredUsers);
+
+        List<Vehicle> registeredVehicles = new ArrayList<>(vehicles.length);
+        for (int i = 0; i < vehicles.length; i++) {
+            if (!detachedVehicles[i]) {
+                registeredVehicles.add(vehicles[i]);
+            }
+        }
+        service.restoreVehicles(registeredVehicles);
+
+        for (int i = 0; i < rentalIds.length; i++) {
+            service.restoreRental(rentalIds[i],
+                    users[rentalUsers[i]], vehicles[rentalVehicles[i]],
+                    rentalStarts[i], rentalEnds[i], rentalStatuses[i]);
+        }
+        return journalPosition;
+    }
+
+    long getJournalPosition() {
+        return journalPosition;
+    }
+
+    int getUserCount() {
+        return users.length;
+    }
+
+    int getVehicleCount() {
+        return vehicles.length;
+    }
+
+    int getRentalCount() {
+        return rentalIds.length;
+    }
+}
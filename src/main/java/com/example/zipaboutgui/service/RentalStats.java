@@ -0,0 +1,32 @@
+package com.example.zipaboutgui.service;
+
+import java.time.LocalDate;
+
+/**
+ * Totals for the finished rentals that started in a range of days.
+ *
+ * @param from         first day of the range
+ * @param to           last day of the range (inclusive; equal to {@code from}
+ *                     for the figures of one day)
+ * @param completed    number of completed rentals
+ * @param cancelled    number of cancelled rentals
+ * @param totalMinutes summed duration of all of them
+ */
+public record RentalStats(LocalDate from, LocalDate to, int completed, int cancelled,
+                          long totalMinutes) {
+
+    /**
+     * @return completed plus cancelled rentals
+     */
+    public int rentals() {
+        return completed + cancelled;
+    }
+
+    /**
+     * @return mean duration in minutes, or 0 if there were no rentals
+     */
+    public double averageMinutes() {
+        int rentals = rentals();
+        return rentals == 0 ? 0 : (double) totalMinutes / rentals;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+/**
+ * A timed hold on a vehicle, e.g. while the rider walks to it.
+ * <p>
+ * A held vehicle is marked as booked by the holder
+ * ({@link Vehicle#markAsBooked(User)}), so nobody else can book or hold
+ * it. The hold ends in one of three ways: the holder books the vehicle
+ * ({@link State#CONVERTED}), cancels the hold ({@link State#CANCELLED}),
+ * or lets it run out ({@link State#EXPIRED}), which releases the vehicle
+ * and notifies {@link RentalObserver#onReservationExpired(Reservation)}.
+ * <p>
+ * Holds are short-lived and are not persisted: after a restart every
+ * held vehicle is available again.
+ */
+public final class Reservation {
+
+    /**
+     * Life cycle of a hold; every hold starts as {@link #HELD}.
+     */
+    public enum State {
+        HELD,
+        CONVERTED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    private final User user;
+    private final Vehicle vehicle;
+    private final long createdMillis;
+    private final long expiresMillis;
+    private volatile State state = State.HELD;
+
+    /** Expiry timer; cancelled when the hold ends early. */
+    HashedTimingWheel.Timeout<Reservation> timeout;
+
+    Reservation(User user, Vehicle vehicle, long createdMillis, long expiresMillis) {
+        this.user = user;
+        this.vehicle = vehicle;
+        this.createdMillis = createdMillis;
+        this.expiresMillis = expiresMillis;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return true while the vehicle is held
+     */
+    public boolean isHeld() {
+        return state == State.HELD;
+    }
+
+    /**
+     * @return when the hold was placed, in {@link LocalMillis}
+     */
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /**
+     * @return when the hold runs out, in {@link LocalMillis}
+     */
+    public long getExpiresMillis() {
+        return expiresMillis;
+    }
+
+    /**
+     * Records how the hold ended. Called by {@link RentalService} under
+     * the user's and vehicle's locks.
+     */
+    void end(State outcome) {
+        this.state = outcome;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation[" + user.getName() + ", " + vehicle.getModel() + ", " + state
+                + ", until " + LocalMillis.format(expiresMillis) + "]";
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.zipaboutgui.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link RentalIdGenerator} backed by a single atomic counter.
+ * <p>
+ * Produces 1, 2, 3, ... which keeps the familiar {@code R-1, R-2} ids.
+ * A single {@code incrementAndGet} is cheap enough for most workloads;
+ * see {@link ShardedRentalIdGenerator} when many threads book at once.
+ */
+public class SequentialRentalIdGenerator implements RentalIdGenerator {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Override
+    public long nextId() {
+        return counter.incrementAndGet();
+    }
+
+    @Override
+    public void advancePast(long issuedId) {
+        counter.accumulateAndGet(issuedId, Math::max);
+    }
+}
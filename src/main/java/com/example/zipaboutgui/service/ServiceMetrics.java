@@ -0,0 +1,142 @@
+package com.example.zipaboutgui.service;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the counters and latency histograms of one {@link RentalService}.
+ *
+ * <p>Metrics are created on first use and identified by dotted names:</p>
+ * <ul>
+ *   <li>{@code book}, {@code release}, {@code registerUser}, ... &ndash;
+ *       latency of successful operations;</li>
+ *   <li>{@code book.rejected.<reason>} &ndash; latency (and thereby count)
+ *       of refused operations, one per {@link RejectionReason};</li>
+ *   <li>{@code observer.<name>} &ndash; time a release spends notifying
+ *       an observer (for asynchronous observers: queueing the event), and
+ *       {@code observer.<name>.delivery} &ndash; time the observer itself
+ *       takes on its background thread;</li>
+ *   <li>counters such as {@code book.succeeded} and {@code book.rejected}.</li>
+ * </ul>
+ *
+ * <p>Hot paths resolve their metrics once and keep the reference, so
+ * recording costs no map lookup. Counters are {@link LongAdder}s and
+ * histograms are {@link LatencyHistogram}s; neither blocks writers.</p>
+ */
+public class ServiceMetrics {
+
+    private static final DateTimeFormatter DUMP_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService dumpScheduler;
+
+    /* =========================================================
+       Registration
+       ========================================================= */
+
+    /**
+     * @return the counter with this name, created if needed
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * @return the histogram with this name, created if needed
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /* =========================================================
+       Reading
+       ========================================================= */
+
+    /**
+     * @return current value of every counter, sorted by name
+     */
+    public SortedMap<String, Long> counterValues() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * @return summary of every histogram that has recorded values, sorted by name
+     */
+    public SortedMap<String, LatencyHistogram.Summary> histogramSummaries() {
+        SortedMap<String, LatencyHistogram.Summary> summaries = new TreeMap<>();
+        histograms.forEach((name, histogram) -> {
+            LatencyHistogram.Summary summary = histogram.summary();
+            if (summary.count() > 0) {
+                summaries.put(name, summary);
+            }
+        });
+        return summaries;
+    }
+
+    /**
+     * Renders all metrics as plain text, one metric per line.
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append("--- Metrics ").append(LocalDateTime.now().format(DUMP_TIME_FORMAT)).append(" ---\n");
+        counterValues().forEach((name, value) ->
+                out.append(String.format("%-45s %d%n", name, value)));
+        histogramSummaries().forEach((name, summary) ->
+                out.append(String.format("%-45s %s%n", name, summary.format())));
+        return out.toString();
+    }
+
+    /* =========================================================
+       Periodic dump
+       ========================================================= */
+
+    /**
+     * Prints {@link #format()} to {@code out} at a fixed interval on a
+     * background thread. Replaces any dump scheduled before.
+     *
+     * @param interval time between dumps
+     * @param out      destination, e.g. {@code System.err} or a log file
+     */
+    public synchronized void scheduleDump(Duration interval, PrintStream out) {
+        stopDump();
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        dumpScheduler.scheduleAtFixedRate(() -> {
+            try {
+                out.print(format());
+                out.flush();
+            } catch (RuntimeException e) {
+                EventLog.warn("metrics.dump.failed", "Metrics dump failed: {}", e.toString());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic dump, if one is scheduled.
+     */
+    public synchronized void stopDump() {
+        if (dumpScheduler != null) {
+            dumpScheduler.shutdownNow();
+            dumpScheduler = null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.zipaboutgui.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link RentalIdGenerator} that spreads id allocation over several
+ * independent counters so concurrent bookings do not contend on one
+ * cache line.
+ * <p>
+ * Shard {@code s} of {@code n} hands out {@code s + 1, s + 1 + n, s + 1 + 2n, ...},
+ * so ids stay unique across shards without coordination. Ids are unique
+ * but only roughly ordered by booking time.
+ */
+public class ShardedRentalIdGenerator implements RentalIdGenerator {
+
+    /**
+     * Distance between counters in the backing array (16 longs = 128 bytes),
+     * keeping each shard on its own cache line.
+     */
+    private static final int STRIDE = 16;
+
+    private final int shardCount;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * Creates a generator with one shard per available processor
+     * (rounded up to a power of two).
+     */
+    public ShardedRentalIdGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a generator with at least the given number of shards.
+     *
+     * @param minShards minimum number of shards
+     */
+    public ShardedRentalIdGenerator(int minShards) {
+        int n = Integer.highestOneBit(Math.max(1, minShards));
+        if (n < minShards) {
+            n <<= 1;
+        }
+        this.shardCount = n;
+        this.mask = n - 1;
+        this.counters = new AtomicLongArray(n * STRIDE);
+    }
+
+    @Override
+    public long nextId() {
+        int shard = (int) (Thread.currentThread().threadId() & mask);
+        long seq = counters.getAndIncrement(shard * STRIDE);
+        return seq * shardCount + shard + 1;
+    }
+
+    @Override
+    public void advancePast(long issuedId) {
+        // Move every shard so its next id is greater than issuedId
+        long minSeq = issuedId / shardCount + 1;
+        for (int shard = 0; shard < shardCount; shard++) {
+            int slot = shard * STRIDE;
+            long current;
+            do {
+                current = counters.get(slot);
+                if (current >= minSeq) {
+                    break;
+                }
+            } while (!counters.compareAndSet(slot, current, minSeq));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.zipaboutgui.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Growable array indexed by a dense slot number (such as
+ * {@link com.example.zipaboutgui.domain.vehicle.Vehicle#getFleetIndex()}),
+ * safe for concurrent reads and writes.
+ *
+ * <p>Entries live in fixed-size segments; growing only replaces the segment
+ * directory, so a write made while the table grows is never lost. Lookups
+ * are two array reads instead of a hash and {@code equals} calls.</p>
+ *
+ * @param <T> element type
+ */
+class SlotTable<T> {
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /** Segment directory; every element is an {@code AtomicReferenceArray<T>}. */
+    private volatile Object[] segments = new Object[0];
+
+    /**
+     * @return the element in the slot, or null if unset or out of range
+     */
+    T get(int slot) {
+        Object[] dir = segments;
+        int s = slot >>> SEGMENT_SHIFT;
+        return s < dir.length ? segment(dir, s).get(slot & SEGMENT_MASK) : null;
+    }
+
+    void set(int slot, T value) {
+        segmentFor(slot).set(slot & SEGMENT_MASK, value);
+    }
+
+    boolean compareAndSet(int slot, T expected, T value) {
+        return segmentFor(slot).compareAndSet(slot & SEGMENT_MASK, expected, value);
+    }
+
+    /**
+     * Returns the element in the slot, creating it atomically if absent.
+     */
+    T computeIfAbsent(int slot, IntFunction<T> factory) {
+        AtomicReferenceArray<T> segment = segmentFor(slot);
+        int i = slot & SEGMENT_MASK;
+        T current = segment.get(i);
+        if (current != null) {
+            return current;
+        }
+        T created = factory.apply(slot);
+        return segment.compareAndSet(i, null, created) ? created : segment.get(i);
+    }
+
+    private AtomicReferenceArray<T> segmentFor(int slot) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("Negative slot: " + slot);
+        }
+        int s = slot >>> SEGMENT_SHIFT;
+        Object[] dir = segments;
+        if (s < dir.length) {
+            return segment(dir, s);
+        }
+        synchronized (this) {
+            dir = segments;
+            if (s >= dir.length) {
+                Object[] grown = Arrays.copyOf(dir, s + 1);
+                for (int i = dir.length; i < grown.length; i++) {
+                    grown[i] = new AtomicReferenceArray<T>(SEGMENT_SIZE);
+                }
+                segments = grown;
+                dir = grown;
+            }
+            return segment(dir, s);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private AtomicReferenceArray<T> segment(Object[] dir, int s) {
+        return (AtomicReferenceArray<T>) dir[s];
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.zipaboutgui.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copy-on-write list whose current contents can be taken as an immutable
+ * {@link List} in O(1).
+ *
+ * <p>Like {@link java.util.concurrent.CopyOnWriteArrayList}, every change
+ * replaces the backing array, which suits rarely changing registries
+ * (users, vehicles). Unlike it, {@link #snapshot()} hands out the current
+ * array itself, wrapped read-only, instead of copying it.</p>
+ *
+ * @param <T> element type
+ */
+final class SnapshotList<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private volatile Object[] items = EMPTY;
+
+    synchronized void add(T item) {
+        Object[] current = items;
+        Object[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = item;
+        items = next;
+    }
+
+    synchronized void addAll(Collection<? extends T> added) {
+        Object[] current = items;
+        Object[] next = Arrays.copyOf(current, current.length + added.size());
+        int i = current.length;
+        for (T item : added) {
+            next[i++] = item;
+        }
+        items = next;
+    }
+
+    /**
+     * @return true if the item was present (compared with {@code equals})
+     */
+    synchronized boolean remove(Object item) {
+        Object[] current = items;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].equals(item)) {
+                Object[] next = new Object[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                items = next;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    int size() {
+        return items.length;
+    }
+
+    /**
+     * @return the current contents as an unmodifiable list; later changes
+     *         to this list are not visible through it
+     */
+    @SuppressWarnings("unchecked")
+    List<T> snapshot() {
+        return Collections.unmodifiableList((List<T>) Arrays.asList(items));
+    }
+}
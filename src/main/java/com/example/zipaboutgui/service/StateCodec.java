@@ -0,0 +1,229 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.*;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.ElectricVehicle;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import com.example.zipaboutgui.domain.vehicle.electric.EBike;
+import com.example.zipaboutgui.domain.vehicle.electric.EScooter;
+import com.example.zipaboutgui.domain.vehicle.internal.VehicleInternals;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Binary encoding of users and vehicles (including their parts and
+ * equipment), shared by {@link RentalJournal} and the snapshot files.
+ * <p>
+ * Vehicles are rebuilt through {@link VehicleFactory} using
+ * {@link Vehicle#getKind()}, then their configurable attributes are
+ * restored with the regular setters.
+ */
+final class StateCodec {
+
+    private static final VehicleFactory FACTORY = new VehicleFactory();
+
+    private StateCodec() {
+    }
+
+    /* =========================================================
+       Users
+       ========================================================= */
+
+    static void encodeUser(BinaryEncoder out, User user) {
+        out.putString(user.getId());
+        out.putString(user.getUsername());
+        out.putString(user.getName());
+        out.putString(user.getPassword());
+        out.putEnum(user.getRole());
+    }
+
+    static User decodeUser(ByteBuffer in) {
+        String id = BinaryEncoder.getString(in);
+        String username = BinaryEncoder.getString(in);
+        String name = BinaryEncoder.getString(in);
+        String password = BinaryEncoder.getString(in);
+        Role role = BinaryEncoder.getEnum(in, Role.values());
+        return new User(id, username, name, password, role);
+    }
+
+    /* =========================================================
+       Vehicles
+       ========================================================= */
+
+    static void encodeVehicle(BinaryEncoder out, Vehicle vehicle) {
+        out.putEnum(vehicle.getKind());
+        out.putString(vehicle.getId());
+        out.putString(vehicle.getAssetCode());
+        out.putString(vehicle.getMake());
+        out.putString(vehicle.getModel());
+
+        List<Equipment> equipments = vehicle.getEquipments();
+        out.putInt(equipments.size());
+        for (Equipment e : equipments) {
+            out.putEnum(e.getType());
+            out.putString(e.getMaterial());
+            out.putString(e.getSize());
+        }
+
+        if (vehicle instanceof ElectricVehicle ev) {
+            encodeBattery(out, ev.getBattery());
+
+            Motor motor = ev.getMotor();
+            out.putBoolean(motor != null);
+            if (motor != null) {
+                out.putInt(motor.getPowerW());
+            }
+
+            Controller controller = ev.getController();
+            out.putBoolean(controller != null);
+            if (controller != null) {
+                out.putString(controller.getFirmwareVersion());
+            }
+
+            out.putEnum(ev.getRideMode());
+            out.putEnum(ev.getMotorType());
+            out.putEnum(ev.getPasType());
+            out.putBoolean(ev.isLightsIntegrated());
+            out.putBoolean(ev.isHasThrottle());
+            out.putDouble(ev.getMaxSpeedKmH());
+            out.putDouble(ev.getRangeKm());
+        }
+
+        if (vehicle instanceof EBike bike) {
+            out.putInt(bike.getAssistLevel());
+            out.putDouble(bike.getWheelSizeInch());
+            out.putInt(bike.getTireWidthMm());
+            out.putInt(bike.getGearCount());
+            out.putEnum(bike.getBrakeType());
+            out.putEnum(bike.getFrameType());
+            out.putEnum(bike.getSuspensionType());
+            out.putBoolean(bike.hasPedals());
+            DisplayFeature[] features = bike.getDisplayFeatures();
+            out.putInt(features == null ? -1 : features.length);
+            if (features != null) {
+                for (DisplayFeature f : features) {
+                    out.putEnum(f);
+                }
+            }
+        } else if (vehicle instanceof EScooter scooter) {
+            out.putEnum(scooter.getScooterType());
+        }
+    }
+
+    static Vehicle decodeVehicle(ByteBuffer in) {
+        VehicleKind kind = BinaryEncoder.getEnum(in, VehicleKind.values());
+        String id = BinaryEncoder.getString(in);
+        String assetCode = BinaryEncoder.getString(in);
+        String make = BinaryEncoder.getString(in);
+        String model = BinaryEncoder.getString(in);
+
+        Equipment[] equipments = new Equipment[in.getInt()];
+        for (int i = 0; i < equipments.length; i++) {
+            EquipmentType type = BinaryEncoder.getEnum(in, EquipmentType.values());
+            String material = BinaryEncoder.getString(in);
+            String size = BinaryEncoder.getString(in);
+            equipments[i] = new Equipment(type, material, size);
+        }
+
+        Battery battery = null;
+        Motor motor = null;
+        Controller controller = null;
+        boolean electric = isElectric(kind);
+        if (electric) {
+            battery = decodeBattery(in);
+            if (BinaryEncoder.getBoolean(in)) {
+                motor = new Motor(in.getInt());
+            }
+            if (BinaryEncoder.getBoolean(in)) {
+                controller = new Controller(BinaryEncoder.getString(in));
+            }
+        }
+
+        Vehicle vehicle = FACTORY.createVehicle(
+                kind, make, model, equipments, battery, motor, controller
+        );
+        VehicleInternals.restoreId(vehicle, id);
+        if (assetCode != null) {
+            vehicle.assignAssetCode(assetCode);
+        }
+
+        if (electric) {
+            ElectricVehicle ev = (ElectricVehicle) vehicle;
+            ev.setRideMode(BinaryEncoder.getEnum(in, RideMode.values()));
+            ev.setMotorType(BinaryEncoder.getEnum(in, MotorType.values()));
+            ev.setPasType(BinaryEncoder.getEnum(in, PasType.values()));
+            ev.setLightsIntegrated(BinaryEncoder.getBoolean(in));
+            ev.setHasThrottle(BinaryEncoder.getBoolean(in));
+            ev.setMaxSpeedKmH(in.getDouble());
+            ev.setRangeKm(in.getDouble());
+        }
+
+        if (vehicle instanceof EBike bike) {
+            bike.setAssistLevel(in.getInt());
+            bike.setWheelSizeInch(in.getDouble());
+            bike.setTireWidthMm(in.getInt());
+            bike.setGearCount(in.getInt());
+            bike.setBrakeType(BinaryEncoder.getEnum(in, BrakeType.values()));
+            bike.setFrameType(BinaryEncoder.getEnum(in, FrameType.values()));
+            bike.setSuspensionType(BinaryEncoder.getEnum(in, SuspensionType.values()));
+            bike.setHasPedals(BinaryEncoder.getBoolean(in));
+            int featureCount = in.getInt();
+            if (featureCount < 0) {
+                bike.setDisplayFeatures(null);
+            } else {
+                DisplayFeature[] features = new DisplayFeature[featureCount];
+                for (int i = 0; i < featureCount; i++) {
+                    features[i] = BinaryEncoder.getEnum(in, DisplayFeature.values());
+                }
+                bike.setDisplayFeatures(features);
+            }
+        } else if (vehicle instanceof EScooter scooter) {
+            scooter.setScooterType(BinaryEncoder.getEnum(in, ScooterType.values()));
+        }
+
+        return vehicle;
+    }
+
+    private static boolean isElectric(VehicleKind kind) {
+        return switch (kind) {
+            case E_BIKE, E_SCOOTER, E_SKATEBOARD, SEGWAY -> true;
+            case BIKE, KICK_SCOOTER, SKATEBOARD -> false;
+        };
+    }
+
+    /* =========================================================
+       Parts
+       ========================================================= */
+
+    private static void encodeBattery(BinaryEncoder out, Battery battery) {
+        out.putBoolean(battery != null);
+        if (battery == null) {
+            return;
+        }
+        out.putDouble(battery.getCapacityWh());
+        out.putDouble(battery.getLevel());
+        out.putBoolean(battery.isRemovable());
+        out.putInt(battery.getCycleCount());
+        out.putEnum(battery.getChemistry());
+    }
+
+    private static Battery decodeBattery(ByteBuffer in) {
+        if (!BinaryEncoder.getBoolean(in)) {
+            return null;
+        }
+        double capacityWh = in.getDouble();
+        double level = in.getDouble();
+        boolean removable = BinaryEncoder.getBoolean(in);
+        int cycleCount = in.getInt();
+        BatteryChemistry chemistry = BinaryEncoder.getEnum(in, BatteryChemistry.values());
+        Battery battery = new Battery(capacityWh, level, removable, chemistry);
+        battery.setCycleCount(cycleCount);
+        return battery;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.util.List;
+
+/**
+ * Read-only view of the users, vehicles and rentals of a
+ * {@link RentalService} at one point in time.
+ *
+ * <p>Taking a view ({@link RentalService#snapshot()}) costs O(1): the lists
+ * share the service's copy-on-write arrays and its append-only rental log.
+ * The version and all three lists are taken while every booking stripe is
+ * held, so they describe the same moment: every rental's vehicle
+ * is in the view, and no change is half-applied. The lists do not change
+ * afterwards, so UI tables and reports can iterate them while bookings
+ * continue.</p>
+ *
+ * <p>The collections are frozen, the objects in them are not: a rental in
+ * the view still reports its current status.</p>
+ *
+ * <p>{@link #getVersion()} counts the service's changes up to the view.
+ * Comparing it with {@link RentalService#getStateVersion()} tells a
+ * screen whether it needs to refresh.</p>
+ */
+public final class StateView {
+
+    private final long version;
+    private final List<User> users;
+    private final List<Vehicle> vehicles;
+    private final List<Rental> rentals;
+
+    StateView(long version, List<User> users, List<Vehicle> vehicles, List<Rental> rentals) {
+        this.version = version;
+        this.users = users;
+        this.vehicles = vehicles;
+        this.rentals = rentals;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** Registered users, in registration order (unmodifiable). */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /** Registered vehicles, in registration order (unmodifiable). */
+    public List<Vehicle> getVehicles() {
+        return vehicles;
+    }
+
+    /** All rentals, in booking order (unmodifiable). */
+    public List<Rental> getRentals() {
+        return rentals;
+    }
+}
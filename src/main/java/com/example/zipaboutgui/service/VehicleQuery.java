@@ -0,0 +1,112 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fluent fleet search, answered from the {@link FleetIndex} bitmaps.
+ *
+ * <p>Example: available e-scooters in SPORT mode</p>
+ * <pre>
+ *   List&lt;Vehicle&gt; hits = rentalService.queryVehicles()
+ *           .availableOnly()
+ *           .with(VehicleKind.E_SCOOTER)
+ *           .with(RideMode.SPORT)
+ *           .list();
+ * </pre>
+ *
+ * <p>Each {@code with}/{@code withAny} call adds a condition that must
+ * hold (AND); {@code withAny} matches any of the given values (OR).
+ * Results reflect the fleet at the time of the call; a listed vehicle
+ * can still be taken before it is booked, which {@link RentalService#bookVehicle}
+ * reports as usual.</p>
+ */
+public final class VehicleQuery {
+
+    private final FleetIndex index;
+    private final List<Enum<?>[]> clauses = new ArrayList<>();
+    private boolean availableOnly;
+
+    VehicleQuery(FleetIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Keeps only vehicles that are not currently rented.
+     */
+    public VehicleQuery availableOnly() {
+        this.availableOnly = true;
+        return this;
+    }
+
+    /**
+     * Requires the given attribute value (e.g. {@code VehicleKind.E_BIKE},
+     * {@code BrakeType.HYDRAULIC_DISC}).
+     */
+    public VehicleQuery with(Enum<?> value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Query value must not be null");
+        }
+        clauses.add(new Enum<?>[]{value});
+        return this;
+    }
+
+    /**
+     * Requires one of the given values of the same attribute.
+     */
+    @SafeVarargs
+    public final <E extends Enum<E>> VehicleQuery withAny(E... values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("At least one value is required");
+        }
+        // Copy rather than keep the generic varargs array
+        Enum<?>[] clause = new Enum<?>[values.length];
+        for (int i = 0; i < values.length; i++) {
+            clause[i] = values[i];
+        }
+        clauses.add(clause);
+        return this;
+    }
+
+    /**
+     * @return matching vehicles, in registration order
+     */
+    public List<Vehicle> list() {
+        return index.vehiclesOf(index.evaluate(clauses, availableOnly));
+    }
+
+    /**
+     * @return number of matching vehicles (no result list is built)
+     */
+    public int count() {
+        return FleetIndex.count(index.evaluate(clauses, availableOnly));
+    }
+
+    /**
+     * Average battery charge of the matching vehicles, e.g. "average charge
+     * of available e-bikes". Computed over the battery columns without
+     * touching vehicle objects.
+     *
+     * @return average level (0–100), or NaN if no match has a battery
+     */
+    public double averageBatteryLevel() {
+        return index.batteries().averageLevel(index.evaluate(clauses, availableOnly));
+    }
+
+    /**
+     * @return energy currently stored in the matching vehicles' batteries, in Wh
+     */
+    public double totalBatteryEnergyWh() {
+        return index.batteries().totalEnergyWh(index.evaluate(clauses, availableOnly));
+    }
+
+    /**
+     * @param level charge level (0–100)
+     * @return number of matching vehicles whose battery is below {@code level}
+     */
+    public int countBatteryBelow(double level) {
+        return index.batteries().countBelow(index.evaluate(clauses, availableOnly), level);
+    }
+}
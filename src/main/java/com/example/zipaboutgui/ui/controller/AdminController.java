@@ -2,15 +2,17 @@ package com.example.zipaboutgui.ui.controller;
 
 import com.example.zipaboutgui.service.Rental;
 import com.example.zipaboutgui.service.RentalService;
+import com.example.zipaboutgui.ui.util.BackgroundLoader;
+import com.example.zipaboutgui.ui.util.CachedScreen;
+import com.example.zipaboutgui.ui.util.FxChangeFeed;
+import com.example.zipaboutgui.ui.util.LiveList;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 
-import java.time.format.DateTimeFormatter;
-
 /**
  * Controller for the Admin "Active Rentals" screen.
  *
@@ -28,7 +30,7 @@ import java.time.format.DateTimeFormatter;
  *
  * <p>No modification or control of rentals is allowed from this screen.</p>
  */
-public class AdminController {
+public class AdminController implements CachedScreen {
 
     /**
      * Table displaying all active rentals.
@@ -78,10 +80,11 @@ public class AdminController {
     private final RentalService rentalService = RentalService.getInstance();
 
     /**
-     * Formatter used to display date-time values consistently in the table.
+     * Active rentals shown in the table, kept current by the change feed.
      */
-    private static final DateTimeFormatter TIME_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private LiveList<Rental> activeRentals;
+    private FxChangeFeed.Subscription changes;
+    private final BackgroundLoader loader = new BackgroundLoader();
 
     /**
      * JavaFX initialization method.
@@ -123,7 +126,7 @@ public class AdminController {
         // Rental start time column
         startTimeColumn.setCellValueFactory(data ->
                 new SimpleStringProperty(
-                        data.getValue().getStartTime().format(TIME_FORMATTER)
+                        data.getValue().formatStartTime()
                 )
         );
 
@@ -134,12 +137,34 @@ public class AdminController {
                 )
         );
 
-        // Populate table with active rentals only
-        rentalsTable.setItems(
-                FXCollections.observableArrayList(
-                        rentalService.getActiveRentals()
-                )
-        );
+        // Populate table with active rentals only, loaded in the background;
+        // the change feed adds new rentals and drops ended ones without
+        // reloading the table
+        activeRentals = new LiveList<>(Rental::isActive);
+        SortedList<Rental> items = new SortedList<>(activeRentals);
+        items.comparatorProperty().bind(rentalsTable.comparatorProperty());
+        rentalsTable.setItems(items);
+    }
+
+    /**
+     * Subscribes to the change feed, then loads the active rentals.
+     */
+    @Override
+    public void onLoad() {
+        changes = FxChangeFeed.subscribe(batch -> activeRentals.apply(batch.getRentals()));
+        loader.loadInto(rentalsTable, "active rentals",
+                rentalService::getActiveRentals, activeRentals::load);
+    }
+
+    /**
+     * Stops the change feed and any query still running.
+     */
+    @Override
+    public void dispose() {
+        loader.cancelAll();
+        if (changes != null) {
+            changes.cancel();
+        }
     }
 
     /**
@@ -1,8 +1,25 @@
 package com.example.zipaboutgui.ui.controller;
 
+import com.example.zipaboutgui.service.LatencyHistogram;
+import com.example.zipaboutgui.service.RentalService;
+import com.example.zipaboutgui.service.ServiceMetrics;
+import com.example.zipaboutgui.ui.util.CachedScreen;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
 import com.example.zipaboutgui.ui.util.Session;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Controller for the Admin Home screen.
@@ -18,10 +35,117 @@ import javafx.fxml.FXML;
  * </ul>
  * </p>
  *
+ * <p>Below the navigation, a live panel shows the service's
+ * {@link ServiceMetrics}: counters and per-operation latency
+ * percentiles, refreshed once per second while the screen is shown.</p>
+ *
  * <p>The controller contains no business logic and is responsible
- * only for handling navigation actions.</p>
+ * only for navigation and displaying metrics.</p>
  */
-public class AdminHomeController {
+public class AdminHomeController implements CachedScreen {
+
+    /**
+     * How often the metrics panel is refreshed.
+     */
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(1);
+
+    /**
+     * Counters (bookings, rejections, ...) in one line.
+     */
+    @FXML
+    private Label countersLabel;
+
+    /**
+     * One row per latency histogram.
+     */
+    @FXML
+    private TableView<Map.Entry<String, LatencyHistogram.Summary>> metricsTable;
+
+    @FXML
+    private TableColumn<Map.Entry<String, LatencyHistogram.Summary>, String> metricNameColumn;
+
+    @FXML
+    private TableColumn<Map.Entry<String, LatencyHistogram.Summary>, String> metricCountColumn;
+
+    @FXML
+    private TableColumn<Map.Entry<String, LatencyHistogram.Summary>, String> metricP50Column;
+
+    @FXML
+    private TableColumn<Map.Entry<String, LatencyHistogram.Summary>, String> metricP99Column;
+
+    @FXML
+    private TableColumn<Map.Entry<String, LatencyHistogram.Summary>, String> metricMaxColumn;
+
+    /**
+     * Metrics of the shared service.
+     */
+    private final ServiceMetrics metrics = RentalService.getInstance().getMetrics();
+
+    /**
+     * Drives the periodic refresh on the JavaFX thread.
+     */
+    private Timeline refreshTimeline;
+
+    /**
+     * JavaFX initialization method.
+     *
+     * <p>Configures the metrics table; the refresh timeline runs while
+     * the screen is shown.</p>
+     */
+    @FXML
+    public void initialize() {
+        metricNameColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(data.getValue().getKey()));
+        metricCountColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(String.valueOf(data.getValue().getValue().count())));
+        metricP50Column.setCellValueFactory(data ->
+                new SimpleStringProperty(micros(data.getValue().getValue().p50())));
+        metricP99Column.setCellValueFactory(data ->
+                new SimpleStringProperty(micros(data.getValue().getValue().p99())));
+        metricMaxColumn.setCellValueFactory(data ->
+                new SimpleStringProperty(micros(data.getValue().getValue().max())));
+
+    }
+
+    @Override
+    public void onLoad() {
+        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refreshMetrics()));
+        refreshTimeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    @Override
+    public void onShow() {
+        refreshMetrics();
+        refreshTimeline.play();
+    }
+
+    /**
+     * Stops polling the metrics while another screen is shown.
+     */
+    @Override
+    public void onHide() {
+        refreshTimeline.stop();
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimeline.stop();
+    }
+
+    /**
+     * Reads the current metrics and updates the panel.
+     */
+    private void refreshMetrics() {
+        countersLabel.setText(metrics.counterValues().entrySet().stream()
+                .map(e -> e.getKey() + ": " + e.getValue())
+                .collect(Collectors.joining("   ")));
+        metricsTable.setItems(FXCollections.observableArrayList(
+                new ArrayList<>(metrics.histogramSummaries().entrySet())));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1e3);
+    }
 
     /**
      * Navigates to the Active Rentals screen.
@@ -40,6 +164,7 @@ public class AdminHomeController {
     private void handleLogout() {
         Session.logout();
         SceneSwitcher.switchTo("login.fxml");
+        SceneSwitcher.clearCache();
     }
 
     /**
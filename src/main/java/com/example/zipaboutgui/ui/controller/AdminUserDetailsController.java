@@ -1,18 +1,21 @@
 package com.example.zipaboutgui.ui.controller;
 
 import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.service.LocalMillis;
 import com.example.zipaboutgui.service.Rental;
 import com.example.zipaboutgui.service.RentalService;
 import com.example.zipaboutgui.ui.util.AdminUserContext;
+import com.example.zipaboutgui.ui.util.BackgroundLoader;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
+import com.example.zipaboutgui.ui.util.TablePager;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -85,10 +88,9 @@ public class AdminUserDetailsController {
     private final RentalService rentalService = RentalService.getInstance();
 
     /**
-     * Formatter for displaying date-time values consistently.
+     * Runs the history query off the FX thread.
      */
-    private static final DateTimeFormatter TIME_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private final BackgroundLoader loader = new BackgroundLoader();
 
     /**
      * JavaFX initialization method.
@@ -128,7 +130,7 @@ public class AdminUserDetailsController {
                             + " - "
                             + r.getVehicle().getModel()
                             + " (since "
-                            + r.getStartTime().format(TIME_FORMATTER)
+                            + r.formatStartTime()
                             + ")"
             );
         }
@@ -145,14 +147,14 @@ public class AdminUserDetailsController {
 
         startColumn.setCellValueFactory(
                 data -> new SimpleStringProperty(
-                        data.getValue().getStartTime().format(TIME_FORMATTER)
+                        data.getValue().formatStartTime()
                 )
         );
 
         endColumn.setCellValueFactory(
                 data -> new SimpleStringProperty(
-                        data.getValue().getEndTime() != null
-                                ? data.getValue().getEndTime().format(TIME_FORMATTER)
+                        data.getValue().getEndMillis() != LocalMillis.NONE
+                                ? data.getValue().formatEndTime()
                                 : "n/a"
                 )
         );
@@ -163,11 +165,18 @@ public class AdminUserDetailsController {
                 )
         );
 
-        pastRentalsTable.setItems(
-                FXCollections.observableArrayList(
-                        rentalService.getPastRentalsForUser(user)
-                )
-        );
+        // Past rentals are loaded a page at a time, newest first, as the
+        // admin scrolls down the table
+        ObservableList<Rental> pastRentals = FXCollections.observableArrayList();
+        pastRentalsTable.setItems(pastRentals);
+        new TablePager<Rental>(pastRentalsTable, loader, "past rentals",
+                (cursor, pageSize) -> rentalService.queryRentals()
+                        .forUser(user)
+                        .completedOnly()
+                        .newestFirst()
+                        .after(cursor, pageSize),
+                pastRentals::addAll
+        ).start();
     }
 
     /**
@@ -176,6 +185,7 @@ public class AdminUserDetailsController {
      */
     @FXML
     private void handleBack() {
+        loader.cancelAll();
         AdminUserContext.clear();
         SceneSwitcher.switchTo("admin_users.fxml");
     }
@@ -4,9 +4,13 @@ import com.example.zipaboutgui.domain.enums.Role;
 import com.example.zipaboutgui.domain.user.User;
 import com.example.zipaboutgui.service.RentalService;
 import com.example.zipaboutgui.ui.util.AdminUserContext;
+import com.example.zipaboutgui.ui.util.BackgroundLoader;
+import com.example.zipaboutgui.ui.util.CachedScreen;
+import com.example.zipaboutgui.ui.util.FxChangeFeed;
+import com.example.zipaboutgui.ui.util.LiveList;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.TableColumn;
@@ -27,7 +31,7 @@ import javafx.scene.control.Alert;
  *
  * <p>Administrative users are intentionally excluded from this list.</p>
  */
-public class AdminUsersController {
+public class AdminUsersController implements CachedScreen {
 
     /**
      * Table displaying all non-admin users.
@@ -35,6 +39,13 @@ public class AdminUsersController {
     @FXML
     private TableView<User> usersTable;
 
+    /**
+     * Users shown in the table, kept current by the change feed.
+     */
+    private LiveList<User> users;
+    private FxChangeFeed.Subscription changes;
+    private final BackgroundLoader loader = new BackgroundLoader();
+
     /**
      * Column showing the user ID.
      */
@@ -73,8 +84,8 @@ public class AdminUsersController {
     /**
      * JavaFX initialization method.
      *
-     * <p>Configures the table columns and populates the table
-     * with all standard users retrieved from {@link RentalService}.</p>
+     * <p>Configures the table columns and binds the table to the list
+     * of standard users, which {@link #onLoad()} fills.</p>
      */
     @FXML
     public void initialize() {
@@ -108,14 +119,43 @@ public class AdminUsersController {
                 )
         );
 
-        // Populate table with non-admin users only
-        usersTable.setItems(
-                FXCollections.observableArrayList(
-                        rentalService.getUsers().stream()
-                                .filter(user -> user.getRole() == Role.USER)
-                                .toList()
-                )
-        );
+        // Non-admin users only; the SortedList lets columns sort without
+        // modifying the list
+        users = new LiveList<>(user -> user.getRole() == Role.USER);
+        SortedList<User> items = new SortedList<>(users);
+        items.comparatorProperty().bind(usersTable.comparatorProperty());
+        usersTable.setItems(items);
+    }
+
+    /**
+     * Subscribes to the change feed, then loads the users.
+     *
+     * <p>The table is loaded once, in the background. Registrations,
+     * removals and loyalty changes from completed rentals then arrive
+     * through the change feed and update single rows.</p>
+     */
+    @Override
+    public void onLoad() {
+        changes = FxChangeFeed.subscribe(batch -> {
+            users.discard(batch.getRemovedUsers());
+            users.apply(batch.getUsers());
+        });
+        loader.loadInto(usersTable, "users",
+                () -> rentalService.getUsers().stream()
+                        .filter(user -> user.getRole() == Role.USER)
+                        .toList(),
+                users::load);
+    }
+
+    /**
+     * Stops the change feed and any query still running.
+     */
+    @Override
+    public void dispose() {
+        loader.cancelAll();
+        if (changes != null) {
+            changes.cancel();
+        }
     }
 
     /**
@@ -212,7 +252,6 @@ public class AdminUsersController {
             return;
         }
 
-        // Refresh table by removing the deleted user
-        usersTable.getItems().remove(selected);
+        // The table drops the row when the change feed delivers the removal
     }
 }
@@ -1,20 +1,21 @@
 package com.example.zipaboutgui.ui.controller;
 
 import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.service.LocalMillis;
 import com.example.zipaboutgui.service.Rental;
 import com.example.zipaboutgui.service.RentalService;
 import com.example.zipaboutgui.ui.util.AdminVehicleContext;
+import com.example.zipaboutgui.ui.util.BackgroundLoader;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
+import com.example.zipaboutgui.ui.util.TablePager;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-
 /**
  * Controller for the Admin "Vehicle Details" screen.
  *
@@ -75,10 +76,9 @@ public class AdminVehicleDetailsController {
     private final RentalService rentalService = RentalService.getInstance();
 
     /**
-     * Formatter used to display date-time values consistently.
+     * Runs the history query off the FX thread.
      */
-    private static final DateTimeFormatter TIME_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private final BackgroundLoader loader = new BackgroundLoader();
 
     /**
      * JavaFX initialization method.
@@ -119,7 +119,7 @@ public class AdminVehicleDetailsController {
                     active.getUser().getUsername()
                             + " (" + active.getUser().getName() + ")"
                             + " since "
-                            + active.getStartTime().format(TIME_FORMATTER)
+                            + active.formatStartTime()
             );
         }
 
@@ -135,14 +135,14 @@ public class AdminVehicleDetailsController {
 
         startColumn.setCellValueFactory(
                 data -> new SimpleStringProperty(
-                        data.getValue().getStartTime().format(TIME_FORMATTER)
+                        data.getValue().formatStartTime()
                 )
         );
 
         endColumn.setCellValueFactory(
                 data -> new SimpleStringProperty(
-                        data.getValue().getEndTime() != null
-                                ? data.getValue().getEndTime().format(TIME_FORMATTER)
+                        data.getValue().getEndMillis() != LocalMillis.NONE
+                                ? data.getValue().formatEndTime()
                                 : "n/a"
                 )
         );
@@ -153,13 +153,18 @@ public class AdminVehicleDetailsController {
                 )
         );
 
-        // Load past rentals for the selected vehicle
-        List<Rental> pastRentals =
-                rentalService.getPastRentalsForVehicle(vehicle);
-
-        pastRentalsTable.setItems(
-                FXCollections.observableArrayList(pastRentals)
-        );
+        // Past rentals are loaded a page at a time, newest first, as the
+        // admin scrolls down the table
+        ObservableList<Rental> pastRentals = FXCollections.observableArrayList();
+        pastRentalsTable.setItems(pastRentals);
+        new TablePager<Rental>(pastRentalsTable, loader, "past rentals",
+                (cursor, pageSize) -> rentalService.queryRentals()
+                        .forVehicle(vehicle)
+                        .completedOnly()
+                        .newestFirst()
+                        .after(cursor, pageSize),
+                pastRentals::addAll
+        ).start();
     }
 
     /**
@@ -168,6 +173,7 @@ public class AdminVehicleDetailsController {
      */
     @FXML
     private void handleBack() {
+        loader.cancelAll();
         AdminVehicleContext.clear();
         SceneSwitcher.switchTo("admin_vehicles.fxml");
     }
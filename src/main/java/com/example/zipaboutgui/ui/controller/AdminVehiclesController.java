@@ -3,9 +3,13 @@ package com.example.zipaboutgui.ui.controller;
 import com.example.zipaboutgui.domain.vehicle.Vehicle;
 import com.example.zipaboutgui.service.RentalService;
 import com.example.zipaboutgui.ui.util.AdminVehicleContext;
+import com.example.zipaboutgui.ui.util.BackgroundLoader;
+import com.example.zipaboutgui.ui.util.CachedScreen;
+import com.example.zipaboutgui.ui.util.FxChangeFeed;
+import com.example.zipaboutgui.ui.util.LiveList;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -27,7 +31,7 @@ import javafx.scene.control.TableView;
  *
  * <p>No rental or booking actions are allowed from this screen.</p>
  */
-public class AdminVehiclesController {
+public class AdminVehiclesController implements CachedScreen {
 
     /**
      * Table displaying all vehicles in the system.
@@ -64,6 +68,13 @@ public class AdminVehiclesController {
      */
     private final RentalService rentalService = RentalService.getInstance();
 
+    /**
+     * Vehicles shown in the table, kept current by the change feed.
+     */
+    private LiveList<Vehicle> vehicles;
+    private FxChangeFeed.Subscription changes;
+    private final BackgroundLoader loader = new BackgroundLoader();
+
     /**
      * JavaFX initialization method.
      *
@@ -95,12 +106,34 @@ public class AdminVehiclesController {
                 )
         );
 
-        // Populate table with all vehicles
-        vehiclesTable.setItems(
-                FXCollections.observableArrayList(
-                        rentalService.getVehicles()
-                )
-        );
+        // Populate table with all vehicles once, in the background; new
+        // vehicles and status changes then arrive through the change feed,
+        // row by row. The SortedList lets columns sort without modifying
+        // the list.
+        vehicles = new LiveList<>(vehicle -> true);
+        SortedList<Vehicle> items = new SortedList<>(vehicles);
+        items.comparatorProperty().bind(vehiclesTable.comparatorProperty());
+        vehiclesTable.setItems(items);
+    }
+
+    /**
+     * Subscribes to the change feed, then loads the vehicles.
+     */
+    @Override
+    public void onLoad() {
+        changes = FxChangeFeed.subscribe(batch -> vehicles.apply(batch.getVehicles()));
+        loader.loadInto(vehiclesTable, "vehicles", rentalService::getVehicles, vehicles::load);
+    }
+
+    /**
+     * Stops the change feed and any query still running.
+     */
+    @Override
+    public void dispose() {
+        loader.cancelAll();
+        if (changes != null) {
+            changes.cancel();
+        }
     }
 
     /**
@@ -109,11 +109,14 @@ public class LoginController {
         // Store logged-in user in session
         Session.loginUser(selectedUser);
 
-        // Navigate based on role
+        // Navigate based on role, then preload the screens
+        // the user is likely to open next
         if (selectedUser.isAdmin()) {
             SceneSwitcher.switchTo("admin_home.fxml");
+            SceneSwitcher.preload("admin.fxml", "admin_users.fxml", "admin_vehicles.fxml");
         } else {
             SceneSwitcher.switchTo("vehicles.fxml");
+            SceneSwitcher.preload("my_rentals.fxml");
         }
     }
 
@@ -1,15 +1,24 @@
 package com.example.zipaboutgui.ui.controller;
 
+import com.example.zipaboutgui.domain.user.User;
 import com.example.zipaboutgui.service.RentalService;
+import com.example.zipaboutgui.service.LocalMillis;
 import com.example.zipaboutgui.service.Rental;
+import com.example.zipaboutgui.ui.util.BackgroundLoader;
+import com.example.zipaboutgui.ui.util.CachedScreen;
+import com.example.zipaboutgui.ui.util.FxChangeFeed;
+import com.example.zipaboutgui.ui.util.LiveList;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
 import com.example.zipaboutgui.ui.util.Session;
+import com.example.zipaboutgui.ui.util.TablePager;
+import javafx.beans.binding.Bindings;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 
 /**
  * Controller for the "My Rentals" screen.
@@ -28,7 +37,7 @@ import java.time.format.DateTimeFormatter;
  *
  * <p>Both active and completed rentals are shown.</p>
  */
-public class MyRentalsController {
+public class MyRentalsController implements CachedScreen {
 
     /**
      * Table displaying all rentals for the currently logged-in user.
@@ -72,10 +81,17 @@ public class MyRentalsController {
     private final RentalService rentalService = RentalService.getInstance();
 
     /**
-     * Formatter used to display date-time values consistently.
+     * The user's rentals, kept current by the change feed.
      */
-    private static final DateTimeFormatter TIME_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private LiveList<Rental> rentals;
+    private FxChangeFeed.Subscription changes;
+    private final BackgroundLoader loader = new BackgroundLoader();
+
+    /**
+     * Row order while no column is sorted.
+     */
+    private static final Comparator<Rental> NEWEST_FIRST =
+            Comparator.comparingLong(Rental::getStartMillis).reversed();
 
     /**
      * JavaFX initialization method.
@@ -103,17 +119,15 @@ public class MyRentalsController {
         // Rental start time column
         startCol.setCellValueFactory(cell ->
                 new javafx.beans.property.SimpleStringProperty(
-                        cell.getValue().getStartTime() != null
-                                ? cell.getValue().getStartTime().format(TIME_FORMATTER)
-                                : "n/a"
+                        cell.getValue().formatStartTime()
                 )
         );
 
         // Rental end time column
         endCol.setCellValueFactory(cell ->
                 new javafx.beans.property.SimpleStringProperty(
-                        cell.getValue().getEndTime() != null
-                                ? cell.getValue().getEndTime().format(TIME_FORMATTER)
+                        cell.getValue().getEndMillis() != LocalMillis.NONE
+                                ? cell.getValue().formatEndTime()
                                 : "Active"
                 )
         );
@@ -123,10 +137,48 @@ public class MyRentalsController {
                 new PropertyValueFactory<>("status")
         );
 
-        // Populate table with rentals for the logged-in user
-        rentalsTable.getItems().setAll(
-                rentalService.getRentalsForUser(Session.getCurrentUser())
-        );
+        // Populate table with rentals for the logged-in user, a page at a
+        // time as the user scrolls; later bookings are added and
+        // completions update their row in place. Unsorted, the newest
+        // rental is on top.
+        User currentUser = Session.getCurrentUser();
+        rentals = new LiveList<>(rental -> rental.getUser() == currentUser);
+        SortedList<Rental> items = new SortedList<>(rentals);
+        items.comparatorProperty().bind(Bindings.createObjectBinding(
+                () -> rentalsTable.getComparator() != null
+                        ? rentalsTable.getComparator()
+                        : NEWEST_FIRST,
+                rentalsTable.comparatorProperty()
+        ));
+        rentalsTable.setItems(items);
+    }
+
+    /**
+     * Subscribes to the change feed, then loads the first page of the
+     * user's rentals.
+     */
+    @Override
+    public void onLoad() {
+        User currentUser = Session.getCurrentUser();
+        changes = FxChangeFeed.subscribe(batch -> rentals.apply(batch.getRentals()));
+        new TablePager<Rental>(rentalsTable, loader, "rentals",
+                (cursor, pageSize) -> rentalService.queryRentals()
+                        .forUser(currentUser)
+                        .newestFirst()
+                        .after(cursor, pageSize),
+                rentals::load
+        ).start();
+    }
+
+    /**
+     * Stops the change feed and any query still running.
+     */
+    @Override
+    public void dispose() {
+        loader.cancelAll();
+        if (changes != null) {
+            changes.cancel();
+        }
     }
 
     /**
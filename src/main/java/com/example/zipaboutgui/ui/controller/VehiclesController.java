@@ -4,10 +4,15 @@ import com.example.zipaboutgui.domain.user.User;
 import com.example.zipaboutgui.domain.vehicle.Vehicle;
 import com.example.zipaboutgui.service.Rental;
 import com.example.zipaboutgui.service.RentalService;
+import com.example.zipaboutgui.ui.util.BackgroundLoader;
+import com.example.zipaboutgui.ui.util.CachedScreen;
+import com.example.zipaboutgui.ui.util.ChangeBatch;
+import com.example.zipaboutgui.ui.util.FxChangeFeed;
+import com.example.zipaboutgui.ui.util.LiveList;
 import com.example.zipaboutgui.ui.util.SceneSwitcher;
 import com.example.zipaboutgui.ui.util.Session;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
@@ -27,7 +32,7 @@ import javafx.scene.control.*;
  * <p>All business rules are enforced via {@link RentalService}.
  * This controller only coordinates UI state and user feedback.</p>
  */
-public class VehiclesController {
+public class VehiclesController implements CachedScreen {
 
     /**
      * Singleton service providing access to vehicles and rentals.
@@ -89,6 +94,14 @@ public class VehiclesController {
     private final Tooltip bookTooltip = new Tooltip();
     private final Tooltip releaseTooltip = new Tooltip();
 
+    // -------------------------------
+    // Live data
+    // -------------------------------
+
+    private LiveList<Vehicle> vehicles;
+    private FxChangeFeed.Subscription changes;
+    private final BackgroundLoader loader = new BackgroundLoader();
+
     /**
      * JavaFX initialization method.
      *
@@ -151,11 +164,12 @@ public class VehiclesController {
         /* -------------------------------
            Populate table
          -------------------------------- */
-        vehiclesTable.setItems(
-                FXCollections.observableArrayList(
-                        rentalService.getVehicles()
-                )
-        );
+        // Filled in the background by onLoad(); afterwards the change
+        // feed updates single rows
+        vehicles = new LiveList<>(vehicle -> true);
+        SortedList<Vehicle> items = new SortedList<>(vehicles);
+        items.comparatorProperty().bind(vehiclesTable.comparatorProperty());
+        vehiclesTable.setItems(items);
 
         /* -------------------------------
            Selection listener
@@ -190,14 +204,9 @@ public class VehiclesController {
                                             : "BOOKED")
                     );
 
-                    // Determine active rental for this vehicle
-                    Rental activeRental = null;
-                    for (Rental r : rentalService.getActiveRentals()) {
-                        if (r.getVehicle().equals(selectedVehicle)) {
-                            activeRental = r;
-                            break;
-                        }
-                    }
+                    // Determine active rental for this vehicle (indexed lookup)
+                    Rental activeRental =
+                            rentalService.getActiveRentalForVehicle(selectedVehicle);
 
                     boolean bookedByCurrentUser =
                             activeRental != null
@@ -268,7 +277,6 @@ public class VehiclesController {
                 selectedVehicle
         );
 
-        vehiclesTable.refresh();
         updateDetailsAndButtons(selectedVehicle);
         updateSessionLabel();
 
@@ -314,7 +322,6 @@ public class VehiclesController {
                 selectedVehicle
         );
 
-        vehiclesTable.refresh();
         updateDetailsAndButtons(selectedVehicle);
         updateSessionLabel();
 
@@ -329,6 +336,52 @@ public class VehiclesController {
         info.showAndWait();
     }
 
+    /**
+     * Subscribes to the change feed, then loads the vehicles.
+     */
+    @Override
+    public void onLoad() {
+        changes = FxChangeFeed.subscribe(this::applyChanges);
+        loader.loadInto(vehiclesTable, "vehicles", rentalService::getVehicles, vehicles::load);
+    }
+
+    /**
+     * Refreshes the loyalty info, which may have changed on another
+     * screen, and starts without a selection as a fresh screen would.
+     */
+    @Override
+    public void onShow() {
+        if (Session.getCurrentUser() != null) {
+            updateSessionLabel();
+        }
+        vehiclesTable.getSelectionModel().clearSelection();
+    }
+
+    /**
+     * Stops the change feed and any query still running.
+     */
+    @Override
+    public void dispose() {
+        loader.cancelAll();
+        if (changes != null) {
+            changes.cancel();
+        }
+    }
+
+    /**
+     * Applies bookings and releases (from this or any other session) to
+     * the table, and refreshes the details panel if the selected vehicle
+     * was affected.
+     */
+    private void applyChanges(ChangeBatch batch) {
+        vehicles.apply(batch.getVehicles());
+
+        Vehicle selected = vehiclesTable.getSelectionModel().getSelectedItem();
+        if (selected != null && batch.getVehicles().contains(selected)) {
+            updateDetailsAndButtons(selected);
+        }
+    }
+
     /**
      * Updates the details panel and button states for a selected vehicle.
      */
@@ -364,6 +417,7 @@ public class VehiclesController {
     private void handleBack() {
         Session.logout();
         SceneSwitcher.switchTo("login.fxml");
+        SceneSwitcher.clearCache();
     }
 
     /**
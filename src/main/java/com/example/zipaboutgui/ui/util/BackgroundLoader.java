@@ -0,0 +1,114 @@
+package com.example.zipaboutgui.ui.util;
+
+import com.example.zipaboutgui.service.EventLog;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs a screen's data queries off the JavaFX Application Thread.
+ *
+ * <p>Each controller owns one loader. A query runs as a {@link Task} on
+ * its own virtual thread, so a slow query - a large history scan, or a
+ * persistent backend later - never delays rendering or the scene switch.
+ * The result is handed to the controller on the FX thread.</p>
+ *
+ * <p>While a table's query runs, the table shows a progress placeholder;
+ * if the query fails it says so instead of staying empty. When the user
+ * leaves the screen, {@link #cancelAll()} interrupts queries that are
+ * still running and their results are discarded.</p>
+ */
+public final class BackgroundLoader {
+
+    /**
+     * Shared by all screens; virtual threads cost next to nothing to
+     * start and do not need to be shut down.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final List<Task<?>> running = new ArrayList<>();   // FX thread only
+
+    /**
+     * Runs a query in the background.
+     *
+     * @param query    the query; runs on a virtual thread
+     * @param onLoaded receives the result on the FX thread, unless cancelled
+     * @return the task, e.g. to observe its state
+     */
+    public <T> Task<T> load(Callable<? extends T> query, Consumer<? super T> onLoaded) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return query.call();
+            }
+        };
+        running.add(task);
+        task.setOnSucceeded(e -> {
+            running.remove(task);
+            onLoaded.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            running.remove(task);
+            EventLog.warn("query.failed", "Background query failed: {}", String.valueOf(task.getException()));
+        });
+        task.setOnCancelled(e -> running.remove(task));
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * Runs a query for a table, showing a progress placeholder until it
+     * finishes.
+     *
+     * @param table    table that is empty while loading
+     * @param what     what is loaded, for the placeholder text (e.g. "users")
+     * @param query    the query; runs on a virtual thread
+     * @param onLoaded receives the result on the FX thread, unless cancelled
+     * @return the task
+     */
+    public <T> Task<T> loadInto(TableView<?> table, String what,
+                                Callable<? extends T> query, Consumer<? super T> onLoaded) {
+        Node idlePlaceholder = table.getPlaceholder();
+        Task<T> task = load(query, onLoaded);
+        table.setPlaceholder(loadingPlaceholder(task, what));
+
+        // Handlers run on the FX thread, so they are in place before the task can finish
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED,
+                e -> table.setPlaceholder(idlePlaceholder));
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED,
+                e -> table.setPlaceholder(new Label("Could not load " + what + ".")));
+        return task;
+    }
+
+    private static Node loadingPlaceholder(Task<?> task, String what) {
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.progressProperty().bind(task.progressProperty());
+        progress.setMaxSize(40, 40);
+
+        VBox box = new VBox(8, progress, new Label("Loading " + what + "…"));
+        box.setAlignment(Pos.CENTER);
+        return box;
+    }
+
+    /**
+     * Cancels all queries still running, e.g. when leaving the screen.
+     */
+    public void cancelAll() {
+        for (Task<?> task : List.copyOf(running)) {
+            task.cancel(true);
+        }
+        running.clear();
+    }
+}
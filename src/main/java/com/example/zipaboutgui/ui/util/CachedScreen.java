@@ -0,0 +1,44 @@
+package com.example.zipaboutgui.ui.util;
+
+/**
+ * Lifecycle hooks for controllers whose screen {@link SceneSwitcher} may
+ * keep in its cache and show again instead of reloading the FXML.
+ *
+ * <p>A cached screen is loaded once, shown and hidden any number of
+ * times, and disposed when the cache drops it (or on logout). Only
+ * controllers implementing this interface are cached; all other screens
+ * are loaded fresh on every visit, as before.</p>
+ *
+ * <p>{@code initialize()} may run on a preloading thread, so it should
+ * only build the UI. Anything bound to the JavaFX Application Thread -
+ * change-feed subscriptions, background queries, timelines - belongs in
+ * {@link #onLoad()}. All hooks are called on the FX thread.</p>
+ */
+public interface CachedScreen {
+
+    /**
+     * Called once after loading, before the screen is first shown.
+     */
+    default void onLoad() {
+    }
+
+    /**
+     * Called every time the screen is shown; refresh anything that is not
+     * kept current by the change feed.
+     */
+    default void onShow() {
+    }
+
+    /**
+     * Called when another screen replaces this one.
+     */
+    default void onHide() {
+    }
+
+    /**
+     * Called when the screen leaves the cache; release what
+     * {@link #onLoad()} started.
+     */
+    default void dispose() {
+    }
+}
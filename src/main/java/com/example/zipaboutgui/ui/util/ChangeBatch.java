@@ -0,0 +1,78 @@
+package com.example.zipaboutgui.ui.util;
+
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.service.Rental;
+import com.example.zipaboutgui.service.RentalChange;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * The {@link RentalChange}s collected by {@link FxChangeFeed} during one
+ * pulse, coalesced per object.
+ *
+ * <p>A batch only says <em>which</em> users, vehicles and rentals changed;
+ * a vehicle booked and released again within the pulse appears once.
+ * Views re-read the current state of each object when applying the batch,
+ * so the order of the original changes does not matter.</p>
+ */
+public final class ChangeBatch {
+
+    private final Set<User> users = identitySet();
+    private final Set<User> removedUsers = identitySet();
+    private final Set<Vehicle> vehicles = identitySet();
+    private final Set<Rental> rentals = identitySet();
+
+    private static <T> Set<T> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    void add(RentalChange change) {
+        switch (change.type()) {
+            case USER_REGISTERED -> {
+                removedUsers.remove(change.user());
+                users.add(change.user());
+            }
+            case USER_REMOVED -> {
+                users.remove(change.user());
+                removedUsers.add(change.user());
+            }
+            case VEHICLE_REGISTERED -> vehicles.add(change.vehicle());
+            case RESERVATION_STARTED, RESERVATION_ENDED -> {
+                users.add(change.user());
+                vehicles.add(change.vehicle());
+            }
+            case RENTAL_STARTED, RENTAL_ENDED -> {
+                users.add(change.user());
+                vehicles.add(change.vehicle());
+                rentals.add(change.rental());
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return users.isEmpty() && removedUsers.isEmpty() && vehicles.isEmpty() && rentals.isEmpty();
+    }
+
+    /** Users registered, or whose active rental started or ended. */
+    public Set<User> getUsers() {
+        return Collections.unmodifiableSet(users);
+    }
+
+    /** Users removed from the service. */
+    public Set<User> getRemovedUsers() {
+        return Collections.unmodifiableSet(removedUsers);
+    }
+
+    /** Vehicles registered, or whose status changed. */
+    public Set<Vehicle> getVehicles() {
+        return Collections.unmodifiableSet(vehicles);
+    }
+
+    /** Rentals started or ended. */
+    public Set<Rental> getRentals() {
+        return Collections.unmodifiableSet(rentals);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.zipaboutgui.ui.util;
+
+import com.example.zipaboutgui.service.RentalChange;
+import com.example.zipaboutgui.service.RentalChangeListener;
+import com.example.zipaboutgui.service.RentalService;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Delivers the {@link RentalService} change feed to screens on the JavaFX
+ * Application Thread, in batches.
+ *
+ * <p>Changes can come from any thread. They are queued, and at most one
+ * drain task is pending on the FX thread at a time, so everything that
+ * arrives before the next pulse is handed to subscribers as a single
+ * {@link ChangeBatch}. A burst of bookings therefore costs one table update
+ * per pulse, not one per booking.</p>
+ *
+ * <p>Screens subscribe in {@code initialize()} and cancel the
+ * {@link Subscription} when they navigate away. The feed is only attached
+ * to the service while someone is subscribed.</p>
+ */
+public final class FxChangeFeed {
+
+    /**
+     * Handle returned by {@link #subscribe(Consumer)}.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private static final FxChangeFeed INSTANCE = new FxChangeFeed(RentalService.getInstance());
+
+    private final RentalService service;
+    private final RentalChangeListener listener = this::enqueue;
+    private final ConcurrentLinkedQueue<RentalChange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final List<Consumer<ChangeBatch>> subscribers = new ArrayList<>();   // FX thread only
+
+    private FxChangeFeed(RentalService service) {
+        this.service = service;
+    }
+
+    /**
+     * Subscribes to batched changes. Must be called on the FX thread.
+     *
+     * @param subscriber called on the FX thread with each batch
+     * @return handle to cancel the subscription
+     */
+    public static Subscription subscribe(Consumer<ChangeBatch> subscriber) {
+        return INSTANCE.add(subscriber);
+    }
+
+    private Subscription add(Consumer<ChangeBatch> subscriber) {
+        if (subscribers.isEmpty()) {
+            service.addChangeListener(listener);
+        }
+        subscribers.add(subscriber);
+        return () -> remove(subscriber);
+    }
+
+    private void remove(Consumer<ChangeBatch> subscriber) {
+        if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+            service.removeChangeListener(listener);
+            pending.clear();
+        }
+    }
+
+    /**
+     * Called on the thread that changed the service.
+     */
+    private void enqueue(RentalChange change) {
+        pending.add(change);
+        if (!drainScheduled.get() && drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Clear the flag first: a change queued from now on either is
+        // polled below or schedules the next drain
+        drainScheduled.set(false);
+
+        ChangeBatch batch = new ChangeBatch();
+        RentalChange change;
+        while ((change = pending.poll()) != null) {
+            batch.add(change);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Consumer<ChangeBatch> subscriber : List.copyOf(subscribers)) {
+            subscriber.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.zipaboutgui.ui.util;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Observable list that is kept up to date item by item instead of being
+ * rebuilt.
+ *
+ * <p>The list holds the items that pass a filter (e.g. "rental is
+ * active"). {@link #apply(Collection)} re-checks changed items against
+ * the filter and turns each into an add, an update or a remove, reported
+ * together rather than one event per item. Updates are reported as such,
+ * so a {@code TableView} only redraws the affected rows and keeps its
+ * selection and scroll position.</p>
+ *
+ * <p>Items keep their initial order and new ones are appended; tables
+ * sort it through a {@link javafx.collections.transformation.SortedList}.
+ * It must only be used on the JavaFX Application Thread.</p>
+ *
+ * @param <T> item type, compared by identity
+ */
+public final class LiveList<T> extends ObservableListBase<T> {
+
+    private final Predicate<? super T> filter;
+    private final List<T> items = new ArrayList<>();
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private final Set<T> discardedBeforeLoad;   // non-null when created empty; only since the last load
+
+    /**
+     * Creates an empty list; fill it with {@link #load(Collection)} once
+     * the initial query (or each of its pages) returns.
+     *
+     * @param filter which items belong in the list
+     */
+    public LiveList(Predicate<? super T> filter) {
+        this.filter = filter;
+        this.discardedBeforeLoad = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * @param initial items to start with; those failing the filter are skipped
+     * @param filter  which items belong in the list
+     */
+    public LiveList(Collection<? extends T> initial, Predicate<? super T> filter) {
+        this.filter = filter;
+        this.discardedBeforeLoad = null;
+        for (T item : initial) {
+            if (filter.test(item)) {
+                positions.put(item, items.size());
+                items.add(item);
+            }
+        }
+    }
+
+    /**
+     * Adds the result of an initial query.
+     *
+     * <p>Changes may have been applied while the query ran (subscribe to
+     * the change feed before starting it, so none are missed). Items
+     * that are already present or were discarded meanwhile are skipped,
+     * and every item is checked against the filter, so changes are never
+     * undone by an older result. A paged query calls this once per page,
+     * starting each page's query after the previous page was loaded, so
+     * discards only need to be remembered until the next load.</p>
+     *
+     * @param initial items loaded in the background
+     */
+    public void load(Collection<? extends T> initial) {
+        Set<T> skipped = discardedBeforeLoad != null ? discardedBeforeLoad : Set.of();
+        int from = items.size();
+        for (T item : initial) {
+            if (!positions.containsKey(item) && !skipped.contains(item) && filter.test(item)) {
+                positions.put(item, items.size());
+                items.add(item);
+            }
+        }
+        if (discardedBeforeLoad != null) {
+            discardedBeforeLoad.clear();
+        }
+        if (items.size() > from) {
+            beginChange();
+            nextAdd(from, items.size());
+            endChange();
+        }
+    }
+
+    /**
+     * Adds, updates or removes each changed item according to the filter.
+     *
+     * <p>Removals and additions are reported first and updates in a
+     * second change. A {@code SortedList} re-sorts on update, which also
+     * corrects the position of rows whose sort key changed before the
+     * batch was applied.</p>
+     *
+     * @param changed items whose state may have changed
+     */
+    public void apply(Collection<? extends T> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<Integer> removed = new ArrayList<>();
+        List<T> added = new ArrayList<>();
+        List<T> updated = new ArrayList<>();
+        for (T item : changed) {
+            Integer at = positions.get(item);
+            boolean belongs = filter.test(item);
+            if (at == null) {
+                if (belongs) {
+                    added.add(item);
+                }
+            } else if (belongs) {
+                updated.add(item);
+            } else {
+                removed.add(at);
+            }
+        }
+
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            beginChange();
+            try {
+                removeIndices(removed);
+                for (T item : added) {
+                    positions.put(item, items.size());
+                    items.add(item);
+                    nextAdd(items.size() - 1, items.size());
+                }
+            } finally {
+                endChange();
+            }
+        }
+
+        if (!updated.isEmpty()) {
+            beginChange();
+            try {
+                for (T item : updated) {
+                    nextUpdate(positions.get(item));
+                }
+            } finally {
+                endChange();
+            }
+        }
+    }
+
+    /**
+     * Removes items regardless of the filter (e.g. deleted users).
+     *
+     * @param discarded items to remove; those not in the list are ignored
+     */
+    public void discard(Collection<? extends T> discarded) {
+        List<Integer> removed = new ArrayList<>();
+        for (T item : discarded) {
+            Integer at = positions.get(item);
+            if (at != null) {
+                removed.add(at);
+            } else if (discardedBeforeLoad != null) {
+                // Not loaded yet: keep the next page from bringing it back
+                discardedBeforeLoad.add(item);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        beginChange();
+        try {
+            removeIndices(removed);
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * Removes the items at the given indices, keeping the order of the
+     * rest, in one pass over the list.
+     */
+    private void removeIndices(List<Integer> indices) {
+        if (indices.isEmpty()) {
+            return;
+        }
+        // Report from the highest index down, so each index is still valid
+        indices.sort(Comparator.reverseOrder());
+        for (int at : indices) {
+            T item = items.get(at);
+            positions.remove(item);
+            nextRemove(at, item);
+            items.set(at, null);
+        }
+
+        int lowest = indices.get(indices.size() - 1);
+        int kept = lowest;
+        for (int i = lowest; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item != null) {
+                items.set(kept, item);
+                positions.put(item, kept);
+                kept++;
+            }
+        }
+        items.subList(kept, items.size()).clear();
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+}
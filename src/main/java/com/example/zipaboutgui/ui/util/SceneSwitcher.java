@@ -1,9 +1,17 @@
 package com.example.zipaboutgui.ui.util;
 
+import com.example.zipaboutgui.service.EventLog;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Utility class responsible for switching JavaFX scenes.
  *
@@ -17,15 +25,72 @@ import javafx.stage.Stage;
  *
  * <p>This keeps controllers lightweight and focused
  * purely on UI behavior.</p>
+ *
+ * <p><b>Scene cache.</b> Screens whose controller implements
+ * {@link CachedScreen} are loaded once and kept, with their controller,
+ * in a small least-recently-shown cache (system property
+ * {@code zipabout.scene.cache.size}, default 6). Returning to such a
+ * screen reuses its scene and calls {@link CachedScreen#onShow()} instead
+ * of parsing the FXML again. Screens can also be {@linkplain #preload
+ * preloaded} in the background, e.g. the likely next screens after
+ * login.</p>
  */
 public class SceneSwitcher {
 
+    private static final String VIEW_PATH = "/com/example/zipaboutgui/ui/view/";
+
+    private static final int CACHE_SIZE =
+            Math.max(2, Integer.getInteger("zipabout.scene.cache.size", 6));
+
     /**
      * Primary stage of the JavaFX application.
      * Set once at application startup.
      */
     private static Stage stage;
 
+    /**
+     * A loaded FXML scene and its controller.
+     */
+    private record LoadedScreen(Scene scene, Object controller) {
+
+        CachedScreen lifecycle() {
+            return controller instanceof CachedScreen screen ? screen : null;
+        }
+    }
+
+    /**
+     * A parsed FXML root and its controller, not yet in a scene. Parsing
+     * may run off the FX thread; the scene must be created on it.
+     */
+    private record ParsedScreen(Parent root, Object controller) {
+
+        LoadedScreen toScene() {
+            return new LoadedScreen(new Scene(root), controller);
+        }
+    }
+
+    // --- State below is only used on the JavaFX Application Thread ---
+
+    private static LoadedScreen current;
+
+    /** Cached screens, least recently shown first. */
+    private static final Map<String, LoadedScreen> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LoadedScreen> eldest) {
+            // Never drop the screen on display; the cache shrinks on a later insert
+            if (size() <= CACHE_SIZE || eldest.getValue() == current) {
+                return false;
+            }
+            eldest.getValue().lifecycle().dispose();
+            return true;
+        }
+    };
+
+    private static final Set<String> preloading = new HashSet<>();
+
+    /** Incremented by {@link #clearCache()}; preloads started earlier are discarded. */
+    private static int cacheGeneration;
+
     /**
      * Stores the primary stage when the application starts.
      *
@@ -42,36 +107,109 @@ public class SceneSwitcher {
      * Switches the current scene to the specified FXML file.
      *
      * <p>The FXML file is loaded from the
-     * {@code /ui/view/} package.</p>
+     * {@code /ui/view/} package, unless a cached
+     * copy of the screen exists.</p>
      *
      * @param fxmlFile the name of the FXML file
      *                 (e.g. {@code "login.fxml"})
      */
     public static void switchTo(String fxmlFile) {
         try {
-            // Build the absolute path to the FXML resource
-            String path =
-                    "/com/example/zipaboutgui/ui/view/" + fxmlFile;
-
-            // Load the FXML
-            FXMLLoader loader = new FXMLLoader(
-                    SceneSwitcher.class.getResource(path)
-            );
-
-            // Fail fast if the resource cannot be found
-            if (loader.getLocation() == null) {
-                throw new IllegalStateException(
-                        "FXML not found at: " + path
-                );
+            LoadedScreen next = cache.get(fxmlFile);
+            if (next == null) {
+                next = load(fxmlFile).toScene();
+                if (next.lifecycle() != null) {
+                    next.lifecycle().onLoad();
+                    cache.put(fxmlFile, next);
+                }
             }
 
-            // Create and set the new scene
-            Scene scene = new Scene(loader.load());
-            stage.setScene(scene);
+            if (current != null && current.lifecycle() != null && current != next) {
+                current.lifecycle().onHide();
+            }
+            current = next;
+            stage.setScene(next.scene());
+            if (next.lifecycle() != null) {
+                next.lifecycle().onShow();
+            }
 
         } catch (Exception e) {
             // Print stack trace for debugging
             e.printStackTrace();
         }
     }
+
+    /**
+     * Loads screens into the cache on background threads, so that
+     * switching to them later is immediate. Screens that are cached
+     * already, or are not {@link CachedScreen}s, are skipped.
+     *
+     * @param fxmlFiles names of the FXML files
+     */
+    public static void preload(String... fxmlFiles) {
+        for (String fxmlFile : fxmlFiles) {
+            if (cache.containsKey(fxmlFile) || !preloading.add(fxmlFile)) {
+                continue;
+            }
+            int generation = cacheGeneration;
+            Thread.ofVirtual().name("scene-preload").start(() -> {
+                ParsedScreen parsed = null;
+                try {
+                    parsed = load(fxmlFile);
+                } catch (Exception e) {
+                    // Not fatal: the screen is loaded on demand instead
+                    EventLog.warn("scene.preload.failed", "{}: {}", fxmlFile, e.toString());
+                }
+                ParsedScreen result = parsed;
+                Platform.runLater(() -> finishPreload(fxmlFile, result, generation));
+            });
+        }
+    }
+
+    private static void finishPreload(String fxmlFile, ParsedScreen parsed, int generation) {
+        preloading.remove(fxmlFile);
+        if (parsed == null || !(parsed.controller() instanceof CachedScreen)
+                || generation != cacheGeneration || cache.containsKey(fxmlFile)) {
+            return;
+        }
+        LoadedScreen loaded = parsed.toScene();
+        loaded.lifecycle().onLoad();
+        cache.put(fxmlFile, loaded);
+    }
+
+    /**
+     * Disposes all cached screens, e.g. on logout so that no screen built
+     * for one user is shown to the next. Call it after switching away.
+     */
+    public static void clearCache() {
+        cacheGeneration++;
+        for (LoadedScreen screen : cache.values()) {
+            screen.lifecycle().dispose();
+        }
+        cache.clear();
+    }
+
+    /**
+     * Parses an FXML file into a detached node tree; safe to call off
+     * the FX thread as long as the controller allows it.
+     */
+    private static ParsedScreen load(String fxmlFile) throws Exception {
+        // Build the absolute path to the FXML resource
+        String path = VIEW_PATH + fxmlFile;
+
+        // Load the FXML
+        FXMLLoader loader = new FXMLLoader(
+                SceneSwitcher.class.getResource(path)
+        );
+
+        // Fail fast if the resource cannot be found
+        if (loader.getLocation() == null) {
+            throw new IllegalStateException(
+                    "FXML not found at: " + path
+            );
+        }
+
+        Parent root = loader.load();
+        return new ParsedScreen(root, loader.getController());
+    }
 }
@@ -0,0 +1,144 @@
+package com.example.zipaboutgui.ui.util;
+
+import com.example.zipaboutgui.service.Page;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.input.ScrollEvent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Loads a table's rows page by page as the user scrolls down.
+ *
+ * <p>The first page is loaded when {@link #start()} is called; the next
+ * one when the vertical scroll bar nears the end of the loaded rows, or
+ * when the user scrolls down on a table that is not yet full enough to
+ * scroll. Pages come from a cursor-based service query and are fetched
+ * through the screen's {@link BackgroundLoader}, one at a time, so memory
+ * and query time grow with what the user actually looks at.</p>
+ *
+ * @param <T> row type
+ */
+public final class TablePager<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Fraction of the scroll range after which the next page is requested. */
+    private static final double LOAD_THRESHOLD = 0.9;
+
+    /**
+     * Fetches one page; runs on a background thread.
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+
+        /**
+         * @param cursor   null for the first page, else {@link Page#nextCursor()}
+         *                 of the previous page
+         * @param pageSize maximum number of rows
+         */
+        Page<T> fetch(String cursor, int pageSize) throws Exception;
+    }
+
+    private final TableView<?> table;
+    private final BackgroundLoader loader;
+    private final String what;
+    private final int pageSize;
+    private final PageSource<T> source;
+    private final Consumer<? super List<T>> sink;
+
+    private String nextCursor;
+    private boolean loading;
+    private ScrollBar scrollBar;
+
+    /**
+     * @param table  the table showing the rows
+     * @param loader the screen's loader (cancelling it stops paging)
+     * @param what   what is loaded, for the loading placeholder
+     * @param source query for one page
+     * @param sink   receives each page's rows on the FX thread, e.g. to add
+     *               them to the table's items
+     */
+    public TablePager(TableView<?> table, BackgroundLoader loader, String what,
+                      PageSource<T> source, Consumer<? super List<T>> sink) {
+        this.table = table;
+        this.loader = loader;
+        this.what = what;
+        this.pageSize = DEFAULT_PAGE_SIZE;
+        this.source = source;
+        this.sink = sink;
+    }
+
+    /**
+     * Loads the first page and starts following the scroll position.
+     */
+    public void start() {
+        loading = true;
+        track(loader.loadInto(table, what, () -> source.fetch(null, pageSize), this::accept));
+
+        table.addEventFilter(ScrollEvent.SCROLL, e -> {
+            boolean scrollable = scrollBar != null && scrollBar.isVisible();
+            if (e.getDeltaY() < 0 && !scrollable) {
+                loadNextPage();
+            }
+        });
+        if (table.getSkin() != null) {
+            findScrollBar();
+        } else {
+            table.skinProperty().addListener((obs, oldSkin, newSkin) -> findScrollBar());
+        }
+    }
+
+    /**
+     * @return whether more rows are available than have been loaded
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    private void accept(Page<T> page) {
+        loading = false;
+        nextCursor = page.nextCursor();
+        sink.accept(page.items());
+    }
+
+    private void loadNextPage() {
+        if (loading || nextCursor == null) {
+            return;
+        }
+        loading = true;
+        String cursor = nextCursor;
+        track(loader.load(() -> source.fetch(cursor, pageSize), this::accept));
+    }
+
+    /**
+     * Allows a new request if this one fails or is cancelled.
+     */
+    private void track(Task<?> task) {
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, e -> loading = false);
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, e -> loading = false);
+    }
+
+    private void findScrollBar() {
+        if (scrollBar != null) {
+            return;
+        }
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                scrollBar = bar;
+                bar.valueProperty().addListener((obs, oldValue, value) -> {
+                    double range = bar.getMax() - bar.getMin();
+                    if (value.doubleValue() >= bar.getMin() + range * LOAD_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+                return;
+            }
+        }
+    }
+}
@@ -12,4 +12,5 @@ module com.example.zipaboutgui {
     exports com.example.zipaboutgui.service;
     exports com.example.zipaboutgui.domain.vehicle;
     exports com.example.zipaboutgui.domain.user;
+    // Not exported: domain.vehicle.internal (Vehicle mutators used by the service)
 }
@@ -0,0 +1,82 @@
+package com.example.zipaboutgui.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Expiry, cancellation, timeouts longer than one turn of the wheel, and
+ * shutdown, on a small wheel with a short tick.
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    private final BlockingQueue<Fired> fired = new LinkedBlockingQueue<>();
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel",
+            TICK_MILLIS, TimeUnit.MILLISECONDS, 4, item -> fired.add(new Fired(item, System.nanoTime())));
+
+    private record Fired(String item, long atNanos) {
+    }
+
+    @AfterEach
+    void closeWheel() {
+        wheel.close();
+    }
+
+    @Test
+    void timeoutExpiresNoEarlierThanItsDelay() throws InterruptedException {
+        long start = System.nanoTime();
+        wheel.schedule("a", 30, TimeUnit.MILLISECONDS);
+
+        Fired a = fired.poll(5, TimeUnit.SECONDS);
+        assertEquals("a", a.item());
+        assertTrue(a.atNanos() - start >= TimeUnit.MILLISECONDS.toNanos(30), "fired early");
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws InterruptedException {
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 30, TimeUnit.MILLISECONDS);
+        wheel.schedule("kept", 60, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel(), "cancelled twice");
+
+        assertEquals("kept", fired.poll(5, TimeUnit.SECONDS).item());
+        assertNull(fired.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    void timeoutSpanningSeveralRoundsWaitsForAllOfThem() throws InterruptedException {
+        // Four 10 ms buckets: 250 ms is six full turns of the wheel and then some
+        long start = System.nanoTime();
+        wheel.schedule("late", 250, TimeUnit.MILLISECONDS);
+        wheel.schedule("early", 20, TimeUnit.MILLISECONDS);
+
+        assertEquals("early", fired.poll(5, TimeUnit.SECONDS).item());
+        Fired late = fired.poll(5, TimeUnit.SECONDS);
+        assertEquals("late", late.item());
+        assertTrue(late.atNanos() - start >= TimeUnit.MILLISECONDS.toNanos(250), "fired a round early");
+    }
+
+    @Test
+    void closedWheelStopsFiring() throws InterruptedException {
+        HashedTimingWheel.Timeout<String> dropped = wheel.schedule("dropped", 50, TimeUnit.MILLISECONDS);
+        wheel.close();
+        wheel.schedule("after close", 10, TimeUnit.MILLISECONDS);
+
+        assertNull(fired.poll(150, TimeUnit.MILLISECONDS));
+        assertTrue(dropped.cancel(), "dropped timeout counted as fired");
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(t -> t.getName().equals("test-wheel")), "wheel thread still running");
+    }
+}
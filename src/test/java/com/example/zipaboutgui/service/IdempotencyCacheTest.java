@@ -0,0 +1,133 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays by idempotency key, keys reused for another request, and keys
+ * whose operation is still running when the cache is over capacity.
+ */
+class IdempotencyCacheTest {
+
+    private LogLevel previousLevel;
+    private RentalService service;
+    private User rider;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        previousLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+
+        service = RentalService.newInstance();
+        rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        vehicle = new VehicleFactory().createVehicle(VehicleKind.E_SCOOTER, "Scooter", "Test",
+                new Equipment[0], new Battery(400, 100, true), new Motor(250), new Controller("v1"));
+        service.registerUser(rider);
+        service.registerVehicle(vehicle);
+    }
+
+    @AfterEach
+    void restoreLog() {
+        EventLog.setLevel(previousLevel);
+    }
+
+    @Test
+    void retryReplaysFirstOutcome() {
+        RentalResult first = service.bookVehicle("book-1", rider, vehicle);
+        RentalResult retry = service.bookVehicle("book-1", rider, vehicle);
+
+        assertTrue(first.isSuccess());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertSame(first.rental(), retry.rental());
+        assertEquals(1, service.getActiveRentals().size());
+
+        // A new key runs again and is refused: the rider already has this rental
+        RentalResult fresh = service.bookVehicle("book-2", rider, vehicle);
+        assertFalse(fresh.isSuccess());
+        assertFalse(fresh.replayed());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        service.bookVehicle("key", rider, vehicle);
+
+        assertThrows(IllegalArgumentException.class, () -> service.releaseVehicle("key", rider, vehicle));
+        User other = new User("u2", "other", "Other", "pw", Role.USER);
+        service.registerUser(other);
+        assertThrows(IllegalArgumentException.class, () -> service.bookVehicle("key", other, vehicle));
+        assertTrue(service.userHasActiveRental(rider), "rejected request changed state");
+    }
+
+    @Test
+    void runningOperationIsNotEvicted() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(1), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        RentalResult outcome = RentalResult.rejected(RejectionReason.BATTERY_TOO_LOW);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<RentalResult> slow = executor.submit(() -> cache.execute("slow", "book", rider, vehicle, () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(finish);
+                return outcome;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Over capacity, but the running key must stay claimed
+            cache.execute("other", "book", rider, vehicle, () -> outcome);
+            assertEquals(2, cache.size());
+
+            finish.countDown();
+            assertSame(outcome, slow.get(5, TimeUnit.SECONDS));
+            assertTrue(cache.execute("slow", "book", rider, vehicle, () -> {
+                runs.incrementAndGet();
+                return outcome;
+            }).replayed());
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Once finished, old keys are dropped down to capacity again
+        cache.execute("newest", "book", rider, vehicle, () -> outcome);
+        assertEquals(1, cache.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
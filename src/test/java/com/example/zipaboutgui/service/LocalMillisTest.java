@@ -0,0 +1,55 @@
+package com.example.zipaboutgui.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the hand-written calendar arithmetic in {@link LocalMillis}
+ * against {@link DateTimeFormatter}, including dates before 1970 and
+ * leap days.
+ */
+class LocalMillisTest {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final LocalDateTime[] TIMES = {
+            LocalDateTime.of(1970, 1, 1, 0, 0),
+            LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000),
+            LocalDateTime.of(1969, 3, 1, 0, 0),
+            LocalDateTime.of(1968, 2, 29, 12, 30),
+            LocalDateTime.of(1900, 2, 28, 23, 59),
+            LocalDateTime.of(1900, 3, 1, 0, 1),
+            LocalDateTime.of(1600, 2, 29, 6, 15),
+            LocalDateTime.of(2000, 2, 29, 18, 45),
+            LocalDateTime.of(2024, 2, 29, 0, 0),
+            LocalDateTime.of(2024, 3, 1, 0, 0),
+            LocalDateTime.of(2100, 3, 1, 9, 5),
+    };
+
+    @Test
+    void appendDateTimeMatchesFormatter() {
+        for (LocalDateTime time : TIMES) {
+            long millis = LocalMillis.of(time);
+            StringBuilder sb = new StringBuilder("at ");
+            assertEquals("at " + FORMAT.format(time), LocalMillis.appendDateTime(sb, millis).toString(),
+                    time.toString());
+            assertEquals(FORMAT.format(time), LocalMillis.format(millis), time.toString());
+        }
+    }
+
+    @Test
+    void conversionRoundTrips() {
+        for (LocalDateTime time : TIMES) {
+            long millis = LocalMillis.of(time);
+            assertEquals(time, LocalMillis.toLocalDateTime(millis));
+            assertEquals(time.toLocalDate().toEpochDay(), LocalMillis.epochDay(millis), time.toString());
+        }
+        assertEquals(LocalMillis.NONE, LocalMillis.of(null));
+        assertNull(LocalMillis.toLocalDateTime(LocalMillis.NONE));
+    }
+}
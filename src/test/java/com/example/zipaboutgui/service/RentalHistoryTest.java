@@ -0,0 +1,81 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Reads across archive segments (256 rentals each) and the hot window,
+ * after the window's ring buffer has wrapped around.
+ */
+class RentalHistoryTest {
+
+    /** Two full segments, part of a third, plus the hot window. */
+    private static final int RENTALS = 2 * 256 + 100 + 32;
+
+    private RentalHistory history;
+    private List<Rental> expected;
+
+    @BeforeEach
+    void fillHistory() {
+        RentalLog log = new RentalLog();
+        history = new RentalHistory(log);
+        expected = new ArrayList<>();
+        User rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        User other = new User("u2", "other", "Other", "pw", Role.USER);
+        Vehicle bike = new VehicleFactory().createVehicle(VehicleKind.BIKE, "Trek", "FX 1",
+                new Equipment[0], null, null, null);
+        for (int i = 0; i < RENTALS; i++) {
+            // Rentals of another user in between make the log gaps vary (1 to 300)
+            for (int k = 0; k < (i * 37) % 300; k++) {
+                log.append(new Rental(-1, other, bike));
+            }
+            Rental rental = new Rental(i, rider, bike);
+            history.append(rental, log.append(rental));
+            expected.add(rental);
+        }
+    }
+
+    @Test
+    void getReadsArchiveAndWrappedHotWindow() {
+        assertEquals(RENTALS, history.size());
+        for (int i = 0; i < RENTALS; i++) {
+            assertSame(expected.get(i), history.get(i), "rental " + i);
+        }
+    }
+
+    @Test
+    void copyRangeCrossesSegmentBoundaries() {
+        assertRange(0, RENTALS);
+        assertRange(250, 262);      // first into second segment
+        assertRange(255, 257);
+        assertRange(256, 512);      // exactly one segment
+        assertRange(100, 600);      // three segments
+    }
+
+    @Test
+    void copyRangeCrossesIntoHotWindow() {
+        int archived = RENTALS - 32;
+        assertRange(archived - 5, archived + 5);
+        assertRange(archived, RENTALS);
+        assertRange(RENTALS - 1, RENTALS);
+        assertRange(10, 10);
+    }
+
+    private void assertRange(int from, int to) {
+        List<Rental> out = new ArrayList<>();
+        history.copyRange(from, to, out);
+        assertEquals(expected.subList(from, to), out, "range [" + from + ", " + to + ")");
+    }
+}
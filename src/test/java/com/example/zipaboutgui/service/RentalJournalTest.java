@@ -0,0 +1,154 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Restart tests for the journal: torn tails, records crossing the read
+ * window, and segments dropped after a snapshot.
+ */
+class RentalJournalTest {
+
+    @TempDir
+    Path dataDir;
+
+    private LogLevel previousLevel;
+
+    @BeforeEach
+    void silenceLog() {
+        previousLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void restoreLog() {
+        EventLog.setLevel(previousLevel);
+    }
+
+    @Test
+    void tornTailIsTruncatedAndEarlierRecordsReplayed() throws IOException {
+        RentalService service = RentalService.newInstance();
+        service.enablePersistence(dataDir, false);
+        User rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        Vehicle vehicle = scooter();
+        service.registerUser(rider);
+        service.registerVehicle(vehicle);
+        service.bookVehicle(rider, vehicle);
+        service.releaseVehicle(rider, vehicle);
+        service.bookVehicle(rider, vehicle);
+        service.closePersistence();
+
+        Path segment = single(segments());
+        long intact = Files.size(segment);
+        try (FileChannel out = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            // Header of a 100-byte record, then only part of its payload
+            out.write(ByteBuffer.allocate(20).putInt(100).putInt(0x1234).flip());
+        }
+
+        RentalService restarted = RentalService.newInstance();
+        restarted.enablePersistence(dataDir, false);
+        try {
+            assertEquals(intact, Files.size(segment));
+            assertEquals(1, restarted.getUsers().size());
+            assertEquals(1, restarted.getVehicles().size());
+            assertEquals(1, restarted.getActiveRentals().size());
+            assertEquals(1, restarted.getPastRentalsForUser(restarted.getUsers().get(0)).size());
+        } finally {
+            restarted.closePersistence();
+        }
+    }
+
+    @Test
+    void recordsSpanningReadWindowsAreReplayed() throws IOException {
+        // Roughly 2 MiB of records, so several cross the 1 MiB window
+        int count = 40_000;
+        RentalService service = RentalService.newInstance();
+        service.enablePersistence(dataDir, false);
+        for (int i = 0; i < count; i++) {
+            service.registerUser(new User("U" + i, "user" + i, "User number " + i, "pw", Role.USER));
+        }
+        service.closePersistence();
+        assertTrue(Files.size(single(segments())) > 2L << 20, "journal smaller than two windows");
+
+        RentalService restarted = RentalService.newInstance();
+        restarted.enablePersistence(dataDir, false);
+        try {
+            List<User> users = restarted.getUsers();
+            assertEquals(count, users.size());
+            assertEquals("User number " + (count - 1), users.get(count - 1).getName());
+        } finally {
+            restarted.closePersistence();
+        }
+    }
+
+    @Test
+    void snapshotStartsNewSegmentAndDropsCoveredOnes() throws IOException {
+        RentalService service = RentalService.newInstance();
+        service.enablePersistence(dataDir, false);
+        User rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        Vehicle vehicle = scooter();
+        service.registerUser(rider);
+        service.registerVehicle(vehicle);
+        service.bookVehicle(rider, vehicle);
+        service.writeSnapshot();
+        service.releaseVehicle(rider, vehicle);
+        service.registerUser(new User("u2", "later", "Later", "pw", Role.USER));
+        service.closePersistence();
+
+        Path segment = single(segments());
+        assertFalse(segment.getFileName().toString().endsWith("0000000000000000000"),
+                "first segment kept after snapshot");
+
+        RentalService restarted = RentalService.newInstance();
+        restarted.enablePersistence(dataDir, false);
+        try {
+            assertEquals(2, restarted.getUsers().size());
+            assertTrue(restarted.getActiveRentals().isEmpty(), "release after snapshot lost");
+            assertEquals(1, restarted.getPastRentalsForUser(restarted.getUsers().get(0)).size());
+        } finally {
+            restarted.closePersistence();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dataDir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(RentalService.JOURNAL_FILE + "."))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path single(List<Path> segments) {
+        assertEquals(1, segments.size(), "segments: " + segments);
+        return segments.get(0);
+    }
+
+    private static Vehicle scooter() {
+        return new VehicleFactory().createVehicle(VehicleKind.E_SCOOTER, "Scooter", "Test",
+                new Equipment[0], new Battery(400, 100, true), new Motor(250), new Controller("v1"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cursor paging over a user's history, oldest and newest first.
+ */
+class RentalQueryTest {
+
+    private static final int RENTALS = 25;
+    private static final int PAGE_SIZE = 10;
+
+    private LogLevel previousLevel;
+    private RentalService service;
+    private User rider;
+    private Vehicle vehicle;
+    private List<Rental> booked;
+
+    @BeforeEach
+    void bookHistory() {
+        previousLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+
+        service = RentalService.newInstance();
+        rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        vehicle = new VehicleFactory().createVehicle(VehicleKind.E_SCOOTER, "Scooter", "Test",
+                new Equipment[0], new Battery(400, 100, true), new Motor(250), new Controller("v1"));
+        service.registerUser(rider);
+        service.registerVehicle(vehicle);
+        booked = new ArrayList<>();
+        for (int i = 0; i < RENTALS; i++) {
+            booked.add(service.bookVehicle(rider, vehicle));
+            service.releaseVehicle(rider, vehicle);
+        }
+    }
+
+    @AfterEach
+    void restoreLog() {
+        EventLog.setLevel(previousLevel);
+    }
+
+    @Test
+    void cursorPagesOldestFirst() {
+        RentalQuery query = service.queryRentals().forUser(rider).oldestFirst();
+        List<Rental> all = readAll(query);
+        assertEquals(booked, all);
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getStartMillis() <= all.get(i).getStartMillis(),
+                    "start times out of order at " + i);
+        }
+    }
+
+    @Test
+    void cursorPagesNewestFirst() {
+        RentalQuery query = service.queryRentals().forUser(rider).newestFirst();
+        List<Rental> expected = new ArrayList<>(booked);
+        Collections.reverse(expected);
+        assertEquals(expected, readAll(query));
+    }
+
+    @Test
+    void newBookingsDoNotShiftOldestFirstCursor() {
+        RentalQuery query = service.queryRentals().forUser(rider).oldestFirst();
+        Page<Rental> first = query.first(PAGE_SIZE);
+        service.bookVehicle(rider, vehicle);
+
+        Page<Rental> second = query.after(first.nextCursor(), PAGE_SIZE);
+        assertEquals(booked.subList(PAGE_SIZE, 2 * PAGE_SIZE), second.items());
+        assertEquals(RENTALS + 1, second.total());
+    }
+
+    @Test
+    void completedOnlyLeavesOutActiveRentalInBothOrders() {
+        Rental active = service.bookVehicle(rider, vehicle);
+        Page<Rental> newest = service.queryRentals().forUser(rider).completedOnly().newestFirst().first(1);
+        assertEquals(booked.get(RENTALS - 1), newest.items().get(0));
+        List<Rental> oldest = readAll(service.queryRentals().forUser(rider).completedOnly().oldestFirst());
+        assertEquals(booked, oldest);
+        assertFalse(oldest.contains(active));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        Page<Rental> page = service.queryRentals().forUser(rider).page(RENTALS / PAGE_SIZE, PAGE_SIZE);
+        assertEquals(RENTALS % PAGE_SIZE, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    private static List<Rental> readAll(RentalQuery query) {
+        List<Rental> all = new ArrayList<>();
+        Page<Rental> page = query.first(PAGE_SIZE);
+        all.addAll(page.items());
+        while (page.hasMore()) {
+            assertEquals(PAGE_SIZE, page.items().size(), "short page before the end");
+            page = query.after(page.nextCursor(), PAGE_SIZE);
+            all.addAll(page.items());
+        }
+        return all;
+    }
+}
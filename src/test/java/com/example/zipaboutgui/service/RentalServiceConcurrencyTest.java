@@ -0,0 +1,122 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test for booking and release: many riders compete for a few
+ * vehicles, and no vehicle may ever be booked twice at the same time.
+ */
+class RentalServiceConcurrencyTest {
+
+    private static final int RIDERS = 32;
+    private static final int VEHICLES = 4;
+    private static final int ATTEMPTS_PER_RIDER = 5_000;
+
+    private LogLevel previousLevel;
+
+    @BeforeEach
+    void silenceLog() {
+        previousLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void restoreLog() {
+        EventLog.setLevel(previousLevel);
+    }
+
+    @Test
+    void concurrentBookingsNeverDoubleBookAVehicle() throws Exception {
+        RentalService service = RentalService.newInstance();
+        VehicleFactory factory = new VehicleFactory();
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            Vehicle vehicle = factory.createVehicle(VehicleKind.E_SCOOTER, "Scooter " + i, "Test",
+                    new Equipment[0], new Battery(400, 100, true), new Motor(250), new Controller("v1"));
+            service.registerVehicle(vehicle);
+            vehicles.add(vehicle);
+        }
+        List<User> riders = new ArrayList<>();
+        for (int i = 0; i < RIDERS; i++) {
+            User rider = new User("u" + i, "rider" + i, "Rider " + i, "pw", Role.USER);
+            service.registerUser(rider);
+            riders.add(rider);
+        }
+
+        // Riders holding each vehicle, as seen by the riders themselves
+        AtomicIntegerArray holders = new AtomicIntegerArray(VEHICLES);
+        AtomicLong bookings = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(RIDERS);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (User rider : riders) {
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int n = 0; n < ATTEMPTS_PER_RIDER; n++) {
+                        int index = random.nextInt(VEHICLES);
+                        Vehicle vehicle = vehicles.get(index);
+                        Rental rental = service.bookVehicle(rider, vehicle);
+                        if (rental == null) {
+                            continue;
+                        }
+                        assertEquals(1, holders.incrementAndGet(index),
+                                "vehicle booked by two riders at once");
+                        assertSame(rental, service.getActiveRentalForVehicle(vehicle));
+                        bookings.incrementAndGet();
+
+                        // Only this rider can release it, so it is still held until the call below
+                        holders.decrementAndGet(index);
+                        service.releaseVehicle(rider, vehicle);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(bookings.get() > 0, "no booking succeeded");
+        assertTrue(service.getActiveRentals().isEmpty(), "rentals left active");
+        for (Vehicle vehicle : vehicles) {
+            assertTrue(vehicle.isAvailable(), vehicle.getModel() + " not available");
+        }
+        for (User rider : riders) {
+            assertFalse(service.userHasActiveRental(rider), rider.getName() + " still riding");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.zipaboutgui.service;
+
+import com.example.zipaboutgui.domain.enums.Role;
+import com.example.zipaboutgui.domain.enums.VehicleKind;
+import com.example.zipaboutgui.domain.equipment.Equipment;
+import com.example.zipaboutgui.domain.parts.Battery;
+import com.example.zipaboutgui.domain.parts.Controller;
+import com.example.zipaboutgui.domain.parts.Motor;
+import com.example.zipaboutgui.domain.user.User;
+import com.example.zipaboutgui.domain.vehicle.Vehicle;
+import com.example.zipaboutgui.domain.vehicle.VehicleFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Restarts from a snapshot plus journal tail, including a snapshot that
+ * already contains a completion recorded after its journal position.
+ */
+class RentalSnapshotTest {
+
+    @TempDir
+    Path dataDir;
+
+    private LogLevel previousLevel;
+
+    @BeforeEach
+    void silenceLog() {
+        previousLevel = EventLog.getLevel();
+        EventLog.setLevel(LogLevel.OFF);
+    }
+
+    @AfterEach
+    void restoreLog() {
+        EventLog.setLevel(previousLevel);
+    }
+
+    @Test
+    void snapshotRoundTripKeepsRentalsAndCounters() throws IOException {
+        RentalService service = RentalService.newInstance();
+        service.enablePersistence(dataDir, false);
+        User rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        Vehicle vehicle = scooter();
+        service.registerUser(rider);
+        service.registerVehicle(vehicle);
+        rideTimes(service, rider, vehicle, 5);
+        Rental active = service.bookVehicle(rider, vehicle);
+        service.writeSnapshot();
+        service.closePersistence();
+
+        RentalService restarted = RentalService.newInstance();
+        restarted.enablePersistence(dataDir, false);
+        try {
+            User restoredRider = restarted.getUsers().get(0);
+            assertEquals(5, restoredRider.getTotalCompletedRentals());
+            assertEquals(rider.getLoyaltyPoints(), restoredRider.getLoyaltyPoints());
+            assertEquals(rider.isVip(), restoredRider.isVip());
+
+            List<Rental> activeRentals = restarted.getActiveRentals();
+            assertEquals(1, activeRentals.size());
+            Rental restoredActive = activeRentals.get(0);
+            assertEquals(active.getNumericId(), restoredActive.getNumericId());
+            assertEquals(active.getStartMillis(), restoredActive.getStartMillis());
+            assertEquals(vehicle.getId(), restoredActive.getVehicle().getId());
+
+            List<Rental> past = restarted.getPastRentalsForUser(restoredRider);
+            List<Rental> originalPast = service.getPastRentalsForUser(rider);
+            assertEquals(originalPast.size(), past.size());
+            for (int i = 0; i < past.size(); i++) {
+                assertEquals(originalPast.get(i).getStartMillis(), past.get(i).getStartMillis());
+                assertEquals(originalPast.get(i).getEndMillis(), past.get(i).getEndMillis());
+            }
+        } finally {
+            restarted.closePersistence();
+        }
+    }
+
+    @Test
+    void tailAfterSnapshotIsReplayed() throws IOException {
+        RentalService service = RentalService.newInstance();
+        service.enablePersistence(dataDir, false);
+        User rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        Vehicle vehicle = scooter();
+        service.registerUser(rider);
+        service.registerVehicle(vehicle);
+        rideTimes(service, rider, vehicle, 4);
+        service.bookVehicle(rider, vehicle);
+        service.writeSnapshot();
+        service.releaseVehicle(rider, vehicle);
+        service.registerUser(new User("u2", "later", "Later", "pw", Role.USER));
+        int expectedPoints = rider.getLoyaltyPoints();
+        service.closePersistence();
+
+        RentalService restarted = RentalService.newInstance();
+        restarted.enablePersistence(dataDir, false);
+        try {
+            assertEquals(2, restarted.getUsers().size());
+            assertTrue(restarted.getActiveRentals().isEmpty(), "release in the tail lost");
+            User restoredRider = restarted.getUsers().get(0);
+            assertEquals(5, restoredRider.getTotalCompletedRentals());
+            assertEquals(expectedPoints, restoredRider.getLoyaltyPoints());
+        } finally {
+            restarted.closePersistence();
+        }
+    }
+
+    @Test
+    void completionAlreadyInSnapshotIsNotRewardedTwice() throws IOException {
+        RentalService service = RentalService.newInstance();
+        RentalJournal journal = service.enableJournal(dataDir.resolve(RentalService.JOURNAL_FILE));
+        User rider = new User("u1", "rider", "Rider", "pw", Role.USER);
+        Vehicle vehicle = scooter();
+        service.registerUser(rider);
+        service.registerVehicle(vehicle);
+        rideTimes(service, rider, vehicle, 4);
+        service.bookVehicle(rider, vehicle);
+
+        // Views and position are taken first; the release lands before the copy
+        StateView view = service.snapshot();
+        long position = journal.getAppendedPosition();
+        service.releaseVehicle(rider, vehicle);
+        RentalSnapshot.capture(view.getUsers(), view.getVehicles(), view.getRentals(),
+                position, new LockStripes(2)).writeTo(dataDir.resolve(RentalService.SNAPSHOT_FILE));
+        int expectedPoints = rider.getLoyaltyPoints();
+        service.closeJournal();
+
+        RentalService restarted = RentalService.newInstance();
+        restarted.enablePersistence(dataDir, false);
+        try {
+            User restoredRider = restarted.getUsers().get(0);
+            assertTrue(restarted.getActiveRentals().isEmpty(), "completed rental still active");
+            assertEquals(5, restoredRider.getTotalCompletedRentals());
+            assertEquals(expectedPoints, restoredRider.getLoyaltyPoints());
+        } finally {
+            restarted.closePersistence();
+        }
+    }
+
+    private static void rideTimes(RentalService service, User rider, Vehicle vehicle, int times) {
+        for (int i = 0; i < times; i++) {
+            service.bookVehicle(rider, vehicle);
+            service.releaseVehicle(rider, vehicle);
+        }
+    }
+
+    private static Vehicle scooter() {
+        return new VehicleFactory().createVehicle(VehicleKind.E_SCOOTER, "Scooter", "Test",
+                new Equipment[0], new Battery(400, 100, true), new Motor(250), new Controller("v1"));
+    }
+}